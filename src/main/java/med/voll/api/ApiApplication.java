@@ -2,12 +2,22 @@ package med.voll.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(ApiApplication.class, args);
+        criarAplicacao().run(args);
+    }
+
+    // Registra as etapas da inicialização (fases e beans) para o relatório de startup e para /actuator/startup.
+    public static SpringApplication criarAplicacao() {
+        var aplicacao = new SpringApplication(ApiApplication.class);
+        aplicacao.setApplicationStartup(new BufferingApplicationStartup(10000));
+        return aplicacao;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package med.voll.api.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import med.voll.api.domain.consulta.estatistica.DadosReconstrucaoEstatisticas;
+import med.voll.api.domain.consulta.estatistica.ReconstrucaoEstatisticas;
+import med.voll.api.domain.consulta.jornada.CadastroJornadas;
+import med.voll.api.domain.consulta.jornada.DadosDetalhamentoExcecaoAgenda;
+import med.voll.api.domain.consulta.jornada.DadosExcecaoAgenda;
+import med.voll.api.domain.consulta.validacoes.DadosOrdemValidadores;
+import med.voll.api.domain.consulta.validacoes.OrdenadorValidadores;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("admin")
+@SecurityRequirement(name = "bearer-key")
+public class AdministracaoController {
+
+    @Autowired
+    private OrdenadorValidadores ordenadorValidadores;
+
+    @Autowired
+    private CadastroJornadas cadastroJornadas;
+
+    @Autowired
+    private ReconstrucaoEstatisticas reconstrucaoEstatisticas;
+
+    // Ordem atual dos validadores de agendamento e os números que a justificam.
+    @GetMapping("/validadores")
+    public ResponseEntity<DadosOrdemValidadores> validadores() {
+        return ResponseEntity.ok(ordenadorValidadores.descrever());
+    }
+
+    // Período sem atendimento na clínica inteira, como um feriado.
+    @PostMapping("/excecoes")
+    @Transactional
+    public ResponseEntity<DadosDetalhamentoExcecaoAgenda> registrarExcecao(@RequestBody @Valid DadosExcecaoAgenda dados) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(cadastroJornadas.registrarExcecao(null, dados));
+    }
+
+    // Recalcula as estatísticas de consultas a partir do histórico, para reparar contadores divergentes.
+    @PostMapping("/estatisticas/reconstrucao")
+    public ResponseEntity<DadosReconstrucaoEstatisticas> reconstruirEstatisticas() {
+        return ResponseEntity.ok(reconstrucaoEstatisticas.reconstruir());
+    }
+}
@@ -2,16 +2,43 @@ package med.voll.api.controller;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.AgendaDeConsultas;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
 import med.voll.api.domain.consulta.DadosCancelamentoConsulta;
 import med.voll.api.domain.consulta.DadosDetalhamentoConsulta;
+import med.voll.api.domain.consulta.ExecutorAgendamentos;
+import med.voll.api.domain.consulta.calendario.CalendarioDisponibilidade;
+import med.voll.api.domain.consulta.calendario.DadosCalendarioDisponibilidade;
+import med.voll.api.domain.consulta.espera.DadosDetalhamentoPedidoEspera;
+import med.voll.api.domain.consulta.espera.DadosPedidoEspera;
+import med.voll.api.domain.consulta.espera.ListaDeEspera;
+import med.voll.api.domain.consulta.estatistica.ContadoresConsultas;
+import med.voll.api.domain.consulta.estatistica.DadosEstatisticasConsultas;
+import med.voll.api.domain.consulta.historico.ConsultaHistoricoRepository;
+import med.voll.api.domain.consulta.historico.DadosHistoricoConsulta;
+import med.voll.api.domain.consulta.serie.AgendamentoSeries;
+import med.voll.api.domain.consulta.serie.DadosAgendamentoSerie;
+import med.voll.api.domain.consulta.serie.DadosResultadoSerie;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.infra.sse.DifusorEventosAgenda;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+
 @RestController
 @RequestMapping("consultas")
 @SecurityRequirement(name = "bearer-key")
@@ -22,17 +49,82 @@ public class ConsultaController {
     @Autowired
     private AgendaDeConsultas agenda;
 
+    @Autowired
+    private ExecutorAgendamentos executorAgendamentos;
+
+    @Autowired
+    private AgendamentoSeries agendamentoSeries;
+
+    @Autowired
+    private ListaDeEspera listaDeEspera;
+
+    @Autowired
+    private ContadoresConsultas contadores;
+
+    @Autowired
+    private CalendarioDisponibilidade calendario;
+
+    @Autowired
+    private DifusorEventosAgenda difusorEventos;
+
+    // Leitura pela view consultas_historico, que inclui as consultas já arquivadas.
+    @Autowired
+    private ConsultaHistoricoRepository historicoRepository;
+
     @PostMapping
-    @Transactional
     public ResponseEntity<DadosDetalhamentoConsulta> agendar(@RequestBody @Valid DadosAgendamentoConsulta dados, UriComponentsBuilder uriBuilder) {
         // Delega toda a lógica de negócio (validações, etc.) para o serviço.
-        var dadosDetalhamento = agenda.agendar(dados);
+        // A transação é aberta pelo executor, que pode agrupar vários agendamentos num único commit.
+        var dadosDetalhamento = executorAgendamentos.agendar(dados);
 
         var uri = uriBuilder.path("/consultas/{id}").buildAndExpand(dadosDetalhamento.id()).toUri();
         // Retorna 201 Created, que é o correto para criação.
         return ResponseEntity.created(uri).body(dadosDetalhamento);
     }
 
+    // Série de consultas com o mesmo médico (sessões de fisioterapia, retornos), agendada numa única transação.
+    @PostMapping("/series")
+    @Transactional
+    public ResponseEntity<DadosResultadoSerie> agendarSerie(@RequestBody @Valid DadosAgendamentoSerie dados) {
+        return ResponseEntity.ok(agendamentoSeries.agendar(dados));
+    }
+
+    // Totais por dia e especialidade, lidos da tabela de estatísticas (no máximo 366 dias por consulta).
+    @GetMapping("/estatisticas")
+    public ResponseEntity<DadosEstatisticasConsultas> estatisticas(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                                                   @RequestParam(required = false) Especialidade especialidade,
+                                                                   @RequestParam(required = false) Long idMedico) {
+        return ResponseEntity.ok(contadores.consultar(de, ate, especialidade, idMedico));
+    }
+
+    // Horários livres por dia no mês (ex: ?especialidade=CARDIOLOGIA&mes=2026-11), para a visão de calendário.
+    @GetMapping("/calendario")
+    public ResponseEntity<DadosCalendarioDisponibilidade> calendario(@RequestParam Especialidade especialidade,
+                                                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes) {
+        return ResponseEntity.ok(calendario.consultar(especialidade, mes));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DadosHistoricoConsulta> detalhar(@PathVariable Long id) {
+        var consulta = historicoRepository.getReferenceById(id);
+        return ResponseEntity.ok(new DadosHistoricoConsulta(consulta));
+    }
+
+    @GetMapping
+    public ResponseEntity<Page<DadosHistoricoConsulta>> listar(@RequestParam(required = false) Long idMedico,
+                                                               @RequestParam(required = false) Long idPaciente,
+                                                               @PageableDefault(size = 10, sort = {"data"}, direction = Sort.Direction.DESC) Pageable paginacao) {
+        if (idMedico == null && idPaciente == null) {
+            throw new ValidacaoException(CodigoErroValidacao.FILTRO_HISTORICO_OBRIGATORIO);
+        }
+
+        var page = idMedico == null ? historicoRepository.findAllByIdPaciente(idPaciente, paginacao)
+                : idPaciente == null ? historicoRepository.findAllByIdMedico(idMedico, paginacao)
+                : historicoRepository.findAllByIdMedicoAndIdPaciente(idMedico, idPaciente, paginacao);
+        return ResponseEntity.ok(page.map(DadosHistoricoConsulta::new));
+    }
+
     @DeleteMapping
     @Transactional
     public ResponseEntity<Void> cancelar(@RequestBody @Valid DadosCancelamentoConsulta dados) {
@@ -40,4 +132,34 @@ public class ConsultaController {
         agenda.cancelar(dados);
         return ResponseEntity.noContent().build();
     }
+
+    // Quando não há médico disponível, o paciente entra na lista de espera em vez de tentar de novo
+    // o agendamento; o resultado é acompanhado pelo endpoint de detalhamento do pedido.
+    @PostMapping("/espera")
+    @Transactional
+    public ResponseEntity<DadosDetalhamentoPedidoEspera> entrarNaListaDeEspera(@RequestBody @Valid DadosPedidoEspera dados, UriComponentsBuilder uriBuilder) {
+        var pedido = listaDeEspera.entrar(dados);
+
+        var uri = uriBuilder.path("/consultas/espera/{id}").buildAndExpand(pedido.id()).toUri();
+        return ResponseEntity.created(uri).body(pedido);
+    }
+
+    @GetMapping("/espera/{id}")
+    public ResponseEntity<DadosDetalhamentoPedidoEspera> detalharPedidoDeEspera(@PathVariable Long id) {
+        return ResponseEntity.ok(listaDeEspera.detalhar(id));
+    }
+
+    @DeleteMapping("/espera/{id}")
+    @Transactional
+    public ResponseEntity<Void> sairDaListaDeEspera(@PathVariable Long id) {
+        listaDeEspera.sair(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Fluxo SSE com os horários ocupados e liberados, opcionalmente filtrado por médico ou especialidade.
+    // Substitui o polling das telas de agenda.
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@RequestParam(required = false) Long idMedico, @RequestParam(required = false) Especialidade especialidade) {
+        return difusorEventos.inscrever(idMedico, especialidade);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package med.voll.api.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import med.voll.api.domain.consulta.jornada.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Jornada de trabalho, exceções e horários livres de um médico.
+@RestController
+@RequestMapping("/medicos/{idMedico}")
+@SecurityRequirement(name = "bearer-key")
+public class JornadaMedicoController {
+
+    @Autowired
+    private CadastroJornadas cadastroJornadas;
+
+    @GetMapping("/jornada")
+    public ResponseEntity<List<DadosHorarioTrabalho>> jornada(@PathVariable Long idMedico) {
+        return ResponseEntity.ok(cadastroJornadas.listar(idMedico));
+    }
+
+    @PutMapping("/jornada")
+    @Transactional
+    public ResponseEntity<List<DadosHorarioTrabalho>> atualizarJornada(@PathVariable Long idMedico, @RequestBody @Valid DadosJornadaMedico dados) {
+        return ResponseEntity.ok(cadastroJornadas.substituir(idMedico, dados));
+    }
+
+    @PostMapping("/excecoes")
+    @Transactional
+    public ResponseEntity<DadosDetalhamentoExcecaoAgenda> registrarExcecao(@PathVariable Long idMedico, @RequestBody @Valid DadosExcecaoAgenda dados) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(cadastroJornadas.registrarExcecao(idMedico, dados));
+    }
+
+    // Períodos livres a partir da data, por "dias" dias (até 31). Sem duração, usa a padrão da especialidade.
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<List<DadosHorarioLivre>> disponibilidade(@PathVariable Long idMedico,
+                                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+                                                                   @RequestParam(defaultValue = "1") int dias,
+                                                                   @RequestParam(required = false) Integer duracao) {
+        return ResponseEntity.ok(cadastroJornadas.horariosLivres(idMedico, data, dias, duracao));
+    }
+}
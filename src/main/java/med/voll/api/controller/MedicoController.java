@@ -1,16 +1,32 @@
 package med.voll.api.controller;
 
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import med.voll.api.domain.cadastro.BuscaEmLote;
+import med.voll.api.domain.cadastro.DadosIdsLote;
+import med.voll.api.domain.cadastro.DadosLote;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
 import med.voll.api.domain.medico.*;
+import med.voll.api.infra.cache.CacheDetalhes;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.invalidacao.RegistroAlteracoes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.List;
+
 // @RestController: Combina @Controller e @ResponseBody, indicando que os métodos
 // retornarão dados diretamente no corpo da resposta (geralmente JSON).
 @RestController
@@ -25,6 +41,18 @@ public class MedicoController {
     @Autowired
     private MedicoRepository repository;
 
+    @Autowired
+    private RegistroCadastrosAtivos cadastrosAtivos;
+
+    @Autowired
+    private CacheDetalhes cacheDetalhes;
+
+    @Autowired
+    private BuscaEmLote buscaEmLote;
+
+    @Autowired
+    private RegistroAlteracoes alteracoes;
+
     // @PostMapping: Mapeia este método para requisições HTTP do tipo POST.
     @PostMapping
     // @Transactional: Garante que o método seja executado dentro de uma transação com o banco de dados.
@@ -35,6 +63,7 @@ public class MedicoController {
     public ResponseEntity<DadosDetalhamentoMedico> cadastrar(@RequestBody @Valid DadosCadastroMedico dados, UriComponentsBuilder uriBuilder) {
         var medico = new Medico(dados);
         repository.save(medico);
+        cadastrosAtivos.medicoCadastrado(medico.getId());
 
         // Constrói a URI para o novo recurso criado. Ex: /medicos/123
         var uri = uriBuilder.path("/medicos/{id}").buildAndExpand(medico.getId()).toUri();
@@ -49,8 +78,8 @@ public class MedicoController {
     // Pageable: Objeto injetado pelo Spring que contém informações de paginação e ordenação
     // vindas da URL (ex: ?size=10&page=0&sort=nome).
     public ResponseEntity<Page<DadosListagemMedico>> listar(Pageable paginacao) {
-        // Busca os médicos ativos no banco, já aplicando a paginação.
-        var page = repository.findAllByAtivoTrue(paginacao).map(DadosListagemMedico::new);
+        // Busca os médicos ativos no banco, já aplicando a paginação e lendo só as colunas da listagem.
+        var page = repository.findListagemAtivos(paginacao);
         // Retorna o status HTTP 200 OK e a página de médicos no corpo da resposta.
         return ResponseEntity.ok(page);
     }
@@ -65,6 +94,8 @@ public class MedicoController {
         var medico = repository.getReferenceById(id);
         // Chama o método na própria entidade para atualizar suas informações.
         medico.atualizarInformacoes(dados);
+        cacheDetalhes.invalidar("medico", id);
+        alteracoes.registrar(RecursoAlterado.MEDICO, id);
 
         // Retorna 200 OK com os dados atualizados.
         return ResponseEntity.ok(new DadosDetalhamentoMedico(medico));
@@ -77,16 +108,36 @@ public class MedicoController {
         var medico = repository.getReferenceById(id);
         // Realiza a exclusão lógica, apenas inativando o médico.
         medico.excluir();
+        cadastrosAtivos.medicoExcluido(id);
+        cacheDetalhes.invalidar("medico", id);
+        alteracoes.registrar(RecursoAlterado.MEDICO, id);
 
         // Retorna o status HTTP 204 No Content, indicando sucesso sem corpo de resposta.
         return ResponseEntity.noContent().build();
     }
 
+    // Vários médicos de uma vez (ex: GET /medicos?ids=3,1,2), na ordem pedida, informando os ids inexistentes.
+    @GetMapping(params = "ids")
+    public ResponseEntity<DadosLote<DadosListagemMedico>> buscarEmLote(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(buscaEmLote.medicos(ids));
+    }
+
+    // Mesma busca com os ids no corpo, para listas que não cabem bem na URL.
+    @PostMapping("/lote")
+    public ResponseEntity<DadosLote<DadosListagemMedico>> buscarEmLoteNoCorpo(@RequestBody @Valid DadosIdsLote dados) {
+        return ResponseEntity.ok(buscaEmLote.medicos(dados.ids()));
+    }
+
     // Endpoint para detalhar um médico específico.
-    @GetMapping("/{id}")
-    public ResponseEntity<DadosDetalhamentoMedico> detalhar(@PathVariable Long id){
-        var medico = repository.getReferenceById(id);
+    // Requisições simultâneas para o mesmo médico compartilham a carga e a serialização (ver CacheDetalhes).
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @ApiResponse(responseCode = "200", content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = DadosDetalhamentoMedico.class)),
+            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, schema = @Schema(implementation = DadosDetalhamentoMedico.class))})
+    public ResponseEntity<byte[]> detalhar(@PathVariable Long id, NativeWebRequest requisicao) throws HttpMediaTypeNotAcceptableException {
+        var formato = cacheDetalhes.formato(requisicao);
+        var corpo = cacheDetalhes.obter("medico", id, formato, () -> repository.findDetalhamentoById(id).orElseThrow(EntityNotFoundException::new));
         // Retorna 200 OK com os dados completos do médico.
-        return ResponseEntity.ok(new DadosDetalhamentoMedico(medico));
+        return ResponseEntity.ok().contentType(formato).body(corpo);
     }
 }
\ No newline at end of file
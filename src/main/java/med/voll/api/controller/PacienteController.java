@@ -1,17 +1,33 @@
 package med.voll.api.controller;
 
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import med.voll.api.domain.cadastro.BuscaEmLote;
+import med.voll.api.domain.cadastro.DadosIdsLote;
+import med.voll.api.domain.cadastro.DadosLote;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
 import med.voll.api.domain.paciente.*;
+import med.voll.api.infra.cache.CacheDetalhes;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.invalidacao.RegistroAlteracoes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/pacientes")
 @SecurityRequirement(name = "bearer-key")
@@ -20,6 +36,18 @@ public class PacienteController {
     @Autowired
     private PacienteRepository repository;
 
+    @Autowired
+    private RegistroCadastrosAtivos cadastrosAtivos;
+
+    @Autowired
+    private CacheDetalhes cacheDetalhes;
+
+    @Autowired
+    private BuscaEmLote buscaEmLote;
+
+    @Autowired
+    private RegistroAlteracoes alteracoes;
+
     // --- CADASTRO (CREATE) ---
     // Retorna 201 Created com a URI e o corpo do novo recurso
     @PostMapping
@@ -27,6 +55,7 @@ public class PacienteController {
     public ResponseEntity cadastrar(@RequestBody @Valid DadosCadastroPaciente dados, UriComponentsBuilder uriBuilder) {
         var paciente = new Paciente(dados);
         repository.save(paciente);
+        cadastrosAtivos.pacienteCadastrado(paciente.getId());
 
         var uri = uriBuilder.path("/pacientes/{id}").buildAndExpand(paciente.getId()).toUri();
         return ResponseEntity.created(uri).body(new DadosDetalhamentoPaciente(paciente));
@@ -36,16 +65,33 @@ public class PacienteController {
     // Retorna 200 OK com a página de pacientes ativos
     @GetMapping
     public ResponseEntity<Page<DadosListagemPaciente>> listar(@PageableDefault(size = 10, sort = {"nome"}) Pageable paginacao) {
-        var page = repository.findAllByAtivoTrue(paginacao).map(DadosListagemPaciente::new);
+        var page = repository.findListagemAtivos(paginacao);
         return ResponseEntity.ok(page);
     }
 
+    // Vários pacientes de uma vez (ex: GET /pacientes?ids=3,1,2), na ordem pedida, informando os ids inexistentes.
+    @GetMapping(params = "ids")
+    public ResponseEntity<DadosLote<DadosListagemPaciente>> buscarEmLote(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(buscaEmLote.pacientes(ids));
+    }
+
+    // Mesma busca com os ids no corpo, para listas que não cabem bem na URL.
+    @PostMapping("/lote")
+    public ResponseEntity<DadosLote<DadosListagemPaciente>> buscarEmLoteNoCorpo(@RequestBody @Valid DadosIdsLote dados) {
+        return ResponseEntity.ok(buscaEmLote.pacientes(dados.ids()));
+    }
+
     // --- DETALHAMENTO (READ ONE) ---
-    // Retorna 200 OK com os detalhes do paciente solicitado
-    @GetMapping("/{id}")
-    public ResponseEntity detalhar(@PathVariable Long id) {
-        var paciente = repository.getReferenceById(id);
-        return ResponseEntity.ok(new DadosDetalhamentoPaciente(paciente));
+    // Retorna 200 OK com os detalhes do paciente solicitado.
+    // Requisições simultâneas para o mesmo paciente compartilham a carga e a serialização (ver CacheDetalhes).
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @ApiResponse(responseCode = "200", content = {
+            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = DadosDetalhamentoPaciente.class)),
+            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, schema = @Schema(implementation = DadosDetalhamentoPaciente.class))})
+    public ResponseEntity<byte[]> detalhar(@PathVariable Long id, NativeWebRequest requisicao) throws HttpMediaTypeNotAcceptableException {
+        var formato = cacheDetalhes.formato(requisicao);
+        var corpo = cacheDetalhes.obter("paciente", id, formato, () -> repository.findDetalhamentoById(id).orElseThrow(EntityNotFoundException::new));
+        return ResponseEntity.ok().contentType(formato).body(corpo);
     }
 
     // --- ATUALIZAÇÃO (UPDATE) ---
@@ -55,6 +101,8 @@ public class PacienteController {
     public ResponseEntity atualizar(@RequestBody @Valid DadosAtualizacaoPaciente dados) {
         var paciente = repository.getReferenceById(dados.id());
         paciente.atualizarInformacoes(dados);
+        cacheDetalhes.invalidar("paciente", dados.id());
+        alteracoes.registrar(RecursoAlterado.PACIENTE, dados.id());
 
         return ResponseEntity.ok(new DadosDetalhamentoPaciente(paciente));
     }
@@ -66,6 +114,9 @@ public class PacienteController {
     public ResponseEntity excluir(@PathVariable Long id) {
         var paciente = repository.getReferenceById(id);
         paciente.excluir();
+        cadastrosAtivos.pacienteExcluido(id);
+        cacheDetalhes.invalidar("paciente", id);
+        alteracoes.registrar(RecursoAlterado.PACIENTE, id);
 
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,44 @@
+package med.voll.api.domain;
+
+// Código estável de cada recusa por regra de negócio. Os clientes devem reagir ao código, não à mensagem,
+// que é texto para pessoas e pode mudar.
+public enum CodigoErroValidacao {
+
+    PACIENTE_INEXISTENTE("Id do paciente informado não existe!"),
+    MEDICO_INEXISTENTE("Id do médico informado não existe!"),
+    CONSULTA_INEXISTENTE("Id da consulta informado não existe!"),
+    ESPECIALIDADE_OBRIGATORIA("Especialidade é obrigatória quando o médico não for escolhido!"),
+    MEDICO_INDISPONIVEL("Não existe médico disponível nessa data!"),
+    ANTECEDENCIA_AGENDAMENTO("As consultas devem ser marcadas com uma antecedência mínima de 30 minutos."),
+    FORA_DO_HORARIO_DE_FUNCIONAMENTO("Consulta fora do horário de funcionamento da clínica"),
+    MEDICO_INATIVO("A consulta não pode ser agendada com um médico inativo."),
+    PACIENTE_INATIVO("A consulta não pode ser agendada com um paciente inativo"),
+    MEDICO_OCUPADO_NO_HORARIO("Médico já possui outra consulta agendada nesse mesmo horário"),
+    PACIENTE_COM_CONSULTA_NO_DIA("Paciente já possui uma consulta agendada para este dia"),
+    ANTECEDENCIA_CANCELAMENTO("A consulta só pode ser cancelada com antecedência mínima de 24 horas!"),
+    JANELA_ESPERA_INVERTIDA("O fim da janela de espera deve ser posterior ao início!"),
+    JANELA_ESPERA_LONGA("A janela de espera é maior que a permitida!"),
+    PACIENTE_INATIVO_LISTA_ESPERA("O paciente inativo não pode entrar na lista de espera"),
+    MEDICO_INATIVO_LISTA_ESPERA("Não é possível aguardar vaga com um médico inativo"),
+    PEDIDO_ESPERA_ENCERRADO("Somente pedidos aguardando vaga podem ser cancelados!"),
+    FILTRO_HISTORICO_OBRIGATORIO("Informe o médico ou o paciente para listar as consultas!"),
+    FORA_DA_JORNADA_DO_MEDICO("O médico não atende nesse horário"),
+    HORARIO_TRABALHO_INVERTIDO("O fim de cada horário de trabalho deve ser posterior ao início!"),
+    EXCECAO_AGENDA_INVERTIDA("O fim da exceção deve ser posterior ao início!"),
+    SERIE_SEM_OCORRENCIAS("Informe a quantidade de ocorrências ou uma data final a partir do início da série!"),
+    SERIE_LONGA("A série tem mais ocorrências que o permitido!"),
+    SERIE_COM_CONFLITOS("Há ocorrências da série que não podem ser agendadas"),
+    PERIODO_ESTATISTICAS_INVALIDO("O período das estatísticas deve terminar depois do início e ter no máximo 366 dias!"),
+    RECONSTRUCAO_EM_ANDAMENTO("Já existe uma reconstrução das estatísticas em andamento"),
+    LOTE_GRANDE("A busca tem mais ids que o permitido!");
+
+    private final String mensagem;
+
+    CodigoErroValidacao(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -1,7 +1,27 @@
 package med.voll.api.domain;
 
+// Recusa por regra de negócio. Não captura stack trace: é um resultado esperado (e frequente) da
+// validação, não um erro de programação, e o tratador só precisa do código e da mensagem.
 public class ValidacaoException extends RuntimeException {
-    public ValidacaoException(String mensagem) {
-        super(mensagem);
+
+    private final CodigoErroValidacao codigo;
+
+    public ValidacaoException(CodigoErroValidacao codigo) {
+        this(codigo, codigo.getMensagem());
+    }
+
+    // Para quando a mensagem precisa de um detalhe calculado; o código continua o mesmo.
+    public ValidacaoException(CodigoErroValidacao codigo, String mensagem) {
+        super(mensagem, null, false, false);
+        this.codigo = codigo;
+    }
+
+    public CodigoErroValidacao getCodigo() {
+        return codigo;
+    }
+
+    // Indica se a mensagem é a padrão do código, o que permite reaproveitar a resposta já serializada.
+    public boolean isMensagemPadrao() {
+        return getMessage().equals(codigo.getMensagem());
     }
 }
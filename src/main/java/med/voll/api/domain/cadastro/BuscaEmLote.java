@@ -0,0 +1,63 @@
+package med.voll.api.domain.cadastro;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosListagemPaciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Resolve vários médicos ou pacientes com uma única consulta "id in (...)", projetada direto nos dados de
+// listagem, no lugar de um GET por id. Inclui cadastros inativos: quem pergunta em geral está exibindo
+// consultas antigas.
+@Component
+public class BuscaEmLote {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Value("${api.cadastros.tamanho-maximo-lote:100}")
+    private int tamanhoMaximo;
+
+    public DadosLote<DadosListagemMedico> medicos(List<Long> ids) {
+        return buscar(ids, medicoRepository::findListagemByIdIn, DadosListagemMedico::id);
+    }
+
+    public DadosLote<DadosListagemPaciente> pacientes(List<Long> ids) {
+        return buscar(ids, pacienteRepository::findListagemByIdIn, DadosListagemPaciente::id);
+    }
+
+    private <T> DadosLote<T> buscar(List<Long> ids, Function<Collection<Long>, List<T>> consulta, Function<T, Long> id) {
+        var pedidos = new LinkedHashSet<>(ids);
+        if (pedidos.size() > tamanhoMaximo) {
+            throw new ValidacaoException(CodigoErroValidacao.LOTE_GRANDE, "Informe no máximo " + tamanhoMaximo + " ids por busca!");
+        }
+        if (pedidos.isEmpty()) {
+            return new DadosLote<>(List.of(), List.of());
+        }
+
+        var porId = new HashMap<Long, T>();
+        consulta.apply(pedidos).forEach(item -> porId.put(id.apply(item), item));
+
+        var itens = new ArrayList<T>(porId.size());
+        var inexistentes = new ArrayList<Long>();
+        for (var pedido : pedidos) {
+            var item = porId.get(pedido);
+            if (item != null) {
+                itens.add(item);
+            } else {
+                inexistentes.add(pedido);
+            }
+        }
+        return new DadosLote<>(itens, inexistentes);
+    }
+}
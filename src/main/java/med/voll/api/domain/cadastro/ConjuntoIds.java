@@ -0,0 +1,65 @@
+package med.voll.api.domain.cadastro;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Conjunto de ids num bitset de longs: um bit por id, sem boxing.
+// Como os ids são sequenciais, um milhão de cadastros ocupa cerca de 125 KB.
+// Leituras não bloqueiam; escritas (raras: cadastro e exclusão) são serializadas, o que permite crescer
+// o array sem perder atualizações concorrentes.
+class ConjuntoIds {
+
+    private volatile AtomicLongArray palavras = new AtomicLongArray(1024);
+
+    boolean contem(long id) {
+        var atual = palavras;
+        var indice = indice(id);
+        return indice < atual.length() && (atual.get(indice) & (1L << id)) != 0;
+    }
+
+    synchronized void adicionar(long id) {
+        var indice = indice(id);
+        garantirCapacidade(indice);
+        var atual = palavras;
+        atual.set(indice, atual.get(indice) | (1L << id));
+    }
+
+    synchronized void remover(long id) {
+        var atual = palavras;
+        var indice = indice(id);
+        if (indice < atual.length()) {
+            atual.set(indice, atual.get(indice) & ~(1L << id));
+        }
+    }
+
+    synchronized int quantidade() {
+        var atual = palavras;
+        var total = 0;
+        for (var i = 0; i < atual.length(); i++) {
+            total += Long.bitCount(atual.get(i));
+        }
+        return total;
+    }
+
+    long bytes() {
+        return (long) palavras.length() * Long.BYTES;
+    }
+
+    private void garantirCapacidade(int indice) {
+        var atual = palavras;
+        if (indice < atual.length()) {
+            return;
+        }
+        var novas = new AtomicLongArray(Math.max(indice + 1, atual.length() + (atual.length() >> 1)));
+        for (var i = 0; i < atual.length(); i++) {
+            novas.set(i, atual.get(i));
+        }
+        palavras = novas;
+    }
+
+    private static int indice(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id negativo: " + id);
+        }
+        return Math.toIntExact(id >>> 6);
+    }
+}
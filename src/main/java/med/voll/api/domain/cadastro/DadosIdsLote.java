@@ -0,0 +1,11 @@
+package med.voll.api.domain.cadastro;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record DadosIdsLote(
+        @NotEmpty
+        List<@NotNull Long> ids) {
+}
@@ -0,0 +1,7 @@
+package med.voll.api.domain.cadastro;
+
+import java.util.List;
+
+// Resultado de uma busca por vários ids: os encontrados na ordem pedida (sem repetições) e os que não existem.
+public record DadosLote<T>(List<T> itens, List<Long> inexistentes) {
+}
@@ -0,0 +1,7 @@
+package med.voll.api.domain.cadastro;
+
+// Projeção usada para carregar o registro de cadastros ativos em lotes.
+public interface IdAtivo {
+    Long getId();
+    Boolean getAtivo();
+}
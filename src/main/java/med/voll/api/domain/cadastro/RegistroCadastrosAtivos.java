@@ -0,0 +1,131 @@
+package med.voll.api.domain.cadastro;
+
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.infra.invalidacao.CacheInvalidavel;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.transacao.Transacoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Quais médicos e pacientes existem e quais estão ativos, em memória, para que as validações de agendamento
+// não precisem ir ao banco. A flag só muda no cadastro e no excluir, e o registro é atualizado depois do commit.
+// Ids que o registro não conhece (ainda não carregados, ou cadastrados por outra instância) são conferidos no
+// banco e passam a ser conhecidos; exclusões feitas por outras instâncias chegam pelo LeitorAlteracoes e fazem
+// o id ser conferido no banco de novo.
+@Slf4j
+@Component
+public class RegistroCadastrosAtivos implements CacheInvalidavel {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Value("${api.cadastros.tamanho-lote-carga:5000}")
+    private int tamanhoLote;
+
+    private final Registro medicos = new Registro("médicos");
+    private final Registro pacientes = new Registro("pacientes");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        medicos.carregar(medicoRepository::findIdsAPartirDe, tamanhoLote);
+        pacientes.carregar(pacienteRepository::findIdsAPartirDe, tamanhoLote);
+    }
+
+    // Retorna null quando o médico não existe.
+    public Boolean medicoAtivo(Long id) {
+        return medicos.ativo(id, medicoRepository::findAtivoById);
+    }
+
+    // Retorna null quando o paciente não existe.
+    public Boolean pacienteAtivo(Long id) {
+        return pacientes.ativo(id, pacienteRepository::findAtivoById);
+    }
+
+    public void medicoCadastrado(Long id) {
+        Transacoes.aposCommit(() -> medicos.registrar(id, true));
+    }
+
+    public void medicoExcluido(Long id) {
+        Transacoes.aposCommit(() -> medicos.registrar(id, false));
+    }
+
+    public void pacienteCadastrado(Long id) {
+        Transacoes.aposCommit(() -> pacientes.registrar(id, true));
+    }
+
+    public void pacienteExcluido(Long id) {
+        Transacoes.aposCommit(() -> pacientes.registrar(id, false));
+    }
+
+    @Override
+    public void invalidar(RecursoAlterado recurso, Long id) {
+        switch (recurso) {
+            case MEDICO -> medicos.esquecer(id);
+            case PACIENTE -> pacientes.esquecer(id);
+        }
+    }
+
+    private static class Registro {
+
+        private final String nome;
+        private final ConjuntoIds existentes = new ConjuntoIds();
+        private final ConjuntoIds ativos = new ConjuntoIds();
+
+        Registro(String nome) {
+            this.nome = nome;
+        }
+
+        Boolean ativo(Long id, Function<Long, Boolean> consultarBanco) {
+            if (existentes.contem(id)) {
+                return ativos.contem(id);
+            }
+            var ativo = consultarBanco.apply(id);
+            if (ativo != null) {
+                registrar(id, ativo);
+            }
+            return ativo;
+        }
+
+        void registrar(long id, boolean ativo) {
+            existentes.adicionar(id);
+            if (ativo) {
+                ativos.adicionar(id);
+            } else {
+                ativos.remover(id);
+            }
+        }
+
+        void esquecer(long id) {
+            existentes.remover(id);
+            ativos.remover(id);
+        }
+
+        void carregar(BiFunction<Long, Pageable, List<IdAtivo>> buscarLote, int tamanhoLote) {
+            var ultimoId = 0L;
+            List<IdAtivo> lote;
+            do {
+                lote = buscarLote.apply(ultimoId, PageRequest.of(0, tamanhoLote));
+                for (var linha : lote) {
+                    registrar(linha.getId(), linha.getAtivo());
+                    ultimoId = linha.getId();
+                }
+            } while (lote.size() == tamanhoLote);
+            log.info("Registro de {} carregado: {} cadastros, {} ativos, {} KB", nome,
+                    existentes.quantidade(), ativos.quantidade(), (existentes.bytes() + ativos.bytes()) / 1024);
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package med.voll.api.domain.consulta;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
-import med.voll.api.domain.consulta.validacoes.ValidadorAgendamentoDeConsulta;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
+import med.voll.api.domain.consulta.escolha.EstrategiaEscolhaMedico;
+import med.voll.api.domain.consulta.espera.ListaDeEspera;
+import med.voll.api.domain.consulta.estatistica.ContadoresConsultas;
+import med.voll.api.domain.consulta.ocupacao.Intervalo;
+import med.voll.api.domain.consulta.ocupacao.OcupacaoMedicos;
+import med.voll.api.domain.consulta.validacoes.CustoValidacao;
+import med.voll.api.domain.consulta.validacoes.OrdenadorValidadores;
 import med.voll.api.domain.consulta.validacoes.cancelamento.ValidadorCancelamentoDeConsulta;
 import med.voll.api.domain.medico.Medico;
 import med.voll.api.domain.medico.MedicoRepository;
 import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.invalidacao.RegistroAlteracoes;
+import med.voll.api.infra.outbox.RegistradorOutbox;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 
 @Service
 public class AgendaDeConsultas {
@@ -20,42 +35,76 @@ public class AgendaDeConsultas {
     private MedicoRepository medicoRepository;
     @Autowired
     private PacienteRepository pacienteRepository;
+    // Existência e situação de médicos e pacientes, em memória.
+    @Autowired
+    private RegistroCadastrosAtivos cadastrosAtivos;
 
-    // Injeção de uma lista de todos os beans que implementam a interface ValidadorAgendamentoDeConsulta.
+    // Executa todos os beans que implementam a interface ValidadorAgendamentoDeConsulta, dos mais baratos aos mais caros.
     // Isso torna o sistema extensível: para adicionar uma nova regra, basta criar uma nova classe.
     @Autowired
-    private List<ValidadorAgendamentoDeConsulta> validadoresAgendamento;
+    private OrdenadorValidadores validadoresAgendamento;
 
     @Autowired
     private List<ValidadorCancelamentoDeConsulta> validadoresCancelamento;
 
+    // Os eventos são gravados na mesma transação da consulta e entregues depois, em segundo plano.
+    @Autowired
+    private RegistradorOutbox outbox;
+
+    @Autowired
+    private ListaDeEspera listaDeEspera;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private EstrategiaEscolhaMedico estrategiaEscolhaMedico;
+
+    @Autowired
+    private DuracaoConsultas duracoes;
+
+    // Estatísticas para os painéis, somadas na mesma transação.
+    @Autowired
+    private ContadoresConsultas contadores;
+
+    @Autowired
+    private OcupacaoMedicos ocupacao;
+
+    // As outras instâncias descartam a ocupação do médico ao ler o log de alterações.
+    @Autowired
+    private RegistroAlteracoes alteracoes;
+
     public DadosDetalhamentoConsulta agendar(DadosAgendamentoConsulta dados) {
+        // Regras que só olham os dados da requisição rodam antes de qualquer consulta ao banco.
+        validadoresAgendamento.validar(dados, CustoValidacao.PURO);
+
         // Validações básicas de existência, que também poderiam ser movidas para validadores específicos.
-        if (!pacienteRepository.existsById(dados.idPaciente())) {
-            throw new ValidacaoException("Id do paciente informado não existe!");
+        if (cadastrosAtivos.pacienteAtivo(dados.idPaciente()) == null) {
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_INEXISTENTE);
         }
-        if (dados.idMedico() != null && !medicoRepository.existsById(dados.idMedico())) {
-            throw new ValidacaoException("Id do médico informado não existe!");
+        if (dados.idMedico() != null && cadastrosAtivos.medicoAtivo(dados.idMedico()) == null) {
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_INEXISTENTE);
         }
 
-        // Executa cada uma das regras de negócio de agendamento.
-        validadoresAgendamento.forEach(v -> v.validar(dados));
+        // Executa as demais regras de negócio de agendamento.
+        validadoresAgendamento.validar(dados, CustoValidacao.BANCO);
 
         var paciente = pacienteRepository.getReferenceById(dados.idPaciente());
-        var medico = escolherMedico(dados);
+        var fim = dados.data().plus(duracoes.duracao(dados));
+        var medico = escolherMedico(dados, fim);
         if (medico == null) {
-            throw new ValidacaoException("Não existe médico disponível nessa data!");
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_INDISPONIVEL);
         }
 
-        var consulta = new Consulta(null, medico, paciente, dados.data(), null);
-        consultaRepository.save(consulta);
+        var consulta = new Consulta(null, medico, paciente, dados.data(), fim);
+        registrarAgendamento(consulta);
 
         return new DadosDetalhamentoConsulta(consulta);
     }
 
     public void cancelar(DadosCancelamentoConsulta dados) {
         if (!consultaRepository.existsById(dados.idConsulta())) {
-            throw new ValidacaoException("Id da consulta informado não existe!");
+            throw new ValidacaoException(CodigoErroValidacao.CONSULTA_INEXISTENTE);
         }
 
         // Executa cada uma das regras de negócio de cancelamento.
@@ -63,17 +112,70 @@ public class AgendaDeConsultas {
 
         var consulta = consultaRepository.getReferenceById(dados.idConsulta());
         consulta.cancelar(dados.motivo());
+        contadores.cancelada(consulta, dados.motivo());
+        outbox.registrar(TipoEventoConsulta.CONSULTA_CANCELADA, consulta);
+        eventos.publishEvent(new AlteracaoHorario(TipoAlteracaoHorario.HORARIO_LIBERADO, consulta));
+        alteracoes.registrar(RecursoAlterado.AGENDA_MEDICO, consulta.getMedico().getId());
+
+        // A vaga liberada vai direto para o pedido mais antigo da lista de espera, na mesma transação.
+        listaDeEspera.reservarPedidoCompativel(consulta.getMedico(), consulta.getData()).ifPresent(pedido -> {
+            var novaConsulta = new Consulta(null, consulta.getMedico(), pedido.getPaciente(), consulta.getData(), consulta.getDataFim());
+            registrarAgendamento(novaConsulta);
+            pedido.atender(novaConsulta);
+        });
+    }
+
+    // Grava a consulta e os eventos que ela gera, tudo na transação corrente.
+    private void registrarAgendamento(Consulta consulta) {
+        registrarAgendamentos(List.of(consulta));
+    }
+
+    // Para consultas já validadas por quem chama, como as ocorrências de uma série.
+    public void registrarAgendamentos(List<Consulta> consultas) {
+        conferirHorarios(consultas);
+        consultaRepository.saveAll(consultas);
+        for (var consulta : consultas) {
+            contadores.agendada(consulta);
+            outbox.registrar(TipoEventoConsulta.CONSULTA_AGENDADA, consulta);
+            eventos.publishEvent(new AlteracaoHorario(TipoAlteracaoHorario.HORARIO_OCUPADO, consulta));
+        }
+        consultas.stream().map(c -> c.getMedico().getId()).distinct()
+                .forEach(idMedico -> alteracoes.registrar(RecursoAlterado.AGENDA_MEDICO, idMedico));
+    }
+
+    // Checagem definitiva de conflito de horário, no banco: a ocupação em memória só filtra antes e pode estar
+    // atrás de alterações de outras instâncias. Cada médico é travado até o commit, em ordem de id para que
+    // dois lotes não se esperem em ciclo, e a ocupação é lida uma vez para todas as consultas dele.
+    private void conferirHorarios(List<Consulta> consultas) {
+        var porMedico = new TreeMap<Long, List<Consulta>>();
+        consultas.forEach(c -> porMedico.computeIfAbsent(c.getMedico().getId(), id -> new ArrayList<>()).add(c));
+        porMedico.forEach((idMedico, doMedico) -> {
+            medicoRepository.travarParaAgendamento(idMedico);
+            var inicio = doMedico.stream().map(Consulta::getData).min(LocalDateTime::compareTo).orElseThrow();
+            var fim = doMedico.stream().map(Consulta::getDataFim).max(LocalDateTime::compareTo).orElseThrow();
+            var ocupados = new ArrayList<Intervalo>();
+            consultaRepository.findOcupacaoDoMedicoParaAgendamento(idMedico, inicio, fim)
+                    .forEach(i -> ocupados.add(new Intervalo(i.getId(), i.getData(), i.getDataFim())));
+            for (var consulta : doMedico) {
+                if (ocupados.stream().anyMatch(i -> i.sobrepoe(consulta.getData(), consulta.getDataFim()))) {
+                    // A ocupação em memória deixou passar o conflito: o médico é recarregado na próxima checagem.
+                    ocupacao.descartar(idMedico, inicio.toLocalDate(), fim.toLocalDate());
+                    throw new ValidacaoException(CodigoErroValidacao.MEDICO_OCUPADO_NO_HORARIO);
+                }
+                ocupados.add(new Intervalo(null, consulta.getData(), consulta.getDataFim()));
+            }
+        });
     }
 
     // Método auxiliar para a lógica de escolha do médico.
-    private Medico escolherMedico(DadosAgendamentoConsulta dados) {
+    private Medico escolherMedico(DadosAgendamentoConsulta dados, LocalDateTime fim) {
         if (dados.idMedico() != null) {
             return medicoRepository.getReferenceById(dados.idMedico());
         }
         if (dados.especialidade() == null) {
-            throw new ValidacaoException("Especialidade é obrigatória quando o médico não for escolhido!");
+            throw new ValidacaoException(CodigoErroValidacao.ESPECIALIDADE_OBRIGATORIA);
         }
-        // Chama a query customizada no repositório para encontrar um médico aleatório e livre.
-        return medicoRepository.escolherMedicoAleatorioLivreNaData(dados.especialidade(), dados.data());
+        // A estratégia configurada escolhe entre os médicos livres da especialidade.
+        return estrategiaEscolhaMedico.escolher(dados.especialidade(), dados.data(), fim);
     }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package med.voll.api.domain.consulta;
+
+// O agendamento não terminou dentro da espera máxima (por exemplo, o escritor do commit em grupo travou).
+// O pedido é abandonado se ainda não entrou num lote; se já entrou, pode ter sido gravado mesmo assim, e uma
+// nova tentativa recebe a recusa de paciente com consulta no dia.
+public class AgendamentoNaoConcluidoException extends RuntimeException {
+
+    public AgendamentoNaoConcluidoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,20 @@
+package med.voll.api.domain.consulta;
+
+import med.voll.api.domain.medico.Especialidade;
+
+import java.time.LocalDateTime;
+
+// Evento interno publicado quando um horário de médico é ocupado ou liberado.
+// É montado dentro da transação e só é entregue aos ouvintes depois do commit.
+public record AlteracaoHorario(
+        TipoAlteracaoHorario tipo,
+        Long idConsulta,
+        Long idMedico,
+        Especialidade especialidade,
+        LocalDateTime data,
+        LocalDateTime dataFim) {
+
+    public AlteracaoHorario(TipoAlteracaoHorario tipo, Consulta consulta) {
+        this(tipo, consulta.getId(), consulta.getMedico().getId(), consulta.getMedico().getEspecialidade(), consulta.getData(), consulta.getDataFim());
+    }
+}
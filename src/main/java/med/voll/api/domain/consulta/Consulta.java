@@ -1,7 +1,6 @@
 package med.voll.api.domain.consulta;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,11 +14,12 @@ import java.time.LocalDateTime;
 @Entity(name = "Consulta")
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class Consulta {
 
     private LocalDateTime data;
+    // Fim do horário ocupado (exclusivo): uma consulta das 10:00 às 10:45 não conflita com outra às 10:45.
+    private LocalDateTime dataFim;
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,14 +35,15 @@ public class Consulta {
     @Enumerated(EnumType.STRING)
     private MotivoCancelamento motivoCancelamento;
 
-    public Consulta(Long id, Medico medico, Paciente paciente, LocalDateTime data) {
+    public Consulta(Long id, Medico medico, Paciente paciente, LocalDateTime data, LocalDateTime dataFim) {
         this.id = id;
         this.medico = medico;
         this.paciente = paciente;
         this.data = data;
+        this.dataFim = dataFim;
     }
 
     public void cancelar(MotivoCancelamento motivo) {
         this.motivoCancelamento = motivo;
     }
-}
\ No newline at end of file
+}
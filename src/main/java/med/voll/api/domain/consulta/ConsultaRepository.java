@@ -1,11 +1,110 @@
 package med.voll.api.domain.consulta;
 
-import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.medico.Especialidade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
-    boolean existsByMedicoIdAndData(Long idMedico, LocalDateTime data);
-    boolean existsByPacienteIdAndDataBetween(Long idPaciente, LocalDateTime primeiroHorario, LocalDateTime ultimoHorario);
+    // Consultas canceladas não ocupam mais o horário.
+    interface IntervaloOcupado {
+        Long getId();
+        LocalDateTime getData();
+        LocalDateTime getDataFim();
+    }
+
+    // Consultas ativas do médico que se sobrepõem ao período [inicio, fim).
+    @Query("""
+            select c.id as id, c.data as data, c.dataFim as dataFim from Consulta c
+            where c.medico.id = :idMedico
+            and c.data < :fim and c.dataFim > :inicio
+            and c.motivoCancelamento is null
+            """)
+    List<IntervaloOcupado> findOcupacaoDoMedico(Long idMedico, LocalDateTime inicio, LocalDateTime fim);
+
+    // Mesma busca, como leitura com trava: enxerga o último estado confirmado mesmo em REPEATABLE READ.
+    // Usada na checagem definitiva do agendamento, com a linha do médico já travada.
+    @Query(value = """
+            select c.id as id, c.data as data, c.data_fim as dataFim from consultas c
+            where c.medico_id = :idMedico
+            and c.data < :fim and c.data_fim > :inicio
+            and c.motivo_cancelamento is null
+            for update
+            """, nativeQuery = true)
+    List<IntervaloOcupado> findOcupacaoDoMedicoParaAgendamento(Long idMedico, LocalDateTime inicio, LocalDateTime fim);
+
+    boolean existsByPacienteIdAndDataBetweenAndMotivoCancelamentoIsNull(Long idPaciente, LocalDateTime primeiroHorario, LocalDateTime ultimoHorario);
+
+    // Início das consultas ativas do paciente em [inicio, fim).
+    @Query("""
+            select c.data from Consulta c
+            where c.paciente.id = :idPaciente
+            and c.data >= :inicio and c.data < :fim
+            and c.motivoCancelamento is null
+            """)
+    List<LocalDateTime> findDatasDoPaciente(Long idPaciente, LocalDateTime inicio, LocalDateTime fim);
+
+    interface CargaDiaria {
+        Long getIdMedico();
+        LocalDate getDia();
+        long getTotal();
+    }
+
+    // Consultas ativas por médico e dia, a partir de uma data; usado para reconstruir os contadores de carga.
+    @Query("""
+            select c.medico.id as idMedico, cast(c.data as LocalDate) as dia, count(c) as total
+            from Consulta c
+            where c.data >= :inicio and c.motivoCancelamento is null
+            group by c.medico.id, cast(c.data as LocalDate)
+            """)
+    List<CargaDiaria> contarPorMedicoEDiaDesde(LocalDateTime inicio);
+
+    interface OcupacaoDiaria {
+        Long getIdMedico();
+        LocalDate getDia();
+        Long getMinutos();
+    }
+
+    // Minutos ocupados por médico e dia numa especialidade; uma linha por (médico, dia), qualquer que seja o
+    // número de consultas. Usado pelo calendário de disponibilidade.
+    @Query("""
+            select c.medico.id as idMedico, cast(c.data as LocalDate) as dia, sum((c.dataFim - c.data) by minute) as minutos
+            from Consulta c
+            where c.medico.especialidade = :especialidade
+            and c.data >= :inicio and c.data < :fim
+            and c.motivoCancelamento is null
+            group by c.medico.id, cast(c.data as LocalDate)
+            """)
+    List<OcupacaoDiaria> somarOcupacaoPorMedicoEDia(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim);
+
+    interface ChaveArquivamento {
+        Long getId();
+        LocalDateTime getData();
+    }
+
+    // Percorre as consultas antigas pela chave (data, id), a partir da última já processada.
+    @Query(value = """
+            select id, data from consultas
+            where (data > :ultimaData or (data = :ultimaData and id > :ultimoId))
+            and data < :limite
+            order by data, id
+            limit :tamanho
+            """, nativeQuery = true)
+    List<ChaveArquivamento> findLoteParaArquivar(LocalDateTime ultimaData, Long ultimoId, LocalDateTime limite, int tamanho);
+
+    @Modifying
+    @Query(value = """
+            insert into consultas_arquivo (id, medico_id, paciente_id, data, data_fim, motivo_cancelamento, arquivada_em)
+            select id, medico_id, paciente_id, data, data_fim, motivo_cancelamento, :agora from consultas
+            where id in :ids
+            """, nativeQuery = true)
+    int copiarParaArquivo(List<Long> ids, LocalDateTime agora);
+
+    @Modifying
+    @Query(value = "delete from consultas where id in :ids", nativeQuery = true)
+    int excluirArquivadas(List<Long> ids);
 }
\ No newline at end of file
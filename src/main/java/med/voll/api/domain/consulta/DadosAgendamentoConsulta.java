@@ -1,7 +1,9 @@
 package med.voll.api.domain.consulta;
 
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import med.voll.api.domain.medico.Especialidade;
 
 import java.time.LocalDateTime;
@@ -16,5 +18,14 @@ public record DadosAgendamentoConsulta(
         @Future
         LocalDateTime data,
 
-        Especialidade especialidade) {
+        Especialidade especialidade,
+
+        // Em minutos; quando ausente, vale a duração padrão da especialidade.
+        @Positive
+        @Max(240)
+        Integer duracao) {
+
+    public DadosAgendamentoConsulta(Long idMedico, Long idPaciente, LocalDateTime data, Especialidade especialidade) {
+        this(idMedico, idPaciente, data, especialidade, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package med.voll.api.domain.consulta;
+
+import java.time.LocalDateTime;
+
+public record DadosEventoConsulta(
+        Long idConsulta,
+        Long idMedico,
+        Long idPaciente,
+        LocalDateTime data,
+        MotivoCancelamento motivoCancelamento) {
+
+    public DadosEventoConsulta(Consulta consulta) {
+        this(consulta.getId(), consulta.getMedico().getId(), consulta.getPaciente().getId(), consulta.getData(), consulta.getMotivoCancelamento());
+    }
+}
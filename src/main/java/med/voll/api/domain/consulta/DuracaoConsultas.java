@@ -0,0 +1,46 @@
+package med.voll.api.domain.consulta;
+
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Duração de um agendamento: a informada na requisição ou a padrão da especialidade.
+// A especialidade de um médico não muda depois do cadastro, então fica guardada em memória (e serve também
+// a quem precisa dela sem carregar o médico).
+@Component
+public class DuracaoConsultas {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    private final ConcurrentHashMap<Long, Especialidade> especialidadesDosMedicos = new ConcurrentHashMap<>();
+
+    public Duration duracao(DadosAgendamentoConsulta dados) {
+        if (dados.duracao() != null) {
+            return Duration.ofMinutes(dados.duracao());
+        }
+        var especialidade = dados.idMedico() != null ? especialidadeDoMedico(dados.idMedico()) : dados.especialidade();
+        // Sem médico e sem especialidade o agendamento será recusado adiante; a duração aqui é irrelevante.
+        return especialidade == null ? Duration.ZERO : especialidade.getDuracaoPadrao();
+    }
+
+    public Duration duracaoPadrao(Long idMedico) {
+        var especialidade = especialidadeDoMedico(idMedico);
+        return especialidade == null ? Duration.ZERO : especialidade.getDuracaoPadrao();
+    }
+
+    public Especialidade especialidadeDoMedico(Long idMedico) {
+        var especialidade = especialidadesDosMedicos.get(idMedico);
+        if (especialidade == null) {
+            especialidade = medicoRepository.findEspecialidadeById(idMedico);
+            if (especialidade != null) {
+                especialidadesDosMedicos.put(idMedico, especialidade);
+            }
+        }
+        return especialidade;
+    }
+}
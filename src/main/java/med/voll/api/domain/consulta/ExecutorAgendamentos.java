@@ -0,0 +1,217 @@
+package med.voll.api.domain.consulta;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.ValidacaoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Decide em qual transação cada agendamento roda.
+// Modo direto (padrão): uma transação por requisição.
+// Modo em grupo (api.agendamento.commit-em-grupo.ativo=true): as requisições entram numa fila e um único
+// escritor as agrupa a cada poucos milissegundos, processando o lote em ordem de chegada numa só transação
+// e num só commit. Como todas enxergam o que as anteriores do lote já gravaram, um conflito pelo mesmo
+// horário é resolvido a favor de quem chegou primeiro; quem perde recebe a ValidacaoException de sempre.
+@Slf4j
+@Service
+public class ExecutorAgendamentos {
+
+    @Autowired
+    private AgendaDeConsultas agenda;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${api.agendamento.commit-em-grupo.ativo:false}")
+    private boolean emGrupo;
+
+    @Value("${api.agendamento.commit-em-grupo.janela:5ms}")
+    private Duration janela;
+
+    @Value("${api.agendamento.commit-em-grupo.tamanho-maximo:100}")
+    private int tamanhoMaximo;
+
+    // Quanto uma requisição espera o escritor assumir o seu pedido antes de desistir com 503.
+    @Value("${api.agendamento.commit-em-grupo.espera-maxima:10s}")
+    private Duration esperaMaxima;
+
+    private final LinkedBlockingQueue<Pedido> fila = new LinkedBlockingQueue<>();
+    private volatile boolean ativo;
+    private Thread escritor;
+
+    private enum Situacao {AGUARDANDO, ASSUMIDO, ABANDONADO}
+
+    // O escritor assume o pedido antes de agendá-lo; a partir daí a requisição não pode mais desistir, porque a
+    // consulta pode ser confirmada pelo lote. Só um pedido ainda não assumido é abandonado.
+    private record Pedido(DadosAgendamentoConsulta dados, CompletableFuture<DadosDetalhamentoConsulta> resultado,
+                          AtomicReference<Situacao> situacao) {
+
+        Pedido(DadosAgendamentoConsulta dados) {
+            this(dados, new CompletableFuture<>(), new AtomicReference<>(Situacao.AGUARDANDO));
+        }
+
+        boolean assumir() {
+            return situacao.compareAndSet(Situacao.AGUARDANDO, Situacao.ASSUMIDO) || situacao.get() == Situacao.ASSUMIDO;
+        }
+
+        boolean abandonar() {
+            return situacao.compareAndSet(Situacao.AGUARDANDO, Situacao.ABANDONADO);
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!emGrupo) {
+            return;
+        }
+        ativo = true;
+        escritor = Thread.ofPlatform().name("agendamento-em-grupo").daemon().start(this::escrever);
+        log.info("Agendamentos com commit em grupo (janela de {} ms, até {} por transação)", janela.toMillis(), tamanhoMaximo);
+    }
+
+    public DadosDetalhamentoConsulta agendar(DadosAgendamentoConsulta dados) {
+        if (!emGrupo) {
+            return transactionTemplate.execute(status -> agenda.agendar(dados));
+        }
+
+        // A requisição só espera pelo próprio resultado, que o escritor completa depois do commit do lote.
+        var pedido = new Pedido(dados);
+        fila.add(pedido);
+        try {
+            return pedido.resultado().get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandonar(pedido, "Agendamento não concluído em " + esperaMaxima.toMillis() + " ms, tente novamente");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandonar(pedido, "Agendamento interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        // O escritor já assumiu o pedido: o lote vai confirmar ou recusar a consulta, e a resposta tem de dizer qual.
+        try {
+            return pedido.resultado().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Só desiste do pedido que o escritor ainda não assumiu; ele é pulado quando o lote for montado.
+    private static void abandonar(Pedido pedido, String mensagem) {
+        if (pedido.abandonar()) {
+            var falha = new AgendamentoNaoConcluidoException(mensagem);
+            pedido.resultado().completeExceptionally(falha);
+            throw falha;
+        }
+    }
+
+    private void escrever() {
+        while (ativo) {
+            try {
+                var lote = proximoLote();
+                if (!lote.isEmpty()) {
+                    processar(lote);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada no escritor de agendamentos", e);
+            }
+        }
+    }
+
+    // Espera o primeiro pedido e, a partir dele, junta o que chegar dentro da janela.
+    private List<Pedido> proximoLote() throws InterruptedException {
+        var lote = new ArrayList<Pedido>();
+        var primeiro = fila.poll(1, TimeUnit.SECONDS);
+        if (primeiro == null) {
+            return lote;
+        }
+        lote.add(primeiro);
+
+        var limite = System.nanoTime() + janela.toNanos();
+        while (lote.size() < tamanhoMaximo) {
+            var restante = limite - System.nanoTime();
+            var proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+            if (proximo == null) {
+                break;
+            }
+            lote.add(proximo);
+        }
+        return lote;
+    }
+
+    private void processar(List<Pedido> lote) {
+        var concluidos = new IdentityHashMap<Pedido, DadosDetalhamentoConsulta>();
+        var recusados = new IdentityHashMap<Pedido, ValidacaoException>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                concluidos.clear();
+                recusados.clear();
+                for (var pedido : lote) {
+                    if (!pedido.assumir()) {
+                        continue;
+                    }
+                    // As validações acontecem antes de qualquer escrita, então uma recusa não afeta o resto do lote.
+                    try {
+                        concluidos.put(pedido, agenda.agendar(pedido.dados()));
+                    } catch (ValidacaoException e) {
+                        recusados.put(pedido, e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // O lote inteiro voltou atrás: cada pedido é refeito sozinho, na mesma ordem, para isolar o culpado.
+            log.warn("Commit em grupo de {} agendamentos falhou, refazendo individualmente: {}", lote.size(), e.getMessage());
+            lote.forEach(this::processarIndividualmente);
+            return;
+        }
+
+        concluidos.forEach((pedido, resultado) -> pedido.resultado().complete(resultado));
+        recusados.forEach((pedido, erro) -> pedido.resultado().completeExceptionally(erro));
+    }
+
+    private void processarIndividualmente(Pedido pedido) {
+        if (!pedido.assumir()) {
+            return;
+        }
+        try {
+            pedido.resultado().complete(transactionTemplate.execute(status -> agenda.agendar(pedido.dados())));
+        } catch (RuntimeException e) {
+            pedido.resultado().completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        if (escritor == null) {
+            return;
+        }
+        ativo = false;
+        escritor.join(Duration.ofSeconds(5));
+        var pendentes = new ArrayList<Pedido>();
+        fila.drainTo(pendentes);
+        pendentes.forEach(pedido -> pedido.resultado().completeExceptionally(new IllegalStateException("Aplicação encerrando")));
+    }
+}
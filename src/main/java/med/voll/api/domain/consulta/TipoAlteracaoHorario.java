@@ -0,0 +1,6 @@
+package med.voll.api.domain.consulta;
+
+public enum TipoAlteracaoHorario {
+    HORARIO_OCUPADO,
+    HORARIO_LIBERADO;
+}
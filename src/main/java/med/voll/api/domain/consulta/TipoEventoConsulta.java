@@ -0,0 +1,6 @@
+package med.voll.api.domain.consulta;
+
+public enum TipoEventoConsulta {
+    CONSULTA_AGENDADA,
+    CONSULTA_CANCELADA;
+}
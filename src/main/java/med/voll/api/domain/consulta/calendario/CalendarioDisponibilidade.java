@@ -0,0 +1,147 @@
+package med.voll.api.domain.consulta.calendario;
+
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Horários livres por dia de um mês, numa especialidade, para a visão de calendário.
+// O mês inteiro sai de duas consultas: os médicos ativos da especialidade e os minutos ocupados por (médico, dia).
+// A capacidade de cada médico vem da jornada compilada em memória, em consultas da duração padrão; os livres do
+// dia são a soma, por médico, da capacidade menos os minutos ocupados convertidos em consultas. É uma estimativa:
+// sobras entre consultas que não comportam a duração padrão ainda contam como livres.
+// O resultado fica em cache por (especialidade, mês); agendamentos e cancelamentos no mês o invalidam depois do
+// commit, e a validade cobre o que muda por outros caminhos (jornadas, cadastros, outras instâncias).
+// O cálculo roda fora de qualquer lock do mapa; consultas simultâneas do mesmo mês esperam o mesmo cálculo.
+@Component
+public class CalendarioDisponibilidade {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private JornadasMedicos jornadas;
+
+    @Value("${api.calendario.cache.validade:1m}")
+    private Duration validade = Duration.ofMinutes(1);
+
+    private final ConcurrentHashMap<Chave, Entrada> meses = new ConcurrentHashMap<>();
+
+    private record Chave(Especialidade especialidade, YearMonth mes) {
+    }
+
+    private static class Entrada {
+        final CompletableFuture<DadosCalendarioDisponibilidade> calendario = new CompletableFuture<>();
+        volatile long calculadoEm;
+
+        boolean vencida(long agora, Duration validade) {
+            return calendario.isDone() && agora - calculadoEm > validade.toNanos();
+        }
+    }
+
+    // Uma invalidação que chega durante o cálculo remove a entrada: quem já esperava recebe o resultado em
+    // andamento, e a próxima consulta calcula de novo.
+    public DadosCalendarioDisponibilidade consultar(Especialidade especialidade, YearMonth mes) {
+        var chave = new Chave(especialidade, mes);
+        while (true) {
+            var atual = meses.get(chave);
+            if (atual != null && !atual.vencida(System.nanoTime(), validade)) {
+                return aguardar(atual);
+            }
+            if (atual != null) {
+                meses.remove(chave, atual);
+                continue;
+            }
+
+            var nova = new Entrada();
+            if (meses.putIfAbsent(chave, nova) == null) {
+                return calcular(chave, nova);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void invalidar(AlteracaoHorario alteracao) {
+        for (var mes = YearMonth.from(alteracao.data()); !mes.isAfter(YearMonth.from(alteracao.dataFim())); mes = mes.plusMonths(1)) {
+            meses.remove(new Chave(alteracao.especialidade(), mes));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.calendario.cache.intervalo-limpeza:1m}")
+    public void descartarVencidos() {
+        var agora = System.nanoTime();
+        meses.values().removeIf(entrada -> entrada.vencida(agora, validade));
+    }
+
+    private DadosCalendarioDisponibilidade calcular(Chave chave, Entrada entrada) {
+        try {
+            var calendario = calcular(chave.especialidade(), chave.mes());
+            entrada.calculadoEm = System.nanoTime();
+            entrada.calendario.complete(calendario);
+            return calendario;
+        } catch (RuntimeException e) {
+            meses.remove(chave, entrada);
+            entrada.calendario.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static DadosCalendarioDisponibilidade aguardar(Entrada entrada) {
+        try {
+            return entrada.calendario.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private DadosCalendarioDisponibilidade calcular(Especialidade especialidade, YearMonth mes) {
+        var inicio = mes.atDay(1);
+        var dias = mes.lengthOfMonth();
+        var duracao = especialidade.getDuracaoPadrao();
+
+        var minutosOcupados = new HashMap<Long, long[]>();
+        for (var ocupacao : consultaRepository.somarOcupacaoPorMedicoEDia(especialidade, inicio.atStartOfDay(), inicio.plusDays(dias).atStartOfDay())) {
+            minutosOcupados.computeIfAbsent(ocupacao.getIdMedico(), id -> new long[dias])[(int) ChronoUnit.DAYS.between(inicio, ocupacao.getDia())] = ocupacao.getMinutos();
+        }
+
+        var medicos = medicoRepository.findIdsAtivosPorEspecialidade(especialidade);
+        var livres = new int[dias];
+        for (var idMedico : medicos) {
+            var capacidade = jornadas.capacidadePorDia(idMedico, inicio, dias, duracao);
+            var ocupados = minutosOcupados.getOrDefault(idMedico, new long[dias]);
+            for (var i = 0; i < dias; i++) {
+                livres[i] += (int) Math.max(0, capacidade[i] - Math.ceilDiv(ocupados[i], duracao.toMinutes()));
+            }
+        }
+
+        var hoje = LocalDate.now();
+        var calendario = new ArrayList<DadosDiaCalendario>(dias);
+        for (var i = 0; i < dias; i++) {
+            var dia = inicio.plusDays(i);
+            calendario.add(new DadosDiaCalendario(dia, dia.isBefore(hoje) ? 0 : livres[i]));
+        }
+        return new DadosCalendarioDisponibilidade(especialidade, mes, medicos.size(), calendario);
+    }
+}
@@ -0,0 +1,9 @@
+package med.voll.api.domain.consulta.calendario;
+
+import med.voll.api.domain.medico.Especialidade;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public record DadosCalendarioDisponibilidade(Especialidade especialidade, YearMonth mes, int medicosAtivos, List<DadosDiaCalendario> dias) {
+}
@@ -0,0 +1,6 @@
+package med.voll.api.domain.consulta.calendario;
+
+import java.time.LocalDate;
+
+public record DadosDiaCalendario(LocalDate dia, int horariosLivres) {
+}
@@ -0,0 +1,56 @@
+package med.voll.api.domain.consulta.escolha;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores de consultas ativas por médico, por dia e por semana.
+// Cada contador é um LongAdder num ConcurrentHashMap: agendamentos de médicos (e especialidades)
+// diferentes nunca disputam o mesmo lock.
+class CargaMedicos {
+
+    record Carga(long dia, long semana) implements Comparable<Carga> {
+        @Override
+        public int compareTo(Carga outra) {
+            var porDia = Long.compare(dia, outra.dia);
+            return porDia != 0 ? porDia : Long.compare(semana, outra.semana);
+        }
+    }
+
+    private record Chave(Long idMedico, LocalDate inicio) {
+    }
+
+    private final ConcurrentHashMap<Chave, LongAdder> porDia = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Chave, LongAdder> porSemana = new ConcurrentHashMap<>();
+
+    void registrar(Long idMedico, LocalDate dia, long quantidade) {
+        porDia.computeIfAbsent(new Chave(idMedico, dia), c -> new LongAdder()).add(quantidade);
+        porSemana.computeIfAbsent(new Chave(idMedico, inicioDaSemana(dia)), c -> new LongAdder()).add(quantidade);
+    }
+
+    Carga carga(Long idMedico, LocalDate dia) {
+        return new Carga(valor(porDia, new Chave(idMedico, dia)), valor(porSemana, new Chave(idMedico, inicioDaSemana(dia))));
+    }
+
+    // Descarta os contadores de dias anteriores ao informado, que não influenciam mais nenhuma escolha.
+    void descartarAntesDe(LocalDate dia) {
+        porDia.keySet().removeIf(chave -> chave.inicio().isBefore(dia));
+        porSemana.keySet().removeIf(chave -> chave.inicio().isBefore(inicioDaSemana(dia)));
+    }
+
+    void limpar() {
+        porDia.clear();
+        porSemana.clear();
+    }
+
+    static LocalDate inicioDaSemana(LocalDate dia) {
+        return dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static long valor(ConcurrentHashMap<Chave, LongAdder> contadores, Chave chave) {
+        var contador = contadores.get(chave);
+        return contador == null ? 0 : contador.sum();
+    }
+}
@@ -0,0 +1,35 @@
+package med.voll.api.domain.consulta.escolha;
+
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Sorteia entre os médicos sem consulta no período que atendem no horário.
+@Component
+@ConditionalOnProperty(name = "api.agendamento.estrategia-medico", havingValue = "aleatoria", matchIfMissing = true)
+public class EscolhaMedicoAleatoria implements EstrategiaEscolhaMedico {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private JornadasMedicos jornadas;
+
+    @Override
+    public Medico escolher(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim) {
+        var livres = medicoRepository.findIdsLivresNoPeriodo(especialidade, inicio, fim).stream()
+                .filter(id -> jornadas.atende(id, inicio, fim))
+                .toList();
+        if (livres.isEmpty()) {
+            return null;
+        }
+        return medicoRepository.getReferenceById(livres.get(ThreadLocalRandom.current().nextInt(livres.size())));
+    }
+}
@@ -0,0 +1,71 @@
+package med.voll.api.domain.consulta.escolha;
+
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.TipoAlteracaoHorario;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+// Entre os médicos livres e em jornada no horário, escolhe o que tem menos consultas no dia e, no empate, na semana.
+// A carga vem de contadores em memória, reconstruídos do banco na subida e atualizados após cada commit
+// de agendamento ou cancelamento.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.agendamento.estrategia-medico", havingValue = "menos-ocupado")
+public class EscolhaMedicoMenosOcupado implements EstrategiaEscolhaMedico {
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private JornadasMedicos jornadas;
+
+    private final CargaMedicos carga = new CargaMedicos();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        var inicio = CargaMedicos.inicioDaSemana(LocalDate.now());
+        carga.limpar();
+        var linhas = consultaRepository.contarPorMedicoEDiaDesde(inicio.atStartOfDay());
+        linhas.forEach(linha -> carga.registrar(linha.getIdMedico(), linha.getDia(), linha.getTotal()));
+        log.info("Contadores de carga dos médicos reconstruídos ({} médico-dias desde {})", linhas.size(), inicio);
+    }
+
+    @Override
+    public Medico escolher(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim) {
+        var dia = inicio.toLocalDate();
+        return medicoRepository.findIdsLivresNoPeriodo(especialidade, inicio, fim).stream()
+                .filter(id -> jornadas.atende(id, inicio, fim))
+                .min(Comparator.comparing((Long id) -> carga.carga(id, dia)).thenComparing(id -> id))
+                .map(medicoRepository::getReferenceById)
+                .orElse(null);
+    }
+
+    @TransactionalEventListener
+    public void atualizar(AlteracaoHorario alteracao) {
+        var quantidade = alteracao.tipo() == TipoAlteracaoHorario.HORARIO_OCUPADO ? 1 : -1;
+        carga.registrar(alteracao.idMedico(), alteracao.data().toLocalDate(), quantidade);
+    }
+
+    @Scheduled(cron = "${api.agendamento.carga.limpeza.cron:0 5 0 * * *}")
+    public void descartarDiasPassados() {
+        carga.descartarAntesDe(LocalDate.now());
+    }
+}
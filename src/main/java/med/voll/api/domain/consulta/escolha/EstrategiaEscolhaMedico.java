@@ -0,0 +1,14 @@
+package med.voll.api.domain.consulta.escolha;
+
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+
+import java.time.LocalDateTime;
+
+// Escolhe um médico livre da especialidade quando o paciente não indica um.
+// A implementação ativa é definida por api.agendamento.estrategia-medico.
+public interface EstrategiaEscolhaMedico {
+
+    // Retorna null quando não há médico livre em todo o período [inicio, fim).
+    Medico escolher(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim);
+}
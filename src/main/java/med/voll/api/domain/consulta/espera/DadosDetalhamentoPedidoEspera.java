@@ -0,0 +1,21 @@
+package med.voll.api.domain.consulta.espera;
+
+import med.voll.api.domain.medico.Especialidade;
+
+import java.time.LocalDateTime;
+
+public record DadosDetalhamentoPedidoEspera(
+        Long id,
+        Long idPaciente,
+        Long idMedico,
+        Especialidade especialidade,
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        StatusPedidoEspera status,
+        Long idConsulta) {
+
+    public DadosDetalhamentoPedidoEspera(PedidoEspera pedido) {
+        this(pedido.getId(), pedido.getPaciente().getId(), pedido.getMedico() == null ? null : pedido.getMedico().getId(),
+                pedido.getEspecialidade(), pedido.getInicio(), pedido.getFim(), pedido.getStatus(), pedido.getIdConsulta());
+    }
+}
@@ -0,0 +1,24 @@
+package med.voll.api.domain.consulta.espera;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import med.voll.api.domain.medico.Especialidade;
+
+import java.time.LocalDateTime;
+
+public record DadosPedidoEspera(
+        Long idMedico,
+
+        @NotNull
+        Long idPaciente,
+
+        Especialidade especialidade,
+
+        @NotNull
+        @Future
+        LocalDateTime inicio,
+
+        @NotNull
+        @Future
+        LocalDateTime fim) {
+}
@@ -0,0 +1,110 @@
+package med.voll.api.domain.consulta.espera;
+
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.infra.invalidacao.CacheInvalidavel;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Índice em memória dos pedidos aguardando vaga.
+// Cada pedido é indexado por (médico ou especialidade, dia) para cada dia da sua janela;
+// dentro de cada chave os pedidos ficam ordenados por id, ou seja, do mais antigo para o mais novo.
+// Assim, achar quem atender numa vaga liberada é uma busca por chave seguida de uma leitura em ordem de id que
+// para no limite de candidatos; os pedidos do dia cuja janela não contém o horário são pulados um a um.
+// A janela de espera é limitada (api.lista-espera.janela-maxima), então cada chave guarda só os pedidos do dia.
+// Pedidos novos de outras instâncias chegam pelo LeitorAlteracoes. Saídas e atendimentos feitos por elas não
+// são propagados: um pedido que ficou no índice é conferido de novo, travado, antes de ser atendido
+// (ListaDeEspera.reservarPedidoCompativel), e é só pulado.
+@Component
+public class IndiceListaEspera implements CacheInvalidavel {
+
+    @Autowired
+    private PedidoEsperaRepository repository;
+
+    private record Chave(Long idMedico, Especialidade especialidade, LocalDate dia) {
+    }
+
+    public record Entrada(Long id, LocalDateTime inicio, LocalDateTime fim) {
+
+        boolean contem(LocalDateTime data) {
+            return !data.isBefore(inicio) && !data.isAfter(fim);
+        }
+    }
+
+    private final Map<Chave, ConcurrentSkipListMap<Long, Entrada>> entradas = new ConcurrentHashMap<>();
+
+    public void adicionar(PedidoEspera pedido) {
+        var entrada = new Entrada(pedido.getId(), pedido.getInicio(), pedido.getFim());
+        chaves(pedido).forEach(chave -> entradas.computeIfAbsent(chave, c -> new ConcurrentSkipListMap<>()).put(pedido.getId(), entrada));
+    }
+
+    public void remover(PedidoEspera pedido) {
+        chaves(pedido).forEach(chave -> entradas.computeIfPresent(chave, (c, pedidos) -> {
+            pedidos.remove(pedido.getId());
+            return pedidos.isEmpty() ? null : pedidos;
+        }));
+    }
+
+    // Devolve, do mais antigo para o mais novo, até 'limite' pedidos cuja janela contém a data,
+    // considerando tanto os pedidos feitos para o médico quanto os feitos para a especialidade dele.
+    public List<Entrada> candidatos(Long idMedico, Especialidade especialidade, LocalDateTime data, int limite) {
+        var dia = data.toLocalDate();
+        var encontrados = new ArrayList<Entrada>();
+        coletar(new Chave(idMedico, null, dia), data, limite, encontrados);
+        coletar(new Chave(null, especialidade, dia), data, limite, encontrados);
+        encontrados.sort(Comparator.comparing(Entrada::id));
+        return encontrados.size() > limite ? encontrados.subList(0, limite) : encontrados;
+    }
+
+    @Override
+    public void invalidar(RecursoAlterado recurso, Long id) {
+        if (recurso != RecursoAlterado.PEDIDO_ESPERA) {
+            return;
+        }
+        repository.findById(id).ifPresent(pedido -> {
+            if (pedido.getStatus() == StatusPedidoEspera.AGUARDANDO) {
+                adicionar(pedido);
+            } else {
+                remover(pedido);
+            }
+        });
+    }
+
+    public void removerDiasAnterioresA(LocalDate dia) {
+        entradas.keySet().removeIf(chave -> chave.dia().isBefore(dia));
+    }
+
+    private void coletar(Chave chave, LocalDateTime data, int limite, List<Entrada> encontrados) {
+        var pedidos = entradas.get(chave);
+        if (pedidos == null) {
+            return;
+        }
+        var coletados = 0;
+        for (var entrada : pedidos.values()) {
+            if (entrada.contem(data)) {
+                encontrados.add(entrada);
+                if (++coletados == limite) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<Chave> chaves(PedidoEspera pedido) {
+        var idMedico = pedido.getMedico() == null ? null : pedido.getMedico().getId();
+        var especialidade = idMedico == null ? pedido.getEspecialidade() : null;
+        return pedido.getInicio().toLocalDate()
+                .datesUntil(pedido.getFim().toLocalDate().plusDays(1))
+                .map(dia -> new Chave(idMedico, especialidade, dia))
+                .toList();
+    }
+}
@@ -0,0 +1,133 @@
+package med.voll.api.domain.consulta.espera;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
+import med.voll.api.domain.consulta.validacoes.ValidadorPacienteSemOutraConsultaNoDia;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.invalidacao.RegistroAlteracoes;
+import med.voll.api.infra.transacao.Transacoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+public class ListaDeEspera {
+
+    // Quantos pedidos, no máximo, são avaliados para uma mesma vaga liberada.
+    private static final int LIMITE_CANDIDATOS = 20;
+
+    @Autowired
+    private PedidoEsperaRepository repository;
+    @Autowired
+    private PacienteRepository pacienteRepository;
+    @Autowired
+    private MedicoRepository medicoRepository;
+    @Autowired
+    private ValidadorPacienteSemOutraConsultaNoDia pacienteSemOutraConsultaNoDia;
+    @Autowired
+    private IndiceListaEspera indice;
+    @Autowired
+    private RegistroCadastrosAtivos cadastrosAtivos;
+    @Autowired
+    private RegistroAlteracoes alteracoes;
+
+    @Value("${api.lista-espera.janela-maxima:14d}")
+    private Duration janelaMaxima;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndice() {
+        repository.findAllByStatus(StatusPedidoEspera.AGUARDANDO).forEach(indice::adicionar);
+    }
+
+    public DadosDetalhamentoPedidoEspera entrar(DadosPedidoEspera dados) {
+        if (dados.idMedico() == null && dados.especialidade() == null) {
+            throw new ValidacaoException(CodigoErroValidacao.ESPECIALIDADE_OBRIGATORIA);
+        }
+        if (!dados.fim().isAfter(dados.inicio())) {
+            throw new ValidacaoException(CodigoErroValidacao.JANELA_ESPERA_INVERTIDA);
+        }
+        if (Duration.between(dados.inicio(), dados.fim()).compareTo(janelaMaxima) > 0) {
+            throw new ValidacaoException(CodigoErroValidacao.JANELA_ESPERA_LONGA, "A janela de espera não pode ser maior que " + janelaMaxima.toDays() + " dias!");
+        }
+
+        var pacienteAtivo = cadastrosAtivos.pacienteAtivo(dados.idPaciente());
+        if (pacienteAtivo == null) {
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_INEXISTENTE);
+        }
+        if (!pacienteAtivo) {
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_INATIVO_LISTA_ESPERA);
+        }
+
+        Medico medico = null;
+        if (dados.idMedico() != null) {
+            var medicoAtivo = cadastrosAtivos.medicoAtivo(dados.idMedico());
+            if (medicoAtivo == null) {
+                throw new ValidacaoException(CodigoErroValidacao.MEDICO_INEXISTENTE);
+            }
+            if (!medicoAtivo) {
+                throw new ValidacaoException(CodigoErroValidacao.MEDICO_INATIVO_LISTA_ESPERA);
+            }
+            medico = medicoRepository.getReferenceById(dados.idMedico());
+        }
+
+        var paciente = pacienteRepository.getReferenceById(dados.idPaciente());
+        var pedido = new PedidoEspera(paciente, medico, medico == null ? dados.especialidade() : null, dados.inicio(), dados.fim());
+        repository.save(pedido);
+        alteracoes.registrar(RecursoAlterado.PEDIDO_ESPERA, pedido.getId());
+        Transacoes.aposCommit(() -> indice.adicionar(pedido));
+
+        return new DadosDetalhamentoPedidoEspera(pedido);
+    }
+
+    public DadosDetalhamentoPedidoEspera detalhar(Long id) {
+        return new DadosDetalhamentoPedidoEspera(repository.getReferenceById(id));
+    }
+
+    public void sair(Long id) {
+        var pedido = repository.getReferenceById(id);
+        if (pedido.getStatus() != StatusPedidoEspera.AGUARDANDO) {
+            throw new ValidacaoException(CodigoErroValidacao.PEDIDO_ESPERA_ENCERRADO);
+        }
+        pedido.cancelar();
+        Transacoes.aposCommit(() -> indice.remover(pedido));
+    }
+
+    // Chamado na mesma transação do cancelamento de uma consulta: devolve, já travado, o pedido mais
+    // antigo que aceita a vaga liberada (mesmo médico ou mesma especialidade, janela contendo o horário).
+    public Optional<PedidoEspera> reservarPedidoCompativel(Medico medico, LocalDateTime data) {
+        for (var candidato : indice.candidatos(medico.getId(), medico.getEspecialidade(), data, LIMITE_CANDIDATOS)) {
+            var pedido = repository.findByIdAndStatus(candidato.id(), StatusPedidoEspera.AGUARDANDO);
+            if (pedido.isEmpty() || !pacientePodeSerAtendido(pedido.get().getPaciente().getId(), data)) {
+                continue;
+            }
+            Transacoes.aposCommit(() -> indice.remover(pedido.get()));
+            return pedido;
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${api.lista-espera.expiracao.intervalo:1m}")
+    public void expirarPedidosVencidos() {
+        repository.expirarVencidos(LocalDateTime.now());
+        indice.removerDiasAnterioresA(LocalDate.now());
+    }
+
+    // As mesmas regras de paciente aplicadas no agendamento normal.
+    private boolean pacientePodeSerAtendido(Long idPaciente, LocalDateTime data) {
+        var ativo = cadastrosAtivos.pacienteAtivo(idPaciente);
+        return Boolean.TRUE.equals(ativo)
+                && !pacienteSemOutraConsultaNoDia.pacientePossuiConsultaNoDia(idPaciente, data);
+    }
+}
@@ -0,0 +1,66 @@
+package med.voll.api.domain.consulta.espera;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.paciente.Paciente;
+
+import java.time.LocalDateTime;
+
+@Table(name = "lista_espera")
+@Entity(name = "PedidoEspera")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class PedidoEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "paciente_id")
+    private Paciente paciente;
+
+    // Pedido para um médico específico ou, quando nulo, para qualquer médico da especialidade.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "medico_id")
+    private Medico medico;
+
+    @Enumerated(EnumType.STRING)
+    private Especialidade especialidade;
+
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+
+    @Enumerated(EnumType.STRING)
+    private StatusPedidoEspera status;
+
+    @Column(name = "consulta_id")
+    private Long idConsulta;
+
+    private LocalDateTime criadoEm;
+
+    public PedidoEspera(Paciente paciente, Medico medico, Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim) {
+        this.paciente = paciente;
+        this.medico = medico;
+        this.especialidade = especialidade;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.status = StatusPedidoEspera.AGUARDANDO;
+        this.criadoEm = LocalDateTime.now();
+    }
+
+    public void atender(Consulta consulta) {
+        this.status = StatusPedidoEspera.ATENDIDO;
+        this.idConsulta = consulta.getId();
+    }
+
+    public void cancelar() {
+        this.status = StatusPedidoEspera.CANCELADO;
+    }
+}
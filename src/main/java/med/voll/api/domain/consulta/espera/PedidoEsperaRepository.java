@@ -0,0 +1,31 @@
+package med.voll.api.domain.consulta.espera;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PedidoEsperaRepository extends JpaRepository<PedidoEspera, Long> {
+
+    List<PedidoEspera> findAllByStatus(StatusPedidoEspera status);
+
+    // Trava o pedido para que duas vagas liberadas ao mesmo tempo não o atendam em dobro.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PedidoEspera> findByIdAndStatus(Long id, StatusPedidoEspera status);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update PedidoEspera p
+            set p.status = med.voll.api.domain.consulta.espera.StatusPedidoEspera.EXPIRADO
+            where p.status = med.voll.api.domain.consulta.espera.StatusPedidoEspera.AGUARDANDO
+            and p.fim < :agora
+            """)
+    int expirarVencidos(LocalDateTime agora);
+}
@@ -0,0 +1,8 @@
+package med.voll.api.domain.consulta.espera;
+
+public enum StatusPedidoEspera {
+    AGUARDANDO,
+    ATENDIDO,
+    EXPIRADO,
+    CANCELADO;
+}
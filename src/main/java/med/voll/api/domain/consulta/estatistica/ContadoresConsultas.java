@@ -0,0 +1,68 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.consulta.DuracaoConsultas;
+import med.voll.api.domain.consulta.MotivoCancelamento;
+import med.voll.api.domain.medico.Especialidade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+
+// Estatísticas de consultas por dia, especialidade e médico, mantidas na própria transação de cada agendamento
+// e cancelamento: os painéis leem os contadores dos dias pedidos em vez de agrupar a tabela de consultas.
+@Service
+public class ContadoresConsultas {
+
+    private static final long DIAS_MAXIMOS_CONSULTA = 366;
+
+    @Autowired
+    private EstatisticaConsultasRepository repository;
+
+    // A especialidade do médico fica em memória, então o upsert não precisa carregar o médico.
+    @Autowired
+    private DuracaoConsultas duracoes;
+
+    public void agendada(Consulta consulta) {
+        somar(consulta, 1, null);
+    }
+
+    public void cancelada(Consulta consulta, MotivoCancelamento motivo) {
+        somar(consulta, 0, motivo);
+    }
+
+    public DadosEstatisticasConsultas consultar(LocalDate de, LocalDate ate, Especialidade especialidade, Long idMedico) {
+        if (ate.isBefore(de) || ChronoUnit.DAYS.between(de, ate) >= DIAS_MAXIMOS_CONSULTA) {
+            throw new ValidacaoException(CodigoErroValidacao.PERIODO_ESTATISTICAS_INVALIDO);
+        }
+
+        var totais = repository.totaisPorDia(de, ate, especialidade, idMedico);
+        var porMotivo = new EnumMap<MotivoCancelamento, Long>(MotivoCancelamento.class);
+        for (var motivo : MotivoCancelamento.values()) {
+            porMotivo.put(motivo, 0L);
+        }
+        for (var dia : totais) {
+            porMotivo.merge(MotivoCancelamento.PACIENTE_DESISTIU, dia.getCanceladasPacienteDesistiu(), Long::sum);
+            porMotivo.merge(MotivoCancelamento.MEDICO_CANCELOU, dia.getCanceladasMedicoCancelou(), Long::sum);
+            porMotivo.merge(MotivoCancelamento.OUTROS, dia.getCanceladasOutros(), Long::sum);
+        }
+
+        var dias = totais.stream().map(DadosEstatisticaDia::new).toList();
+        return new DadosEstatisticasConsultas(de, ate,
+                dias.stream().mapToLong(DadosEstatisticaDia::agendadas).sum(),
+                dias.stream().mapToLong(DadosEstatisticaDia::canceladas).sum(),
+                porMotivo, dias);
+    }
+
+    private void somar(Consulta consulta, int agendadas, MotivoCancelamento motivo) {
+        var idMedico = consulta.getMedico().getId();
+        repository.somar(consulta.getData().toLocalDate(), duracoes.especialidadeDoMedico(idMedico).name(), idMedico, agendadas,
+                motivo == MotivoCancelamento.PACIENTE_DESISTIU ? 1 : 0,
+                motivo == MotivoCancelamento.MEDICO_CANCELOU ? 1 : 0,
+                motivo == MotivoCancelamento.OUTROS ? 1 : 0);
+    }
+}
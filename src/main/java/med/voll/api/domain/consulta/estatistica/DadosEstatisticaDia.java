@@ -0,0 +1,14 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import med.voll.api.domain.medico.Especialidade;
+
+import java.time.LocalDate;
+
+// Agendadas inclui as que foram canceladas depois; as ativas são a diferença.
+public record DadosEstatisticaDia(LocalDate dia, Especialidade especialidade, long agendadas, long canceladas) {
+
+    public DadosEstatisticaDia(EstatisticaConsultasRepository.TotaisDia totais) {
+        this(totais.getDia(), totais.getEspecialidade(), totais.getAgendadas(),
+                totais.getCanceladasPacienteDesistiu() + totais.getCanceladasMedicoCancelou() + totais.getCanceladasOutros());
+    }
+}
@@ -0,0 +1,16 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import med.voll.api.domain.consulta.MotivoCancelamento;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record DadosEstatisticasConsultas(
+        LocalDate de,
+        LocalDate ate,
+        long agendadas,
+        long canceladas,
+        Map<MotivoCancelamento, Long> cancelamentosPorMotivo,
+        List<DadosEstatisticaDia> dias) {
+}
@@ -0,0 +1,4 @@
+package med.voll.api.domain.consulta.estatistica;
+
+public record DadosReconstrucaoEstatisticas(int lotes, long linhas, long duracaoMs) {
+}
@@ -0,0 +1,40 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import med.voll.api.domain.medico.Especialidade;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Contadores de um médico num dia. As linhas são somadas por upsert na transação de cada agendamento
+// e cancelamento; a entidade existe para as leituras agregadas.
+@Table(name = "estatisticas_consultas")
+@Entity(name = "EstatisticaConsultas")
+@IdClass(EstatisticaConsultas.Chave.class)
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = {"dia", "especialidade", "idMedico"})
+public class EstatisticaConsultas {
+
+    @Id
+    private LocalDate dia;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Especialidade especialidade;
+
+    @Id
+    @Column(name = "medico_id")
+    private Long idMedico;
+
+    private int agendadas;
+    private int canceladasPacienteDesistiu;
+    private int canceladasMedicoCancelou;
+    private int canceladasOutros;
+
+    public record Chave(LocalDate dia, Especialidade especialidade, Long idMedico) implements Serializable {
+    }
+}
@@ -0,0 +1,78 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import med.voll.api.domain.medico.Especialidade;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EstatisticaConsultasRepository extends JpaRepository<EstatisticaConsultas, EstatisticaConsultas.Chave> {
+
+    @Modifying
+    @Query(value = """
+            insert into estatisticas_consultas (dia, especialidade, medico_id, agendadas, canceladas_paciente_desistiu, canceladas_medico_cancelou, canceladas_outros)
+            values (:dia, :especialidade, :idMedico, :agendadas, :pacienteDesistiu, :medicoCancelou, :outros)
+            on duplicate key update
+            agendadas = agendadas + :agendadas,
+            canceladas_paciente_desistiu = canceladas_paciente_desistiu + :pacienteDesistiu,
+            canceladas_medico_cancelou = canceladas_medico_cancelou + :medicoCancelou,
+            canceladas_outros = canceladas_outros + :outros
+            """, nativeQuery = true)
+    void somar(LocalDate dia, String especialidade, Long idMedico, int agendadas, int pacienteDesistiu, int medicoCancelou, int outros);
+
+    interface TotaisDia {
+        LocalDate getDia();
+        Especialidade getEspecialidade();
+        long getAgendadas();
+        long getCanceladasPacienteDesistiu();
+        long getCanceladasMedicoCancelou();
+        long getCanceladasOutros();
+    }
+
+    // Lê só as linhas dos dias pedidos (o dia é o início da chave primária).
+    @Query("""
+            select e.dia as dia, e.especialidade as especialidade, sum(e.agendadas) as agendadas,
+            sum(e.canceladasPacienteDesistiu) as canceladasPacienteDesistiu,
+            sum(e.canceladasMedicoCancelou) as canceladasMedicoCancelou,
+            sum(e.canceladasOutros) as canceladasOutros
+            from EstatisticaConsultas e
+            where e.dia between :de and :ate
+            and (:especialidade is null or e.especialidade = :especialidade)
+            and (:idMedico is null or e.idMedico = :idMedico)
+            group by e.dia, e.especialidade
+            order by e.dia, e.especialidade
+            """)
+    List<TotaisDia> totaisPorDia(LocalDate de, LocalDate ate, Especialidade especialidade, Long idMedico);
+
+    @Query(value = "select min(data) from consultas_historico", nativeQuery = true)
+    LocalDateTime primeiraConsulta();
+
+    @Query(value = "select max(data) from consultas_historico", nativeQuery = true)
+    LocalDateTime ultimaConsulta();
+
+    @Modifying
+    @Query(value = "delete from estatisticas_consultas where dia >= :de and dia < :ate", nativeQuery = true)
+    int excluirPeriodo(LocalDate de, LocalDate ate);
+
+    @Modifying
+    @Query(value = "delete from estatisticas_consultas where dia < :de or dia >= :ate", nativeQuery = true)
+    int excluirForaDoPeriodo(LocalDate de, LocalDate ate);
+
+    // Recalcula os contadores dos dias [de, ate) a partir das consultas, inclusive as arquivadas.
+    @Modifying
+    @Query(value = """
+            insert into estatisticas_consultas (dia, especialidade, medico_id, agendadas, canceladas_paciente_desistiu, canceladas_medico_cancelou, canceladas_outros)
+            select cast(c.data as date), m.especialidade, c.medico_id, count(*),
+                   sum(case when c.motivo_cancelamento = 'PACIENTE_DESISTIU' then 1 else 0 end),
+                   sum(case when c.motivo_cancelamento = 'MEDICO_CANCELOU' then 1 else 0 end),
+                   sum(case when c.motivo_cancelamento = 'OUTROS' then 1 else 0 end)
+            from consultas_historico c
+            join medicos m on m.id = c.medico_id
+            where c.data >= :de and c.data < :ate
+            group by cast(c.data as date), m.especialidade, c.medico_id
+            """, nativeQuery = true)
+    int recalcularPeriodo(LocalDateTime de, LocalDateTime ate);
+}
@@ -0,0 +1,65 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Recalcula a tabela de estatísticas do zero, para reparo: percorre o histórico em faixas de dias, cada uma
+// apagada e recalculada na sua própria transação curta, para não segurar locks sobre a tabela inteira.
+@Slf4j
+@Component
+public class ReconstrucaoEstatisticas {
+
+    @Autowired
+    private EstatisticaConsultasRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${api.estatisticas.reconstrucao.dias-por-lote:31}")
+    private int diasPorLote;
+
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+
+    public DadosReconstrucaoEstatisticas reconstruir() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            throw new ValidacaoException(CodigoErroValidacao.RECONSTRUCAO_EM_ANDAMENTO);
+        }
+        try {
+            var inicio = System.nanoTime();
+            var primeira = repository.primeiraConsulta();
+            var ultima = repository.ultimaConsulta();
+            if (primeira == null) {
+                transactionTemplate.executeWithoutResult(status -> repository.deleteAllInBatch());
+                return new DadosReconstrucaoEstatisticas(0, 0, 0);
+            }
+
+            var fim = ultima.toLocalDate().plusDays(1);
+            var lotes = 0;
+            var linhas = 0L;
+            for (var dia = primeira.toLocalDate(); dia.isBefore(fim); dia = dia.plusDays(diasPorLote)) {
+                var de = dia;
+                var ate = dia.plusDays(diasPorLote).isAfter(fim) ? fim : dia.plusDays(diasPorLote);
+                linhas += transactionTemplate.execute(status -> {
+                    repository.excluirPeriodo(de, ate);
+                    return repository.recalcularPeriodo(de.atStartOfDay(), ate.atStartOfDay());
+                });
+                lotes++;
+            }
+            var inicioHistorico = primeira.toLocalDate();
+            transactionTemplate.executeWithoutResult(status -> repository.excluirForaDoPeriodo(inicioHistorico, fim));
+
+            var duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Estatísticas de consultas reconstruídas: {} linhas em {} lotes, {} ms", linhas, lotes, duracaoMs);
+            return new DadosReconstrucaoEstatisticas(lotes, linhas, duracaoMs);
+        } finally {
+            emAndamento.set(false);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package med.voll.api.domain.consulta.historico;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Move para consultas_arquivo as consultas anteriores ao horizonte configurado, para que a tabela
+// consultas (usada pelas validações de agendamento) fique limitada às consultas recentes e futuras.
+// O trabalho é feito em lotes pequenos percorridos por (data, id), cada um na sua própria transação
+// curta, com uma pausa entre lotes para não competir com os agendamentos.
+// Uma execução pode levar horas, então roda numa thread própria: as pausas não prendem a thread dos @Scheduled,
+// que é compartilhada com o outbox, o heartbeat do SSE e o leitor do log de alterações.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.arquivamento.habilitado", havingValue = "true", matchIfMissing = true)
+public class ArquivamentoConsultas {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.arquivamento.horizonte:30d}")
+    private Duration horizonte;
+
+    @Value("${api.arquivamento.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${api.arquivamento.pausa-entre-lotes:200ms}")
+    private Duration pausaEntreLotes;
+
+    @Value("${api.arquivamento.lotes-por-execucao:1000}")
+    private int lotesPorExecucao;
+
+    private Counter arquivadas;
+
+    private final ExecutorService execucoes = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("arquivamento").daemon().factory());
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    @PostConstruct
+    void registrarMetricas() {
+        arquivadas = meterRegistry.counter("consultas.arquivadas");
+    }
+
+    // A pausa entre lotes é interrompida e a execução para no lote corrente, que já foi confirmado.
+    @PreDestroy
+    void encerrar() {
+        execucoes.shutdownNow();
+    }
+
+    // Se a execução anterior ainda não terminou, esta é pulada.
+    @Scheduled(cron = "${api.arquivamento.cron:0 0 2 * * *}")
+    public void agendarArquivamento() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.warn("Arquivamento anterior ainda em andamento, execução pulada");
+            return;
+        }
+        execucoes.execute(() -> {
+            try {
+                arquivar();
+            } catch (InterruptedException e) {
+                log.info("Arquivamento interrompido");
+            } finally {
+                emExecucao.set(false);
+            }
+        });
+    }
+
+    public void arquivar() throws InterruptedException {
+        var limite = LocalDateTime.now().minus(horizonte);
+        var ultimaData = INICIO;
+        var ultimoId = 0L;
+        var total = 0;
+
+        for (var i = 0; i < lotesPorExecucao; i++) {
+            var lote = consultaRepository.findLoteParaArquivar(ultimaData, ultimoId, limite, tamanhoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            var ids = lote.stream().map(ConsultaRepository.ChaveArquivamento::getId).toList();
+            var agora = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                consultaRepository.copiarParaArquivo(ids, agora);
+                consultaRepository.excluirArquivadas(ids);
+            });
+            arquivadas.increment(ids.size());
+            total += ids.size();
+
+            var ultima = lote.get(lote.size() - 1);
+            ultimaData = ultima.getData();
+            ultimoId = ultima.getId();
+
+            if (lote.size() < tamanhoLote) {
+                break;
+            }
+            Thread.sleep(pausaEntreLotes.toMillis());
+        }
+
+        log.info("Arquivamento concluído: {} consultas anteriores a {} movidas para o arquivo", total, limite);
+    }
+}
@@ -0,0 +1,38 @@
+package med.voll.api.domain.consulta.historico;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import med.voll.api.domain.consulta.MotivoCancelamento;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Somente leitura: mapeia a view que junta as consultas ativas e as arquivadas.
+@Table(name = "consultas_historico")
+@Entity(name = "ConsultaHistorico")
+@Immutable
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class ConsultaHistorico {
+
+    @Id
+    private Long id;
+
+    @Column(name = "medico_id")
+    private Long idMedico;
+
+    @Column(name = "paciente_id")
+    private Long idPaciente;
+
+    private LocalDateTime data;
+
+    private LocalDateTime dataFim;
+
+    @Enumerated(EnumType.STRING)
+    private MotivoCancelamento motivoCancelamento;
+
+    private boolean arquivada;
+}
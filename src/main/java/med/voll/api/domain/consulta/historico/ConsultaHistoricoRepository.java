@@ -0,0 +1,14 @@
+package med.voll.api.domain.consulta.historico;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ConsultaHistoricoRepository extends JpaRepository<ConsultaHistorico, Long> {
+
+    Page<ConsultaHistorico> findAllByIdPaciente(Long idPaciente, Pageable paginacao);
+
+    Page<ConsultaHistorico> findAllByIdMedico(Long idMedico, Pageable paginacao);
+
+    Page<ConsultaHistorico> findAllByIdMedicoAndIdPaciente(Long idMedico, Long idPaciente, Pageable paginacao);
+}
@@ -0,0 +1,19 @@
+package med.voll.api.domain.consulta.historico;
+
+import med.voll.api.domain.consulta.MotivoCancelamento;
+
+import java.time.LocalDateTime;
+
+public record DadosHistoricoConsulta(
+        Long id,
+        Long idMedico,
+        Long idPaciente,
+        LocalDateTime data,
+        LocalDateTime dataFim,
+        MotivoCancelamento motivoCancelamento,
+        boolean arquivada) {
+
+    public DadosHistoricoConsulta(ConsultaHistorico consulta) {
+        this(consulta.getId(), consulta.getIdMedico(), consulta.getIdPaciente(), consulta.getData(), consulta.getDataFim(), consulta.getMotivoCancelamento(), consulta.isArquivada());
+    }
+}
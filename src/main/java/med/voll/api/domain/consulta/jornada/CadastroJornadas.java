@@ -0,0 +1,91 @@
+package med.voll.api.domain.consulta.jornada;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
+import med.voll.api.domain.consulta.DuracaoConsultas;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.invalidacao.RegistroAlteracoes;
+import med.voll.api.infra.transacao.Transacoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class CadastroJornadas {
+
+    @Autowired
+    private HorarioTrabalhoRepository horarioRepository;
+
+    @Autowired
+    private ExcecaoAgendaRepository excecaoRepository;
+
+    @Autowired
+    private RegistroCadastrosAtivos cadastrosAtivos;
+
+    @Autowired
+    private JornadasMedicos jornadas;
+
+    @Autowired
+    private DuracaoConsultas duracoes;
+
+    @Autowired
+    private RegistroAlteracoes alteracoes;
+
+    public List<DadosHorarioTrabalho> listar(Long idMedico) {
+        exigirMedico(idMedico);
+        return horarioRepository.findAllByIdMedico(idMedico).stream().map(DadosHorarioTrabalho::new).toList();
+    }
+
+    // Substitui o modelo semanal inteiro do médico.
+    public List<DadosHorarioTrabalho> substituir(Long idMedico, DadosJornadaMedico dados) {
+        exigirMedico(idMedico);
+        for (var horario : dados.horarios()) {
+            if (!horario.fim().isAfter(horario.inicio())) {
+                throw new ValidacaoException(CodigoErroValidacao.HORARIO_TRABALHO_INVERTIDO);
+            }
+        }
+
+        horarioRepository.excluirDoMedico(idMedico);
+        var horarios = horarioRepository.saveAll(dados.horarios().stream().map(horario -> new HorarioTrabalho(idMedico, horario)).toList());
+        alteracoes.registrar(RecursoAlterado.JORNADA_MEDICO, idMedico);
+        Transacoes.aposCommit(() -> jornadas.recompilar(idMedico));
+        return horarios.stream().map(DadosHorarioTrabalho::new).toList();
+    }
+
+    // Sem médico, a exceção vale para a clínica inteira.
+    public DadosDetalhamentoExcecaoAgenda registrarExcecao(Long idMedico, DadosExcecaoAgenda dados) {
+        if (idMedico != null) {
+            exigirMedico(idMedico);
+        }
+        if (!dados.fim().isAfter(dados.inicio())) {
+            throw new ValidacaoException(CodigoErroValidacao.EXCECAO_AGENDA_INVERTIDA);
+        }
+
+        var excecao = excecaoRepository.save(new ExcecaoAgenda(idMedico, dados));
+        if (idMedico == null) {
+            alteracoes.registrar(RecursoAlterado.JORNADA_CLINICA, 0L);
+            Transacoes.aposCommit(jornadas::recompilarClinica);
+        } else {
+            alteracoes.registrar(RecursoAlterado.JORNADA_MEDICO, idMedico);
+            Transacoes.aposCommit(() -> jornadas.recompilar(idMedico));
+        }
+        return new DadosDetalhamentoExcecaoAgenda(excecao);
+    }
+
+    // Sem duração informada, usa a padrão da especialidade do médico.
+    public List<DadosHorarioLivre> horariosLivres(Long idMedico, LocalDate data, int dias, Integer duracao) {
+        exigirMedico(idMedico);
+        var minima = duracao != null ? Duration.ofMinutes(duracao) : duracoes.duracaoPadrao(idMedico);
+        return jornadas.horariosLivres(idMedico, data, dias, minima);
+    }
+
+    private void exigirMedico(Long idMedico) {
+        if (cadastrosAtivos.medicoAtivo(idMedico) == null) {
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_INEXISTENTE);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package med.voll.api.domain.consulta.jornada;
+
+import java.time.LocalDateTime;
+
+public record DadosDetalhamentoExcecaoAgenda(Long id, Long idMedico, LocalDateTime inicio, LocalDateTime fim, String motivo) {
+
+    public DadosDetalhamentoExcecaoAgenda(ExcecaoAgenda excecao) {
+        this(excecao.getId(), excecao.getIdMedico(), excecao.getInicio(), excecao.getFim(), excecao.getMotivo());
+    }
+}
@@ -0,0 +1,17 @@
+package med.voll.api.domain.consulta.jornada;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public record DadosExcecaoAgenda(
+        @NotNull
+        LocalDateTime inicio,
+        @NotNull
+        @Future
+        LocalDateTime fim,
+        @Size(max = 100)
+        String motivo) {
+}
@@ -0,0 +1,6 @@
+package med.voll.api.domain.consulta.jornada;
+
+import java.time.LocalDateTime;
+
+public record DadosHorarioLivre(LocalDateTime inicio, LocalDateTime fim) {
+}
@@ -0,0 +1,19 @@
+package med.voll.api.domain.consulta.jornada;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+public record DadosHorarioTrabalho(
+        @NotNull
+        DayOfWeek diaSemana,
+        @NotNull
+        LocalTime inicio,
+        @NotNull
+        LocalTime fim) {
+
+    public DadosHorarioTrabalho(HorarioTrabalho horario) {
+        this(horario.getDiaSemana(), horario.getInicio(), horario.getFim());
+    }
+}
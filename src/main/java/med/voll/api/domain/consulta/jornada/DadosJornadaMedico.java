@@ -0,0 +1,12 @@
+package med.voll.api.domain.consulta.jornada;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+// Modelo semanal completo de um médico. Uma lista vazia volta o médico para o horário da clínica.
+public record DadosJornadaMedico(
+        @NotNull
+        List<@Valid DadosHorarioTrabalho> horarios) {
+}
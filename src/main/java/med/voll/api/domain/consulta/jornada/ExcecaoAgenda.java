@@ -0,0 +1,35 @@
+package med.voll.api.domain.consulta.jornada;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Período em que não há atendimento, apesar do modelo semanal: férias, licença ou, sem médico, feriado da clínica.
+@Table(name = "excecoes_agenda")
+@Entity(name = "ExcecaoAgenda")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class ExcecaoAgenda {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "medico_id")
+    private Long idMedico;
+
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private String motivo;
+
+    public ExcecaoAgenda(Long idMedico, DadosExcecaoAgenda dados) {
+        this.idMedico = idMedico;
+        this.inicio = dados.inicio();
+        this.fim = dados.fim();
+        this.motivo = dados.motivo();
+    }
+}
@@ -0,0 +1,15 @@
+package med.voll.api.domain.consulta.jornada;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ExcecaoAgendaRepository extends JpaRepository<ExcecaoAgenda, Long> {
+
+    List<ExcecaoAgenda> findAllByFimAfter(LocalDateTime data);
+
+    List<ExcecaoAgenda> findAllByIdMedicoAndFimAfter(Long idMedico, LocalDateTime data);
+
+    List<ExcecaoAgenda> findAllByIdMedicoIsNullAndFimAfter(LocalDateTime data);
+}
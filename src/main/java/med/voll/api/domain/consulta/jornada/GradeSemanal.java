@@ -0,0 +1,127 @@
+package med.voll.api.domain.consulta.jornada;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Uma semana (segunda a domingo) em fatias de 5 minutos, um bit por fatia: 2016 fatias em 32 longs.
+// Cinco minutos dividem todas as durações padrão, então a grade representa as consultas sem arredondar.
+// Todas as operações trabalham palavra a palavra; uma checagem de horário custa uma ou duas palavras.
+public class GradeSemanal {
+
+    public static final int MINUTOS_POR_FATIA = 5;
+    public static final int FATIAS_POR_DIA = 24 * 60 / MINUTOS_POR_FATIA;
+    public static final int FATIAS_POR_SEMANA = 7 * FATIAS_POR_DIA;
+
+    private final long[] palavras;
+
+    public GradeSemanal() {
+        this.palavras = new long[(FATIAS_POR_SEMANA + 63) / 64];
+    }
+
+    private GradeSemanal(long[] palavras) {
+        this.palavras = palavras;
+    }
+
+    public GradeSemanal copia() {
+        return new GradeSemanal(palavras.clone());
+    }
+
+    // Marca as fatias [de, ate).
+    public void marcar(int de, int ate) {
+        de = Math.max(de, 0);
+        ate = Math.min(ate, FATIAS_POR_SEMANA);
+        for (var i = de >>> 6; de < ate && i <= (ate - 1) >>> 6; i++) {
+            palavras[i] |= mascara(i, de, ate);
+        }
+    }
+
+    // Desmarca as fatias [de, ate).
+    public void desmarcar(int de, int ate) {
+        de = Math.max(de, 0);
+        ate = Math.min(ate, FATIAS_POR_SEMANA);
+        for (var i = de >>> 6; de < ate && i <= (ate - 1) >>> 6; i++) {
+            palavras[i] &= ~mascara(i, de, ate);
+        }
+    }
+
+    // Todas as fatias [de, ate) estão marcadas?
+    public boolean contemTodas(int de, int ate) {
+        if (de < 0 || ate > FATIAS_POR_SEMANA) {
+            return false;
+        }
+        for (var i = de >>> 6; de < ate && i <= (ate - 1) >>> 6; i++) {
+            var mascara = mascara(i, de, ate);
+            if ((palavras[i] & mascara) != mascara) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Desmarca, nesta grade, tudo o que está marcado na outra.
+    public GradeSemanal remover(GradeSemanal outra) {
+        for (var i = 0; i < palavras.length; i++) {
+            palavras[i] &= ~outra.palavras[i];
+        }
+        return this;
+    }
+
+    // Sequências contínuas de fatias marcadas, em ordem.
+    public List<Faixa> faixas() {
+        var faixas = new ArrayList<Faixa>();
+        var inicio = proxima(0, false);
+        while (inicio < FATIAS_POR_SEMANA) {
+            var fim = proxima(inicio, true);
+            faixas.add(new Faixa(inicio, fim));
+            inicio = proxima(fim, false);
+        }
+        return faixas;
+    }
+
+    public record Faixa(int de, int ate) {
+
+        public int tamanho() {
+            return ate - de;
+        }
+    }
+
+    // Primeira fatia a partir de "de" que está marcada (ou desmarcada, se procurarDesmarcada).
+    private int proxima(int de, boolean procurarDesmarcada) {
+        if (de >= FATIAS_POR_SEMANA) {
+            return FATIAS_POR_SEMANA;
+        }
+        var i = de >>> 6;
+        var palavra = (procurarDesmarcada ? ~palavras[i] : palavras[i]) & (-1L << de);
+        while (palavra == 0) {
+            if (++i == palavras.length) {
+                return FATIAS_POR_SEMANA;
+            }
+            palavra = procurarDesmarcada ? ~palavras[i] : palavras[i];
+        }
+        return Math.min(i * 64 + Long.numberOfTrailingZeros(palavra), FATIAS_POR_SEMANA);
+    }
+
+    // Bits da palavra i que pertencem a [de, ate).
+    private static long mascara(int i, int de, int ate) {
+        var base = i << 6;
+        var mascara = -1L;
+        if (de > base) {
+            mascara &= -1L << (de - base);
+        }
+        if (ate < base + 64) {
+            mascara &= -1L >>> (base + 64 - ate);
+        }
+        return mascara;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GradeSemanal outra && Arrays.equals(palavras, outra.palavras);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(palavras);
+    }
+}
@@ -0,0 +1,38 @@
+package med.voll.api.domain.consulta.jornada;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// Uma faixa do modelo semanal de trabalho de um médico. Um dia pode ter várias faixas (manhã e tarde, por exemplo).
+@Table(name = "horarios_trabalho")
+@Entity(name = "HorarioTrabalho")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class HorarioTrabalho {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "medico_id")
+    private Long idMedico;
+
+    @Enumerated(EnumType.STRING)
+    private DayOfWeek diaSemana;
+
+    private LocalTime inicio;
+    private LocalTime fim;
+
+    public HorarioTrabalho(Long idMedico, DadosHorarioTrabalho dados) {
+        this.idMedico = idMedico;
+        this.diaSemana = dados.diaSemana();
+        this.inicio = dados.inicio();
+        this.fim = dados.fim();
+    }
+}
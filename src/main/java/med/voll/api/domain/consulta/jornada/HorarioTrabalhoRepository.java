@@ -0,0 +1,16 @@
+package med.voll.api.domain.consulta.jornada;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface HorarioTrabalhoRepository extends JpaRepository<HorarioTrabalho, Long> {
+
+    List<HorarioTrabalho> findAllByIdMedico(Long idMedico);
+
+    @Modifying
+    @Query("delete from HorarioTrabalho h where h.idMedico = :idMedico")
+    void excluirDoMedico(Long idMedico);
+}
@@ -0,0 +1,242 @@
+package med.voll.api.domain.consulta.jornada;
+
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.consulta.ocupacao.OcupacaoMedicos;
+import med.voll.api.domain.consulta.validacoes.ValidadorHorarioFuncionamentoClinica;
+import med.voll.api.infra.invalidacao.CacheInvalidavel;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Jornada de trabalho dos médicos compilada em grades semanais de bits.
+// Na subida, o modelo semanal de cada médico vira uma grade; a grade de uma semana específica é o modelo menos
+// as exceções (do médico e da clínica) que caem nela, compilada na primeira vez que a semana é consultada.
+// Alterar a jornada ou as exceções de um médico recompila só esse médico, também nas outras instâncias
+// (pelo LeitorAlteracoes).
+@Slf4j
+@Component
+public class JornadasMedicos implements CacheInvalidavel {
+
+    // Até quantos dias a consulta de disponibilidade cobre de uma vez.
+    private static final int DIAS_MAXIMOS_DISPONIBILIDADE = 31;
+
+    // Médicos sem modelo cadastrado atendem no horário da clínica, o mesmo do ValidadorHorarioFuncionamentoClinica:
+    // da abertura até o fim da hora da última consulta, em todos os dias menos o fechado.
+    private static final Jornada HORARIO_CLINICA = new Jornada(modeloDaClinica(), List.of());
+
+    @Autowired
+    private HorarioTrabalhoRepository horarioRepository;
+
+    @Autowired
+    private ExcecaoAgendaRepository excecaoRepository;
+
+    @Autowired
+    private OcupacaoMedicos ocupacao;
+
+    private final ConcurrentHashMap<Long, Jornada> jornadas = new ConcurrentHashMap<>();
+    private volatile List<ExcecaoAgenda> excecoesClinica = List.of();
+    private final ConcurrentHashMap<Chave, SemanaCompilada> semanas = new ConcurrentHashMap<>();
+
+    private record Jornada(GradeSemanal modelo, List<ExcecaoAgenda> excecoes) {
+    }
+
+    private record Chave(Long idMedico, LocalDate segunda) {
+    }
+
+    // Guarda de qual jornada e de quais exceções da clínica a semana foi compilada: se alguma foi trocada depois,
+    // a semana é recompilada na próxima consulta.
+    private record SemanaCompilada(Jornada jornada, List<ExcecaoAgenda> excecoesClinica, GradeSemanal grade) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        var excecoes = excecaoRepository.findAllByFimAfter(LocalDateTime.now());
+        var excecoesPorMedico = excecoes.stream()
+                .filter(excecao -> excecao.getIdMedico() != null)
+                .collect(Collectors.groupingBy(ExcecaoAgenda::getIdMedico));
+        var horariosPorMedico = horarioRepository.findAll().stream()
+                .collect(Collectors.groupingBy(HorarioTrabalho::getIdMedico));
+
+        var ids = new HashSet<>(horariosPorMedico.keySet());
+        ids.addAll(excecoesPorMedico.keySet());
+        jornadas.clear();
+        for (var id : ids) {
+            jornadas.put(id, compilar(horariosPorMedico.getOrDefault(id, List.of()), excecoesPorMedico.getOrDefault(id, List.of())));
+        }
+        excecoesClinica = excecoes.stream().filter(excecao -> excecao.getIdMedico() == null).toList();
+        semanas.clear();
+        log.info("Jornadas compiladas: {} médicos com jornada própria, {} exceções da clínica", jornadas.size(), excecoesClinica.size());
+    }
+
+    public void recompilar(Long idMedico) {
+        var jornada = compilar(horarioRepository.findAllByIdMedico(idMedico),
+                excecaoRepository.findAllByIdMedicoAndFimAfter(idMedico, LocalDateTime.now()));
+        if (jornada == HORARIO_CLINICA) {
+            jornadas.remove(idMedico);
+        } else {
+            jornadas.put(idMedico, jornada);
+        }
+        semanas.keySet().removeIf(chave -> chave.idMedico().equals(idMedico));
+    }
+
+    public void recompilarClinica() {
+        excecoesClinica = excecaoRepository.findAllByIdMedicoIsNullAndFimAfter(LocalDateTime.now());
+        semanas.clear();
+    }
+
+    @Override
+    public void invalidar(RecursoAlterado recurso, Long id) {
+        switch (recurso) {
+            case JORNADA_MEDICO -> recompilar(id);
+            case JORNADA_CLINICA -> recompilarClinica();
+        }
+    }
+
+    // O médico atende em todo o período [inicio, fim)?
+    public boolean atende(Long idMedico, LocalDateTime inicio, LocalDateTime fim) {
+        for (var segunda = segunda(inicio.toLocalDate()); segunda.atStartOfDay().isBefore(fim); segunda = segunda.plusWeeks(1)) {
+            if (!grade(idMedico, segunda).contemTodas(fatiaInicial(segunda, inicio), fatiaFinal(segunda, fim))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Períodos em que o médico atende e não tem consulta, com pelo menos a duração pedida, a partir de agora.
+    // A ocupação de cada dia vira uma grade e é descontada da jornada com um AND NOT palavra a palavra.
+    public List<DadosHorarioLivre> horariosLivres(Long idMedico, LocalDate data, int dias, Duration duracao) {
+        var agora = LocalDateTime.now();
+        var inicio = data.atStartOfDay().isAfter(agora) ? data.atStartOfDay() : agora;
+        var fim = data.plusDays(Math.max(1, Math.min(dias, DIAS_MAXIMOS_DISPONIBILIDADE))).atStartOfDay();
+        var fatiasMinimas = Math.max(1, Math.ceilDiv(duracao.toMinutes(), GradeSemanal.MINUTOS_POR_FATIA));
+
+        var livres = new ArrayList<DadosHorarioLivre>();
+        for (var segunda = segunda(inicio.toLocalDate()); segunda.atStartOfDay().isBefore(fim); segunda = segunda.plusWeeks(1)) {
+            var de = fatiaFinal(segunda, inicio);
+            var ate = fatiaInicial(segunda, fim);
+
+            var ocupados = new GradeSemanal();
+            for (var dia = de / GradeSemanal.FATIAS_POR_DIA; dia * GradeSemanal.FATIAS_POR_DIA < ate; dia++) {
+                for (var intervalo : ocupacao.intervalos(idMedico, segunda.plusDays(dia))) {
+                    ocupados.marcar(fatiaInicial(segunda, intervalo.inicio()), fatiaFinal(segunda, intervalo.fim()));
+                }
+            }
+
+            var grade = grade(idMedico, segunda).copia().remover(ocupados);
+            grade.desmarcar(0, de);
+            grade.desmarcar(ate, GradeSemanal.FATIAS_POR_SEMANA);
+            for (var faixa : grade.faixas()) {
+                if (faixa.tamanho() >= fatiasMinimas) {
+                    livres.add(new DadosHorarioLivre(instante(segunda, faixa.de()), instante(segunda, faixa.ate())));
+                }
+            }
+        }
+        return livres;
+    }
+
+    // Quantas consultas da duração pedida cabem na jornada do médico em cada dia do período, sem olhar a ocupação.
+    // Cada faixa contínua da grade é cortada na meia-noite e dividida pela duração.
+    public int[] capacidadePorDia(Long idMedico, LocalDate inicio, int dias, Duration duracao) {
+        var fatiasPorConsulta = Math.max(1, Math.ceilDiv(duracao.toMinutes(), GradeSemanal.MINUTOS_POR_FATIA));
+        var capacidade = new int[dias];
+        var fim = inicio.plusDays(dias);
+        for (var segunda = segunda(inicio); segunda.isBefore(fim); segunda = segunda.plusWeeks(1)) {
+            for (var faixa : grade(idMedico, segunda).faixas()) {
+                for (var fatia = faixa.de(); fatia < faixa.ate(); ) {
+                    var diaDaSemana = fatia / GradeSemanal.FATIAS_POR_DIA;
+                    var fimNoDia = Math.min(faixa.ate(), (diaDaSemana + 1) * GradeSemanal.FATIAS_POR_DIA);
+                    var indice = ChronoUnit.DAYS.between(inicio, segunda.plusDays(diaDaSemana));
+                    if (indice >= 0 && indice < dias) {
+                        capacidade[(int) indice] += (int) ((fimNoDia - fatia) / fatiasPorConsulta);
+                    }
+                    fatia = fimNoDia;
+                }
+            }
+        }
+        return capacidade;
+    }
+
+    @Scheduled(cron = "${api.jornadas.limpeza.cron:0 10 0 * * *}")
+    public void descartarSemanasPassadas() {
+        var atual = segunda(LocalDate.now());
+        semanas.keySet().removeIf(chave -> chave.segunda().isBefore(atual));
+    }
+
+    private GradeSemanal grade(Long idMedico, LocalDate segunda) {
+        var jornada = jornadas.getOrDefault(idMedico, HORARIO_CLINICA);
+        var clinica = excecoesClinica;
+        var chave = new Chave(idMedico, segunda);
+        var compilada = semanas.get(chave);
+        if (compilada == null || compilada.jornada() != jornada || compilada.excecoesClinica() != clinica) {
+            var grade = jornada.modelo().copia();
+            Stream.concat(jornada.excecoes().stream(), clinica.stream())
+                    .forEach(excecao -> grade.desmarcar(fatiaInicial(segunda, excecao.getInicio()), fatiaFinal(segunda, excecao.getFim())));
+            compilada = new SemanaCompilada(jornada, clinica, grade);
+            semanas.put(chave, compilada);
+        }
+        return compilada.grade();
+    }
+
+    private static Jornada compilar(List<HorarioTrabalho> horarios, List<ExcecaoAgenda> excecoes) {
+        if (horarios.isEmpty() && excecoes.isEmpty()) {
+            return HORARIO_CLINICA;
+        }
+        if (horarios.isEmpty()) {
+            return new Jornada(HORARIO_CLINICA.modelo(), List.copyOf(excecoes));
+        }
+        var modelo = new GradeSemanal();
+        horarios.forEach(horario -> marcar(modelo, horario.getDiaSemana(), horario.getInicio(), horario.getFim()));
+        return new Jornada(modelo, List.copyOf(excecoes));
+    }
+
+    private static GradeSemanal modeloDaClinica() {
+        var modelo = new GradeSemanal();
+        var abertura = LocalTime.of(ValidadorHorarioFuncionamentoClinica.HORA_ABERTURA, 0);
+        var fechamento = LocalTime.of(ValidadorHorarioFuncionamentoClinica.HORA_ULTIMA_CONSULTA + 1, 0);
+        for (var dia : DayOfWeek.values()) {
+            if (dia != ValidadorHorarioFuncionamentoClinica.DIA_FECHADO) {
+                marcar(modelo, dia, abertura, fechamento);
+            }
+        }
+        return modelo;
+    }
+
+    // Horários do modelo fora da grade de 5 minutos são arredondados para dentro.
+    private static void marcar(GradeSemanal modelo, DayOfWeek dia, LocalTime inicio, LocalTime fim) {
+        var base = (dia.getValue() - 1) * GradeSemanal.FATIAS_POR_DIA;
+        modelo.marcar(base + Math.ceilDiv(inicio.toSecondOfDay() / 60, GradeSemanal.MINUTOS_POR_FATIA),
+                base + fim.toSecondOfDay() / 60 / GradeSemanal.MINUTOS_POR_FATIA);
+    }
+
+    private static LocalDate segunda(LocalDate dia) {
+        return dia.minusDays(dia.getDayOfWeek().getValue() - 1);
+    }
+
+    // Fatia que contém o instante (arredonda para baixo), limitada à semana.
+    private static int fatiaInicial(LocalDate segunda, LocalDateTime instante) {
+        var minutos = Duration.between(segunda.atStartOfDay(), instante).toMinutes();
+        return (int) Math.clamp(Math.floorDiv(minutos, GradeSemanal.MINUTOS_POR_FATIA), 0, GradeSemanal.FATIAS_POR_SEMANA);
+    }
+
+    // Primeira fatia depois do instante (arredonda para cima), limitada à semana.
+    private static int fatiaFinal(LocalDate segunda, LocalDateTime instante) {
+        var minutos = Duration.between(segunda.atStartOfDay(), instante).toMinutes();
+        return (int) Math.clamp(Math.ceilDiv(minutos, GradeSemanal.MINUTOS_POR_FATIA), 0, GradeSemanal.FATIAS_POR_SEMANA);
+    }
+
+    private static LocalDateTime instante(LocalDate segunda, int fatia) {
+        return segunda.atStartOfDay().plusMinutes((long) fatia * GradeSemanal.MINUTOS_POR_FATIA);
+    }
+}
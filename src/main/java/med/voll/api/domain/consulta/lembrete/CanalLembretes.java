@@ -0,0 +1,8 @@
+package med.voll.api.domain.consulta.lembrete;
+
+public interface CanalLembretes {
+
+    // Entrega um lembrete; lançar uma exceção indica falha, e a consulta volta a ser tentada quando a reserva vencer.
+    void enviar(DadosLembreteConsulta lembrete);
+
+}
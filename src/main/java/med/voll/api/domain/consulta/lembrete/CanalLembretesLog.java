@@ -0,0 +1,16 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.lembretes.canal", havingValue = "log", matchIfMissing = true)
+public class CanalLembretesLog implements CanalLembretes {
+
+    @Override
+    public void enviar(DadosLembreteConsulta lembrete) {
+        log.info("Lembrete da consulta {} em {} para o paciente {}", lembrete.idConsulta(), lembrete.data(), lembrete.idPaciente());
+    }
+}
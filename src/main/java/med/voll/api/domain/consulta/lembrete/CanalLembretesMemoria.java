@@ -0,0 +1,24 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Canal local, útil em testes: só guarda os lembretes entregues.
+@Component
+@ConditionalOnProperty(name = "api.lembretes.canal", havingValue = "memoria")
+public class CanalLembretesMemoria implements CanalLembretes {
+
+    private final ConcurrentLinkedQueue<DadosLembreteConsulta> entregues = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void enviar(DadosLembreteConsulta lembrete) {
+        entregues.add(lembrete);
+    }
+
+    public List<DadosLembreteConsulta> entregues() {
+        return List.copyOf(entregues);
+    }
+}
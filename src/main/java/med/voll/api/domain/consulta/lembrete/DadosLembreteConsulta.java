@@ -0,0 +1,10 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import java.time.LocalDateTime;
+
+public record DadosLembreteConsulta(Long idConsulta, Long idMedico, Long idPaciente, LocalDateTime data) {
+
+    public DadosLembreteConsulta(LembreteConsultaRepository.ConsultaParaLembrete consulta) {
+        this(consulta.getId(), consulta.getMedicoId(), consulta.getPacienteId(), consulta.getData());
+    }
+}
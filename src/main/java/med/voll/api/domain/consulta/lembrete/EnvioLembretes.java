@@ -0,0 +1,139 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Envia o lembrete das consultas que acontecem nas próximas horas (api.lembretes.antecedencia).
+// A varredura lê só a janela, em lotes pela chave (data, id), como o arquivamento; o custo acompanha o
+// número de consultas na janela, não o tamanho da tabela. Cada lote é reservado em lembretes_consultas antes
+// do envio e confirmado depois: uma reexecução (ou outra instância) pula o que já foi enviado ou está
+// reservado, e uma reserva que não foi confirmada (queda, falha do canal) vence e é tentada de novo.
+// O envio roda em virtual threads, com no máximo api.lembretes.paralelismo entregas simultâneas.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.lembretes.habilitado", havingValue = "true", matchIfMissing = true)
+public class EnvioLembretes {
+
+    @Autowired
+    private LembreteConsultaRepository repository;
+
+    @Autowired
+    private CanalLembretes canal;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.lembretes.antecedencia:24h}")
+    private Duration antecedencia = Duration.ofHours(24);
+
+    @Value("${api.lembretes.tamanho-lote:200}")
+    private int tamanhoLote = 200;
+
+    @Value("${api.lembretes.paralelismo:16}")
+    private int paralelismo = 16;
+
+    @Value("${api.lembretes.validade-reserva:10m}")
+    private Duration validadeReserva = Duration.ofMinutes(10);
+
+    @Value("${api.lembretes.lotes-por-execucao:1000}")
+    private int lotesPorExecucao = 1000;
+
+    private Counter enviados;
+    private Counter falhas;
+
+    @PostConstruct
+    void registrarMetricas() {
+        enviados = meterRegistry.counter("lembretes.enviados");
+        falhas = meterRegistry.counter("lembretes.falhas");
+    }
+
+    @Scheduled(fixedDelayString = "${api.lembretes.intervalo:5m}")
+    public void enviarPendentes() {
+        var agora = LocalDateTime.now();
+        var fim = agora.plus(antecedencia);
+        var expiracao = agora.minus(validadeReserva);
+        var ultimaData = agora;
+        var ultimoId = 0L;
+        var total = 0;
+
+        for (var i = 0; i < lotesPorExecucao; i++) {
+            var lote = repository.findLotePendente(ultimaData, ultimoId, fim, expiracao, tamanhoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            total += enviar(lote, expiracao);
+
+            var ultima = lote.getLast();
+            ultimaData = ultima.getData();
+            ultimoId = ultima.getId();
+            if (lote.size() < tamanhoLote) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Lembretes enviados: {} consultas até {}", total, fim);
+        }
+    }
+
+    // As marcas só servem enquanto a consulta está na janela; depois disso podem ser descartadas.
+    @Scheduled(cron = "${api.lembretes.limpeza.cron:0 15 3 * * *}")
+    public void excluirMarcasAntigas() {
+        repository.excluirAntesDe(LocalDateTime.now().minus(antecedencia).minusDays(1));
+    }
+
+    private int enviar(List<LembreteConsultaRepository.ConsultaParaLembrete> lote, LocalDateTime expiracao) {
+        var ids = lote.stream().map(LembreteConsultaRepository.ConsultaParaLembrete::getId).toList();
+        var token = UUID.randomUUID().toString();
+        var agora = LocalDateTime.now();
+        repository.reservar(ids, token, agora);
+        repository.retomarVencidas(ids, token, agora, expiracao);
+        var reservadas = new HashSet<>(repository.findReservadas(ids, token));
+
+        var entregues = ConcurrentHashMap.<Long>newKeySet();
+        var vagas = new Semaphore(paralelismo);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var consulta : lote) {
+                if (!reservadas.contains(consulta.getId())) {
+                    continue;
+                }
+                vagas.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        canal.enviar(new DadosLembreteConsulta(consulta));
+                        entregues.add(consulta.getId());
+                        enviados.increment();
+                    } catch (RuntimeException e) {
+                        log.warn("Falha ao enviar o lembrete da consulta {}", consulta.getId(), e);
+                        falhas.increment();
+                    } finally {
+                        vagas.release();
+                    }
+                });
+            }
+        }
+
+        // Se a confirmação não chegar ao banco, a reserva vence e o lembrete é reenviado: a entrega é "pelo menos uma vez".
+        if (!entregues.isEmpty()) {
+            repository.marcarEnviados(entregues, token, LocalDateTime.now());
+        }
+        return entregues.size();
+    }
+}
@@ -0,0 +1,28 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Table(name = "lembretes_consultas")
+@Entity(name = "LembreteConsulta")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "idConsulta")
+public class LembreteConsulta {
+
+    @Id
+    @Column(name = "consulta_id")
+    private Long idConsulta;
+
+    // Execução do envio que reservou a consulta.
+    private String token;
+
+    private LocalDateTime reservadoEm;
+
+    // Nulo enquanto o lembrete não foi entregue.
+    private LocalDateTime enviadoEm;
+}
@@ -0,0 +1,68 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LembreteConsultaRepository extends JpaRepository<LembreteConsulta, Long> {
+
+    interface ConsultaParaLembrete {
+        Long getId();
+        LocalDateTime getData();
+        Long getMedicoId();
+        Long getPacienteId();
+    }
+
+    // Percorre as consultas da janela pela chave (data, id) usando idx_consultas_data_id, a partir da última
+    // já processada. Ficam de fora as canceladas, as já lembradas e as reservadas por um envio ainda válido.
+    @Query(value = """
+            select c.id, c.data, c.medico_id as medicoId, c.paciente_id as pacienteId from consultas c
+            where (c.data > :ultimaData or (c.data = :ultimaData and c.id > :ultimoId))
+            and c.data < :fim
+            and c.motivo_cancelamento is null
+            and not exists (
+                select 1 from lembretes_consultas l
+                where l.consulta_id = c.id
+                and (l.enviado_em is not null or l.reservado_em >= :expiracao)
+            )
+            order by c.data, c.id
+            limit :tamanho
+            """, nativeQuery = true)
+    List<ConsultaParaLembrete> findLotePendente(LocalDateTime ultimaData, Long ultimoId, LocalDateTime fim, LocalDateTime expiracao, int tamanho);
+
+    // Reserva as consultas ainda sem marca; quem já tem marca (de outra instância, ou de outra execução) é ignorado.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            insert ignore into lembretes_consultas (consulta_id, token, reservado_em)
+            select id, :token, :agora from consultas where id in :ids
+            """, nativeQuery = true)
+    int reservar(Collection<Long> ids, String token, LocalDateTime agora);
+
+    // Retoma reservas vencidas: o envio que as fez caiu ou falhou antes de confirmar.
+    @Modifying
+    @Transactional
+    @Query("""
+            update LembreteConsulta l set l.token = :token, l.reservadoEm = :agora
+            where l.idConsulta in :ids and l.enviadoEm is null and l.reservadoEm < :expiracao
+            """)
+    int retomarVencidas(Collection<Long> ids, String token, LocalDateTime agora, LocalDateTime expiracao);
+
+    @Query("select l.idConsulta from LembreteConsulta l where l.token = :token and l.idConsulta in :ids")
+    List<Long> findReservadas(Collection<Long> ids, String token);
+
+    @Modifying
+    @Transactional
+    @Query("update LembreteConsulta l set l.enviadoEm = :agora where l.idConsulta in :ids and l.token = :token")
+    int marcarEnviados(Collection<Long> ids, String token, LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("delete from LembreteConsulta l where l.reservadoEm < :limite")
+    int excluirAntesDe(LocalDateTime limite);
+}
@@ -0,0 +1,73 @@
+package med.voll.api.domain.consulta.ocupacao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Intervalos ocupados de um médico num dia, numa árvore ordenada pelo início.
+// Guardar também a maior duração presente transforma "há sobreposição com [inicio, fim)?" numa busca por faixa:
+// só podem se sobrepor os intervalos que começam entre inicio - maiorDuracao e fim, o que custa O(log n + k),
+// e continua correto mesmo que dados antigos tenham consultas sobrepostas.
+// Cada instância tem o próprio lock: médicos e dias diferentes não disputam entre si.
+class AgendaDoDia {
+
+    private final TreeMap<LocalDateTime, List<Intervalo>> porInicio = new TreeMap<>();
+    private final Map<Long, Intervalo> porConsulta = new HashMap<>();
+    private Duration maiorDuracao = Duration.ZERO;
+
+    AgendaDoDia(Collection<Intervalo> intervalos) {
+        intervalos.forEach(this::adicionar);
+    }
+
+    synchronized void ocupar(Intervalo intervalo) {
+        remover(intervalo.idConsulta());
+        adicionar(intervalo);
+    }
+
+    synchronized void liberar(Long idConsulta) {
+        remover(idConsulta);
+    }
+
+    synchronized boolean sobrepoe(LocalDateTime inicio, LocalDateTime fim, Set<Long> ignorar) {
+        for (var intervalos : candidatos(inicio, fim).values()) {
+            for (var intervalo : intervalos) {
+                if (intervalo.sobrepoe(inicio, fim) && !ignorar.contains(intervalo.idConsulta())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    synchronized List<Intervalo> intervalos() {
+        return List.copyOf(porConsulta.values());
+    }
+
+    synchronized int tamanho() {
+        return porConsulta.size();
+    }
+
+    private NavigableMap<LocalDateTime, List<Intervalo>> candidatos(LocalDateTime inicio, LocalDateTime fim) {
+        return porInicio.subMap(inicio.minus(maiorDuracao), false, fim, false);
+    }
+
+    private void adicionar(Intervalo intervalo) {
+        porInicio.computeIfAbsent(intervalo.inicio(), i -> new ArrayList<>(1)).add(intervalo);
+        porConsulta.put(intervalo.idConsulta(), intervalo);
+        if (intervalo.duracao().compareTo(maiorDuracao) > 0) {
+            maiorDuracao = intervalo.duracao();
+        }
+    }
+
+    private void remover(Long idConsulta) {
+        var intervalo = porConsulta.remove(idConsulta);
+        if (intervalo == null) {
+            return;
+        }
+        var mesmoInicio = porInicio.get(intervalo.inicio());
+        mesmoInicio.remove(intervalo);
+        if (mesmoInicio.isEmpty()) {
+            porInicio.remove(intervalo.inicio());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package med.voll.api.domain.consulta.ocupacao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Período [inicio, fim) de uma consulta (ou de um horário livre, sem consulta).
+public record Intervalo(Long idConsulta, LocalDateTime inicio, LocalDateTime fim) {
+
+    public boolean sobrepoe(LocalDateTime outroInicio, LocalDateTime outroFim) {
+        return inicio.isBefore(outroFim) && fim.isAfter(outroInicio);
+    }
+
+    public Duration duracao() {
+        return Duration.between(inicio, fim);
+    }
+}
@@ -0,0 +1,186 @@
+package med.voll.api.domain.consulta.ocupacao;
+
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.TipoAlteracaoHorario;
+import med.voll.api.infra.invalidacao.CacheInvalidavel;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ocupação dos médicos por dia, em memória, para checar conflitos de horário sem uma consulta SQL por agendamento.
+// Cada (médico, dia) é carregado com uma única consulta por faixa na primeira vez que é usado e depois mantido
+// pelos eventos de alteração de horário, aplicados após o commit. A validade limita o quanto o cache pode
+// ficar atrás de alterações feitas por outras instâncias. É só um filtro: a checagem definitiva de conflito
+// acontece no banco, com o médico travado, ao gravar a consulta (AgendaDeConsultas). Consultas gravadas ou
+// canceladas por outras instâncias chegam pelo LeitorAlteracoes e descartam os dias do médico.
+@Component
+public class OcupacaoMedicos implements CacheInvalidavel {
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Value("${api.agenda.cache.validade:10m}")
+    private Duration validade;
+
+    private final ConcurrentHashMap<Chave, Entrada> dias = new ConcurrentHashMap<>();
+
+    private record Chave(Long idMedico, LocalDate dia) {
+    }
+
+    // Sem agenda: marca de uma carga em andamento, que só é trocada pelo resultado se continuar no mapa.
+    private record Entrada(AgendaDoDia agenda, long carregadaEm) {
+        boolean valida(long agora, Duration validade) {
+            return agenda != null && agora - carregadaEm <= validade.toNanos();
+        }
+    }
+
+    // Alterações feitas pela transação corrente que ainda não foram aplicadas ao cache.
+    private static class Pendencias {
+        final List<AlteracaoHorario> ocupados = new ArrayList<>();
+        final Set<Long> liberados = new HashSet<>();
+    }
+
+    public boolean ocupado(Long idMedico, LocalDateTime inicio, LocalDateTime fim) {
+        var pendencias = pendencias(false);
+        var liberados = pendencias == null ? Set.<Long>of() : pendencias.liberados;
+        for (var dia = inicio.toLocalDate(); dia.isBefore(fim.toLocalDate().plusDays(1)); dia = dia.plusDays(1)) {
+            if (agenda(idMedico, dia).sobrepoe(inicio, fim, liberados)) {
+                return true;
+            }
+        }
+        return pendencias != null && pendencias.ocupados.stream()
+                .anyMatch(a -> a.idMedico().equals(idMedico) && a.data().isBefore(fim) && a.dataFim().isAfter(inicio));
+    }
+
+    // Consultas confirmadas do médico que tocam o dia.
+    public List<Intervalo> intervalos(Long idMedico, LocalDate dia) {
+        return agenda(idMedico, dia).intervalos();
+    }
+
+    // Dentro da transação: registra a alteração para que as próximas checagens da mesma transação a enxerguem
+    // (por exemplo, um lote do commit em grupo).
+    @EventListener
+    public void registrarPendencia(AlteracaoHorario alteracao) {
+        var pendencias = pendencias(true);
+        if (pendencias == null) {
+            return;
+        }
+        if (alteracao.tipo() == TipoAlteracaoHorario.HORARIO_OCUPADO) {
+            pendencias.ocupados.add(alteracao);
+        } else {
+            pendencias.liberados.add(alteracao.idConsulta());
+        }
+    }
+
+    @TransactionalEventListener
+    public void aplicar(AlteracaoHorario alteracao) {
+        for (var dia = alteracao.data().toLocalDate(); !dia.isAfter(alteracao.dataFim().toLocalDate()); dia = dia.plusDays(1)) {
+            dias.computeIfPresent(new Chave(alteracao.idMedico(), dia), (chave, entrada) -> {
+                if (entrada.agenda() == null) {
+                    // Carga em andamento, que pode ter lido o banco antes deste commit: não será instalada.
+                    return null;
+                }
+                if (alteracao.tipo() == TipoAlteracaoHorario.HORARIO_OCUPADO) {
+                    entrada.agenda().ocupar(new Intervalo(alteracao.idConsulta(), alteracao.data(), alteracao.dataFim()));
+                } else {
+                    entrada.agenda().liberar(alteracao.idConsulta());
+                }
+                return entrada;
+            });
+        }
+    }
+
+    // Descarta os dias do médico no período, para que sejam recarregados do banco na próxima checagem.
+    public void descartar(Long idMedico, LocalDate de, LocalDate ate) {
+        for (var dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+            dias.remove(new Chave(idMedico, dia));
+        }
+    }
+
+    @Override
+    public void invalidar(RecursoAlterado recurso, Long id) {
+        if (recurso == RecursoAlterado.AGENDA_MEDICO) {
+            dias.keySet().removeIf(chave -> chave.idMedico().equals(id));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.agenda.cache.intervalo-limpeza:1m}")
+    public void descartarVencidos() {
+        var hoje = LocalDate.now();
+        var agora = System.nanoTime();
+        dias.entrySet().removeIf(e -> e.getKey().dia().isBefore(hoje) || agora - e.getValue().carregadaEm() > validade.toNanos());
+    }
+
+    // A carga roda fora de qualquer lock do mapa e na transação de quem pediu a checagem (sem pedir outra
+    // conexão). Antes de ler, a chave recebe uma marca; um commit aplicado durante a carga remove a marca, e o
+    // resultado, possivelmente anterior a ele, serve só a esta checagem. Também não é instalado o que foi lido
+    // por uma transação com alterações de horário ainda não confirmadas. Cargas simultâneas do mesmo dia
+    // leem cada uma o banco, e só a dona da marca instala.
+    private AgendaDoDia agenda(Long idMedico, LocalDate dia) {
+        var chave = new Chave(idMedico, dia);
+        var atual = dias.get(chave);
+        if (atual != null && atual.valida(System.nanoTime(), validade)) {
+            return atual.agenda();
+        }
+
+        var marca = new Entrada(null, System.nanoTime());
+        var marcada = atual == null ? dias.putIfAbsent(chave, marca) == null : atual.agenda() != null && dias.replace(chave, atual, marca);
+        try {
+            var agenda = carregar(chave);
+            if (marcada && !possuiAlteracoesPendentes()) {
+                dias.replace(chave, marca, new Entrada(agenda, System.nanoTime()));
+            }
+            return agenda;
+        } finally {
+            if (marcada) {
+                dias.remove(chave, marca);
+            }
+        }
+    }
+
+    private AgendaDoDia carregar(Chave chave) {
+        var inicio = chave.dia().atStartOfDay();
+        var intervalos = consultaRepository.findOcupacaoDoMedico(chave.idMedico(), inicio, inicio.plusDays(1));
+        return new AgendaDoDia(intervalos.stream().map(i -> new Intervalo(i.getId(), i.getData(), i.getDataFim())).toList());
+    }
+
+    private boolean possuiAlteracoesPendentes() {
+        var pendencias = pendencias(false);
+        return pendencias != null && (!pendencias.ocupados.isEmpty() || !pendencias.liberados.isEmpty());
+    }
+
+    private Pendencias pendencias(boolean criar) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        var pendencias = (Pendencias) TransactionSynchronizationManager.getResource(this);
+        if (pendencias == null && criar) {
+            var novas = new Pendencias();
+            TransactionSynchronizationManager.bindResource(this, novas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OcupacaoMedicos.this);
+                }
+            });
+            return novas;
+        }
+        return pendencias;
+    }
+}
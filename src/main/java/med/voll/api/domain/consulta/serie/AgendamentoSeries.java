@@ -0,0 +1,148 @@
+package med.voll.api.domain.consulta.serie;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
+import med.voll.api.domain.consulta.*;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.consulta.validacoes.CustoValidacao;
+import med.voll.api.domain.consulta.validacoes.OrdenadorValidadores;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Agenda todas as ocorrências de uma série numa única transação.
+// Cadastros são conferidos uma vez; a ocupação do médico e os dias já ocupados do paciente vêm de duas consultas
+// por faixa que cobrem a série inteira, e cada ocorrência é conferida contra elas em memória.
+@Service
+public class AgendamentoSeries {
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+    @Autowired
+    private MedicoRepository medicoRepository;
+    @Autowired
+    private PacienteRepository pacienteRepository;
+    @Autowired
+    private RegistroCadastrosAtivos cadastrosAtivos;
+    @Autowired
+    private OrdenadorValidadores validadores;
+    @Autowired
+    private JornadasMedicos jornadas;
+    @Autowired
+    private DuracaoConsultas duracoes;
+    @Autowired
+    private AgendaDeConsultas agenda;
+
+    @Value("${api.agendamento.serie.maximo-ocorrencias:52}")
+    private int maximoOcorrencias;
+
+    public DadosResultadoSerie agendar(DadosAgendamentoSerie dados) {
+        var datas = expandir(dados);
+        exigirAtivos(dados.idMedico(), dados.idPaciente());
+
+        var duracao = dados.duracao() != null ? Duration.ofMinutes(dados.duracao()) : duracoes.duracaoPadrao(dados.idMedico());
+        var inicio = datas.getFirst();
+        var fim = datas.getLast().plus(duracao);
+        var ocupacaoMedico = consultaRepository.findOcupacaoDoMedico(dados.idMedico(), inicio, fim);
+        var diasOcupadosPaciente = consultaRepository.findDatasDoPaciente(dados.idPaciente(), inicio.toLocalDate().atStartOfDay(), fim.toLocalDate().plusDays(1).atStartOfDay())
+                .stream().map(LocalDateTime::toLocalDate).collect(Collectors.toCollection(HashSet::new));
+
+        var livres = new ArrayList<LocalDateTime>();
+        var recusadas = new ArrayList<DadosOcorrenciaRecusada>();
+        for (var data : datas) {
+            var conflito = conflito(dados, data, data.plus(duracao), ocupacaoMedico, diasOcupadosPaciente);
+            if (conflito == null) {
+                livres.add(data);
+            } else {
+                recusadas.add(new DadosOcorrenciaRecusada(data, conflito.getCodigo(), conflito.getMessage()));
+            }
+        }
+
+        if (!recusadas.isEmpty() && dados.modo() != ModoAgendamentoSerie.MELHOR_ESFORCO) {
+            throw new ValidacaoException(CodigoErroValidacao.SERIE_COM_CONFLITOS, descrever(recusadas, datas.size()));
+        }
+
+        var medico = medicoRepository.getReferenceById(dados.idMedico());
+        var paciente = pacienteRepository.getReferenceById(dados.idPaciente());
+        var consultas = livres.stream().map(data -> new Consulta(null, medico, paciente, data, data.plus(duracao))).toList();
+        agenda.registrarAgendamentos(consultas);
+
+        return new DadosResultadoSerie(datas.size(), consultas.stream().map(DadosDetalhamentoConsulta::new).toList(), recusadas);
+    }
+
+    // As mesmas regras do agendamento avulso: as puras rodam como sempre; jornada, médico ocupado e paciente
+    // com consulta no dia são conferidos contra o que já foi carregado para a série.
+    private ValidacaoException conflito(DadosAgendamentoSerie dados, LocalDateTime data, LocalDateTime fim,
+                                        List<ConsultaRepository.IntervaloOcupado> ocupacaoMedico, HashSet<LocalDate> diasOcupadosPaciente) {
+        try {
+            validadores.validar(new DadosAgendamentoConsulta(dados.idMedico(), dados.idPaciente(), data, null, dados.duracao()), CustoValidacao.PURO);
+        } catch (ValidacaoException e) {
+            return e;
+        }
+        if (!jornadas.atende(dados.idMedico(), data, fim)) {
+            return new ValidacaoException(CodigoErroValidacao.FORA_DA_JORNADA_DO_MEDICO);
+        }
+        if (ocupacaoMedico.stream().anyMatch(ocupado -> ocupado.getData().isBefore(fim) && ocupado.getDataFim().isAfter(data))) {
+            return new ValidacaoException(CodigoErroValidacao.MEDICO_OCUPADO_NO_HORARIO);
+        }
+        if (diasOcupadosPaciente.contains(data.toLocalDate())) {
+            return new ValidacaoException(CodigoErroValidacao.PACIENTE_COM_CONSULTA_NO_DIA);
+        }
+        return null;
+    }
+
+    List<LocalDateTime> expandir(DadosAgendamentoSerie dados) {
+        if (dados.quantidade() == null && dados.ate() == null) {
+            throw new ValidacaoException(CodigoErroValidacao.SERIE_SEM_OCORRENCIAS);
+        }
+        var limite = dados.quantidade() != null ? dados.quantidade() : Integer.MAX_VALUE;
+        var datas = new ArrayList<LocalDateTime>();
+        for (var i = 0; i < limite; i++) {
+            var data = dados.inicio().plus((long) i * dados.intervalo(), dados.unidade().getUnidade());
+            if (dados.ate() != null && data.toLocalDate().isAfter(dados.ate())) {
+                break;
+            }
+            if (datas.size() == maximoOcorrencias) {
+                throw new ValidacaoException(CodigoErroValidacao.SERIE_LONGA, "Uma série pode ter no máximo " + maximoOcorrencias + " ocorrências!");
+            }
+            datas.add(data);
+        }
+        if (datas.isEmpty()) {
+            throw new ValidacaoException(CodigoErroValidacao.SERIE_SEM_OCORRENCIAS);
+        }
+        return datas;
+    }
+
+    private void exigirAtivos(Long idMedico, Long idPaciente) {
+        var pacienteAtivo = cadastrosAtivos.pacienteAtivo(idPaciente);
+        if (pacienteAtivo == null) {
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_INEXISTENTE);
+        }
+        if (!pacienteAtivo) {
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_INATIVO);
+        }
+        var medicoAtivo = cadastrosAtivos.medicoAtivo(idMedico);
+        if (medicoAtivo == null) {
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_INEXISTENTE);
+        }
+        if (!medicoAtivo) {
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_INATIVO);
+        }
+    }
+
+    private static String descrever(List<DadosOcorrenciaRecusada> recusadas, int total) {
+        return recusadas.size() + " de " + total + " ocorrências não podem ser agendadas: "
+                + recusadas.stream().map(r -> r.data() + " (" + r.codigo() + ")").collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,43 @@
+package med.voll.api.domain.consulta.serie;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Uma ocorrência a cada "intervalo" dias ou semanas, a partir de "inicio", sempre com o mesmo médico.
+// Termina na quantidade informada ou na data "ate", o que vier antes; ao menos um dos dois é obrigatório.
+public record DadosAgendamentoSerie(
+        @NotNull
+        Long idMedico,
+
+        @NotNull
+        Long idPaciente,
+
+        @NotNull
+        @Future
+        LocalDateTime inicio,
+
+        // Em minutos; quando ausente, vale a duração padrão da especialidade do médico.
+        @Positive
+        @Max(240)
+        Integer duracao,
+
+        @NotNull
+        @Positive
+        Integer intervalo,
+
+        @NotNull
+        UnidadeRecorrencia unidade,
+
+        @Positive
+        Integer quantidade,
+
+        LocalDate ate,
+
+        // Padrão: TUDO_OU_NADA.
+        ModoAgendamentoSerie modo) {
+}
@@ -0,0 +1,8 @@
+package med.voll.api.domain.consulta.serie;
+
+import med.voll.api.domain.CodigoErroValidacao;
+
+import java.time.LocalDateTime;
+
+public record DadosOcorrenciaRecusada(LocalDateTime data, CodigoErroValidacao codigo, String mensagem) {
+}
@@ -0,0 +1,8 @@
+package med.voll.api.domain.consulta.serie;
+
+import med.voll.api.domain.consulta.DadosDetalhamentoConsulta;
+
+import java.util.List;
+
+public record DadosResultadoSerie(int ocorrencias, List<DadosDetalhamentoConsulta> agendadas, List<DadosOcorrenciaRecusada> recusadas) {
+}
@@ -0,0 +1,10 @@
+package med.voll.api.domain.consulta.serie;
+
+public enum ModoAgendamentoSerie {
+
+    // Qualquer ocorrência com conflito recusa a série inteira.
+    TUDO_OU_NADA,
+
+    // Agenda as ocorrências livres e informa as recusadas.
+    MELHOR_ESFORCO
+}
@@ -0,0 +1,19 @@
+package med.voll.api.domain.consulta.serie;
+
+import java.time.temporal.ChronoUnit;
+
+public enum UnidadeRecorrencia {
+
+    DIAS(ChronoUnit.DAYS),
+    SEMANAS(ChronoUnit.WEEKS);
+
+    private final ChronoUnit unidade;
+
+    UnidadeRecorrencia(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    public ChronoUnit getUnidade() {
+        return unidade;
+    }
+}
@@ -0,0 +1,8 @@
+package med.voll.api.domain.consulta.validacoes;
+
+// Classe de custo de um validador: PURO só olha os dados da requisição, BANCO faz consultas.
+// Validadores puros sempre rodam primeiro; os de banco são ordenados pelo que se observa em produção.
+public enum CustoValidacao {
+    PURO,
+    BANCO
+}
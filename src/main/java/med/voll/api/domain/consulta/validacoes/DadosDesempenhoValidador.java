@@ -0,0 +1,11 @@
+package med.voll.api.domain.consulta.validacoes;
+
+public record DadosDesempenhoValidador(
+        int posicao,
+        String validador,
+        CustoValidacao custo,
+        long execucoes,
+        long rejeicoes,
+        double taxaRejeicao,
+        double custoMedioMicros) {
+}
@@ -0,0 +1,7 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DadosOrdemValidadores(LocalDateTime calculadaEm, List<DadosDesempenhoValidador> validadores) {
+}
@@ -0,0 +1,124 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Executa os validadores de agendamento na ordem que tende a recusar uma requisição inválida com o menor custo.
+// Os puros vêm antes; entre os de banco, vai na frente quem mais recusa por nanossegundo gasto.
+// Cada execução só incrementa contadores; a ordem é recalculada periodicamente e trocada de uma vez.
+@Slf4j
+@Component
+public class OrdenadorValidadores {
+
+    // Peso da janela mais recente nas médias, para que a ordem acompanhe mudanças no tráfego.
+    private static final double PESO_JANELA = 0.5;
+
+    @Autowired
+    private List<ValidadorAgendamentoDeConsulta> validadores;
+
+    private volatile Ordem ordem;
+
+    record Ordem(LocalDateTime calculadaEm, List<Estatistica> puros, List<Estatistica> banco) {
+    }
+
+    static class Estatistica {
+
+        final ValidadorAgendamentoDeConsulta validador;
+        final LongAdder execucoes = new LongAdder();
+        final LongAdder rejeicoes = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        volatile long totalExecucoes;
+        volatile long totalRejeicoes;
+        // Começa com a suposição neutra de que metade das requisições é recusada a 1 ms cada.
+        volatile double taxaRejeicao = 0.5;
+        volatile double custoMedioNanos = 1_000_000;
+
+        Estatistica(ValidadorAgendamentoDeConsulta validador) {
+            this.validador = validador;
+        }
+
+        double rejeicoesPorNanossegundo() {
+            return taxaRejeicao / Math.max(custoMedioNanos, 1);
+        }
+
+        void fecharJanela() {
+            var execucoesJanela = execucoes.sumThenReset();
+            var rejeicoesJanela = rejeicoes.sumThenReset();
+            var nanosJanela = nanos.sumThenReset();
+            if (execucoesJanela == 0) {
+                return;
+            }
+            totalExecucoes += execucoesJanela;
+            totalRejeicoes += rejeicoesJanela;
+            taxaRejeicao = PESO_JANELA * rejeicoesJanela / execucoesJanela + (1 - PESO_JANELA) * taxaRejeicao;
+            custoMedioNanos = PESO_JANELA * nanosJanela / execucoesJanela + (1 - PESO_JANELA) * custoMedioNanos;
+        }
+
+        DadosDesempenhoValidador dados(int posicao) {
+            return new DadosDesempenhoValidador(posicao, validador.getClass().getSimpleName(), validador.custo(),
+                    totalExecucoes, totalRejeicoes, taxaRejeicao, custoMedioNanos / 1_000);
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        var estatisticas = validadores.stream().map(Estatistica::new).toList();
+        ordem = new Ordem(LocalDateTime.now(),
+                estatisticas.stream().filter(e -> e.validador.custo() == CustoValidacao.PURO).toList(),
+                estatisticas.stream().filter(e -> e.validador.custo() != CustoValidacao.PURO).toList());
+    }
+
+    public void validar(DadosAgendamentoConsulta dados, CustoValidacao custo) {
+        var atual = ordem;
+        for (var estatistica : custo == CustoValidacao.PURO ? atual.puros() : atual.banco()) {
+            var inicio = System.nanoTime();
+            try {
+                estatistica.validador.validar(dados);
+            } catch (ValidacaoException e) {
+                estatistica.rejeicoes.increment();
+                throw e;
+            } finally {
+                estatistica.execucoes.increment();
+                estatistica.nanos.add(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.validacao.intervalo-reordenacao:30s}")
+    public synchronized void reordenar() {
+        var atual = ordem;
+        atual.puros().forEach(Estatistica::fecharJanela);
+        atual.banco().forEach(Estatistica::fecharJanela);
+
+        var maisEficienteAntes = Comparator.comparingDouble((Estatistica e) -> e.rejeicoesPorNanossegundo()).reversed();
+        var nova = new Ordem(LocalDateTime.now(),
+                atual.puros().stream().sorted(maisEficienteAntes).toList(),
+                atual.banco().stream().sorted(maisEficienteAntes).toList());
+        if (!nova.banco().equals(atual.banco())) {
+            log.info("Nova ordem dos validadores de banco: {}", nova.banco().stream().map(e -> e.validador.getClass().getSimpleName()).toList());
+        }
+        ordem = nova;
+    }
+
+    public DadosOrdemValidadores descrever() {
+        var atual = ordem;
+        var todos = new ArrayList<Estatistica>(atual.puros());
+        todos.addAll(atual.banco());
+        var posicoes = new ArrayList<DadosDesempenhoValidador>();
+        for (var i = 0; i < todos.size(); i++) {
+            posicoes.add(todos.get(i).dados(i + 1));
+        }
+        return new DadosOrdemValidadores(atual.calculadaEm(), posicoes);
+    }
+}
@@ -6,4 +6,9 @@ public interface ValidadorAgendamentoDeConsulta {
 
     void validar(DadosAgendamentoConsulta dados);
 
-}
\ No newline at end of file
+    // Na dúvida, um validador é tratado como caro; os que não acessam o banco devem sobrescrever.
+    default CustoValidacao custo() {
+        return CustoValidacao.BANCO;
+    }
+
+}
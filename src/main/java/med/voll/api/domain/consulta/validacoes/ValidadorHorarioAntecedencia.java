@@ -1,5 +1,6 @@
 package med.voll.api.domain.consulta.validacoes;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
 import org.springframework.stereotype.Component;
@@ -16,7 +17,12 @@ public class ValidadorHorarioAntecedencia implements ValidadorAgendamentoDeConsu
         var diferencaEmMinutos = Duration.between(agora, dataConsulta).toMinutes();
 
         if (diferencaEmMinutos < 30) {
-            throw new ValidacaoException("As consultas devem ser marcadas com uma antecedência mínima de 30 minutos.");
+            throw new ValidacaoException(CodigoErroValidacao.ANTECEDENCIA_AGENDAMENTO);
         }
     }
+
+    @Override
+    public CustoValidacao custo() {
+        return CustoValidacao.PURO;
+    }
 }
\ No newline at end of file
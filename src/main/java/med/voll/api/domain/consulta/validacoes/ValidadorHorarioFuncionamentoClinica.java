@@ -1,5 +1,6 @@
 package med.voll.api.domain.consulta.validacoes;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
 import org.springframework.stereotype.Component;
@@ -9,15 +10,25 @@ import java.time.DayOfWeek;
 @Component
 public class ValidadorHorarioFuncionamentoClinica implements ValidadorAgendamentoDeConsulta {
 
+    // Consultas começam entre a hora de abertura e a da última consulta (inclusive), de segunda a sábado.
+    public static final int HORA_ABERTURA = 7;
+    public static final int HORA_ULTIMA_CONSULTA = 18;
+    public static final DayOfWeek DIA_FECHADO = DayOfWeek.SUNDAY;
+
     public void validar(DadosAgendamentoConsulta dados) {
         var dataConsulta = dados.data();
 
-        var domingo = dataConsulta.getDayOfWeek().equals(DayOfWeek.SUNDAY);
-        var antesDaAberturaDaClinica = dataConsulta.getHour() < 7;
-        var depoisDoFechamentoDaClinica = dataConsulta.getHour() > 18; // Corrigido para > 18 para mais clareza
+        var domingo = dataConsulta.getDayOfWeek().equals(DIA_FECHADO);
+        var antesDaAberturaDaClinica = dataConsulta.getHour() < HORA_ABERTURA;
+        var depoisDoFechamentoDaClinica = dataConsulta.getHour() > HORA_ULTIMA_CONSULTA;
 
         if (domingo || antesDaAberturaDaClinica || depoisDoFechamentoDaClinica) {
-            throw new ValidacaoException("Consulta fora do horário de funcionamento da clínica");
+            throw new ValidacaoException(CodigoErroValidacao.FORA_DO_HORARIO_DE_FUNCIONAMENTO);
         }
     }
+
+    @Override
+    public CustoValidacao custo() {
+        return CustoValidacao.PURO;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import med.voll.api.domain.consulta.DuracaoConsultas;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// A consulta inteira precisa caber na jornada do médico, já descontadas férias, licenças e feriados.
+@Component
+public class ValidadorJornadaMedico implements ValidadorAgendamentoDeConsulta {
+
+    @Autowired
+    private JornadasMedicos jornadas;
+
+    @Autowired
+    private DuracaoConsultas duracoes;
+
+    public void validar(DadosAgendamentoConsulta dados) {
+        if (dados.idMedico() == null) {
+            return;
+        }
+
+        var fim = dados.data().plus(duracoes.duracao(dados));
+        if (!jornadas.atende(dados.idMedico(), dados.data(), fim)) {
+            throw new ValidacaoException(CodigoErroValidacao.FORA_DA_JORNADA_DO_MEDICO);
+        }
+    }
+}
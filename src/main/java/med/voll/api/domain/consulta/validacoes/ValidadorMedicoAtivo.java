@@ -1,8 +1,9 @@
 package med.voll.api.domain.consulta.validacoes;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
-import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -10,7 +11,7 @@ import org.springframework.stereotype.Component;
 public class ValidadorMedicoAtivo implements ValidadorAgendamentoDeConsulta {
 
     @Autowired
-    private MedicoRepository medicoRepository;
+    private RegistroCadastrosAtivos cadastrosAtivos;
 
     public void validar(DadosAgendamentoConsulta dados) {
         // Se o médico não foi escolhido (é opcional), não aplica esta validação
@@ -18,9 +19,9 @@ public class ValidadorMedicoAtivo implements ValidadorAgendamentoDeConsulta {
             return;
         }
 
-        var medicoEstaAtivo = medicoRepository.findAtivoById(dados.idMedico());
+        var medicoEstaAtivo = cadastrosAtivos.medicoAtivo(dados.idMedico());
         if (!medicoEstaAtivo) {
-            throw new ValidacaoException("A consulta não pode ser agendada com um médico inativo.");
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_INATIVO);
         }
     }
 }
\ No newline at end of file
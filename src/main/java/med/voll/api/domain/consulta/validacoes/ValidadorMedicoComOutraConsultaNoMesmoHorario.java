@@ -1,8 +1,10 @@
 package med.voll.api.domain.consulta.validacoes;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
-import med.voll.api.domain.consulta.ConsultaRepository;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import med.voll.api.domain.consulta.DuracaoConsultas;
+import med.voll.api.domain.consulta.ocupacao.OcupacaoMedicos;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -10,16 +12,21 @@ import org.springframework.stereotype.Component;
 public class ValidadorMedicoComOutraConsultaNoMesmoHorario implements ValidadorAgendamentoDeConsulta {
 
     @Autowired
-    private ConsultaRepository consultaRepository;
+    private OcupacaoMedicos ocupacao;
+
+    @Autowired
+    private DuracaoConsultas duracoes;
 
     public void validar(DadosAgendamentoConsulta dados) {
         if (dados.idMedico() == null) {
             return;
         }
 
-        var medicoPossuiOutraConsultaNoMesmoHorario = consultaRepository.existsByMedicoIdAndData(dados.idMedico(), dados.data());
+        // Conflita qualquer consulta que se sobreponha ao período, não só as que começam no mesmo instante.
+        var fim = dados.data().plus(duracoes.duracao(dados));
+        var medicoPossuiOutraConsultaNoMesmoHorario = ocupacao.ocupado(dados.idMedico(), dados.data(), fim);
         if (medicoPossuiOutraConsultaNoMesmoHorario) {
-            throw new ValidacaoException("Médico já possui outra consulta agendada nesse mesmo horário");
+            throw new ValidacaoException(CodigoErroValidacao.MEDICO_OCUPADO_NO_HORARIO);
         }
     }
-}
\ No newline at end of file
+}
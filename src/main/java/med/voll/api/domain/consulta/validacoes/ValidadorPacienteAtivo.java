@@ -1,8 +1,9 @@
 package med.voll.api.domain.consulta.validacoes;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
-import med.voll.api.domain.paciente.PacienteRepository;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -10,12 +11,12 @@ import org.springframework.stereotype.Component;
 public class ValidadorPacienteAtivo implements ValidadorAgendamentoDeConsulta {
 
     @Autowired
-    private PacienteRepository pacienteRepository;
+    private RegistroCadastrosAtivos cadastrosAtivos;
 
     public void validar(DadosAgendamentoConsulta dados) {
-        var pacienteEstaAtivo = pacienteRepository.findAtivoById(dados.idPaciente());
+        var pacienteEstaAtivo = cadastrosAtivos.pacienteAtivo(dados.idPaciente());
         if (!pacienteEstaAtivo) {
-            throw new ValidacaoException("A consulta não pode ser agendada com um paciente inativo");
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_INATIVO);
         }
     }
 }
\ No newline at end of file
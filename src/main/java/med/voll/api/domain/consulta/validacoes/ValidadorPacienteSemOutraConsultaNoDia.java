@@ -1,5 +1,6 @@
 package med.voll.api.domain.consulta.validacoes;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.ConsultaRepository;
 import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
@@ -15,12 +16,15 @@ public class ValidadorPacienteSemOutraConsultaNoDia implements ValidadorAgendame
     private ConsultaRepository consultaRepository;
 
     public void validar(DadosAgendamentoConsulta dados) {
-        var primeiroHorario = dados.data().withHour(7);
-        var ultimoHorario = dados.data().withHour(18);
-        var pacientePossuiOutraConsultaNoDia = consultaRepository.existsByPacienteIdAndDataBetween(dados.idPaciente(), primeiroHorario, ultimoHorario);
-
-        if (pacientePossuiOutraConsultaNoDia) {
-            throw new ValidacaoException("Paciente já possui uma consulta agendada para este dia");
+        if (pacientePossuiConsultaNoDia(dados.idPaciente(), dados.data())) {
+            throw new ValidacaoException(CodigoErroValidacao.PACIENTE_COM_CONSULTA_NO_DIA);
         }
     }
+
+    // Também usado pela lista de espera, que atende pedidos com as mesmas regras do agendamento.
+    public boolean pacientePossuiConsultaNoDia(Long idPaciente, LocalDateTime data) {
+        var primeiroHorario = data.withHour(ValidadorHorarioFuncionamentoClinica.HORA_ABERTURA);
+        var ultimoHorario = data.withHour(ValidadorHorarioFuncionamentoClinica.HORA_ULTIMA_CONSULTA);
+        return consultaRepository.existsByPacienteIdAndDataBetweenAndMotivoCancelamentoIsNull(idPaciente, primeiroHorario, ultimoHorario);
+    }
 }
\ No newline at end of file
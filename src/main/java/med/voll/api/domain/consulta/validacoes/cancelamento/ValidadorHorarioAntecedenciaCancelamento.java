@@ -1,5 +1,6 @@
 package med.voll.api.domain.consulta.validacoes.cancelamento;
 
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
 import med.voll.api.domain.consulta.ConsultaRepository;
 import med.voll.api.domain.consulta.DadosCancelamentoConsulta;
@@ -22,7 +23,7 @@ public class ValidadorHorarioAntecedenciaCancelamento implements ValidadorCancel
         var diferencaEmHoras = Duration.between(agora, consulta.getData()).toHours();
 
         if (diferencaEmHoras < 24) {
-            throw new ValidacaoException("A consulta só pode ser cancelada com antecedência mínima de 24 horas!");
+            throw new ValidacaoException(CodigoErroValidacao.ANTECEDENCIA_CANCELAMENTO);
         }
     }
 }
\ No newline at end of file
@@ -1,8 +1,21 @@
 package med.voll.api.domain.medico;
 
+import java.time.Duration;
+
 public enum Especialidade {
-    ORTOPEDIA,
-    CARDIOLOGIA,
-    GINECOLOGIA,
-    DERMATOLOGIA;
+    ORTOPEDIA(30),
+    CARDIOLOGIA(45),
+    GINECOLOGIA(40),
+    DERMATOLOGIA(20);
+
+    // Duração usada quando o agendamento não informa uma.
+    private final Duration duracaoPadrao;
+
+    Especialidade(int minutos) {
+        this.duracaoPadrao = Duration.ofMinutes(minutos);
+    }
+
+    public Duration getDuracaoPadrao() {
+        return duracaoPadrao;
+    }
 }
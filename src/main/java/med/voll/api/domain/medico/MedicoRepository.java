@@ -1,34 +1,76 @@
 package med.voll.api.domain.medico;
 
-import jakarta.validation.constraints.Future;
-import jakarta.validation.constraints.NotNull;
+import jakarta.persistence.QueryHint;
+import med.voll.api.domain.cadastro.IdAtivo;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface MedicoRepository extends JpaRepository<Medico, Long>  {
-    Page<Medico> findAllByAtivoTrue(Pageable paginacao);
 
+    // Leituras de GET /medicos e GET /medicos/{id}: só as colunas de cada DTO, sem entidades gerenciadas
+    // (nem snapshots para dirty checking) e numa transação somente leitura.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade) from Medico m where m.ativo = true",
+            countQuery = "select count(m) from Medico m where m.ativo = true")
+    Page<DadosListagemMedico> findListagemAtivos(Pageable paginacao);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new med.voll.api.domain.medico.DadosDetalhamentoMedico(m.id, m.nome, m.email, m.crm, m.telefone, m.especialidade, m.endereco) from Medico m where m.id = :id")
+    Optional<DadosDetalhamentoMedico> findDetalhamentoById(Long id);
+
+    // Livre no horário = sem consulta ativa que se sobreponha a [inicio, fim); quem escolhe entre os livres é a estratégia.
     @Query("""
-            select m from Medico m
+            select m.id from Medico m
             where
-            ativo = true
+            m.ativo = true
             and
             m.especialidade = :especialidade
             and
             m.id not in(
             select c.medico.id from Consulta c
             where
-            c.data = :data
+            c.data < :fim
+            and
+            c.dataFim > :inicio
+            and
+            c.motivoCancelamento is null
             )
-            order by rand()
-            limit 1  
             """)
-    Medico escolherMedicoAleatorioLivreNaData(Especialidade especialidade, @NotNull @Future LocalDateTime data);
+    List<Long> findIdsLivresNoPeriodo(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim);
+
+    @Query("select m.id from Medico m where m.ativo = true and m.especialidade = :especialidade")
+    List<Long> findIdsAtivosPorEspecialidade(Especialidade especialidade);
+
+    @Query("select m.especialidade from Medico m where m.id = :id")
+    Especialidade findEspecialidadeById(Long id);
+
+    // Leitura em lotes por chave (id), para carregar o registro de cadastros ativos.
+    @Query("select m.id as id, m.ativo as ativo from Medico m where m.id > :ultimoId order by m.id")
+    List<IdAtivo> findIdsAPartirDe(Long ultimoId, Pageable lote);
 
     @Query("select m.ativo from Medico m where m.id = :id")
     Boolean findAtivoById(Long id);
+
+    // Trava a linha do médico até o fim da transação: agendamentos simultâneos para o mesmo médico, em
+    // qualquer instância, passam um de cada vez pela checagem de conflito no banco.
+    @Query(value = "select id from medicos where id = :id for update", nativeQuery = true)
+    Long travarParaAgendamento(Long id);
+
+    // Projeção direto no DTO: lê só as colunas da listagem, sem montar entidades.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new med.voll.api.domain.medico.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade) from Medico m where m.id in :ids")
+    List<DadosListagemMedico> findListagemByIdIn(Collection<Long> ids);
 }
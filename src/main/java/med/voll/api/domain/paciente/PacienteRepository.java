@@ -1,13 +1,43 @@
 package med.voll.api.domain.paciente;
 
+import jakarta.persistence.QueryHint;
+import med.voll.api.domain.cadastro.IdAtivo;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
-    Page<Paciente> findAllByAtivoTrue(Pageable paginacao);
+
+    // Leituras de GET /pacientes e GET /pacientes/{id}, no mesmo formato das de MedicoRepository.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "select new med.voll.api.domain.paciente.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf) from Paciente p where p.ativo = true",
+            countQuery = "select count(p) from Paciente p where p.ativo = true")
+    Page<DadosListagemPaciente> findListagemAtivos(Pageable paginacao);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new med.voll.api.domain.paciente.DadosDetalhamentoPaciente(p.id, p.nome, p.email, p.cpf, p.telefone, p.endereco) from Paciente p where p.id = :id")
+    Optional<DadosDetalhamentoPaciente> findDetalhamentoById(Long id);
+
+    // Leitura em lotes por chave (id), para carregar o registro de cadastros ativos.
+    @Query("select p.id as id, p.ativo as ativo from Paciente p where p.id > :ultimoId order by p.id")
+    List<IdAtivo> findIdsAPartirDe(Long ultimoId, Pageable lote);
 
     @Query("select p.ativo from Paciente p where p.id = :id")
     Boolean findAtivoById(Long id);
+
+    // Projeção direto no DTO: lê só as colunas da listagem, sem montar entidades.
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new med.voll.api.domain.paciente.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf) from Paciente p where p.id in :ids")
+    List<DadosListagemPaciente> findListagemByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+package med.voll.api.infra.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import med.voll.api.infra.invalidacao.CacheInvalidavel;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import med.voll.api.infra.serializacao.MapeadorCbor;
+import med.voll.api.infra.transacao.Transacoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Coalescência das leituras de detalhe (GET /medicos/{id}, GET /pacientes/{id}).
+// Requisições simultâneas para o mesmo id esperam a mesma carga e recebem os mesmos bytes já serializados;
+// depois de pronta, a resposta ainda é reaproveitada por uma janela curta. Atualizações e exclusões
+// invalidam a entrada após o commit; uma carga que já estava em andamento pode, no máximo, servir o
+// valor anterior até o fim da janela. Alterações feitas por outras instâncias chegam pelo LeitorAlteracoes.
+// Cada formato (JSON ou CBOR) tem a sua entrada, e a invalidação descarta os dois. Entradas vencidas que
+// ninguém voltou a pedir são descartadas periodicamente.
+@Component
+public class CacheDetalhes implements CacheInvalidavel {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MapeadorCbor cbor;
+
+    @Autowired
+    private ContentNegotiationManager negociacao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.detalhes.janela-cache:1s}")
+    private Duration janela;
+
+    private final ConcurrentHashMap<Chave, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private static final List<MediaType> FORMATOS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+
+    private record Chave(String recurso, Long id, MediaType formato) {
+    }
+
+    private static class Entrada {
+        final CompletableFuture<byte[]> resposta = new CompletableFuture<>();
+        volatile long expiraEm = Long.MAX_VALUE;
+
+        boolean expirada(long agora) {
+            return resposta.isDone() && agora - expiraEm >= 0;
+        }
+    }
+
+    public byte[] obter(String recurso, Long id, Supplier<?> carregar) {
+        return obter(recurso, id, MediaType.APPLICATION_JSON, carregar);
+    }
+
+    public byte[] obter(String recurso, Long id, MediaType formato, Supplier<?> carregar) {
+        var chave = new Chave(recurso, id, formato);
+        while (true) {
+            var existente = entradas.get(chave);
+            if (existente != null && !existente.expirada(System.nanoTime())) {
+                meterRegistry.counter("detalhes.cargas.economizadas", "recurso", recurso).increment();
+                return aguardar(existente);
+            }
+            if (existente != null) {
+                entradas.remove(chave, existente);
+                continue;
+            }
+
+            var nova = new Entrada();
+            if (entradas.putIfAbsent(chave, nova) == null) {
+                return carregar(chave, nova, carregar);
+            }
+        }
+    }
+
+    public void invalidar(String recurso, Long id) {
+        Transacoes.aposCommit(() -> remover(recurso, id));
+    }
+
+    @Override
+    public void invalidar(RecursoAlterado recurso, Long id) {
+        remover(recurso.getNome(), id);
+    }
+
+    // Formato da resposta pela mesma negociação do Spring MVC: o primeiro tipo aceito, por ordem de preferência,
+    // que seja JSON ou CBOR. Curingas (*/*, application/*) e a ausência de Accept ficam com JSON; sem nenhum
+    // compatível, a resposta é 406.
+    public MediaType formato(NativeWebRequest requisicao) throws HttpMediaTypeNotAcceptableException {
+        for (var aceito : negociacao.resolveMediaTypes(requisicao)) {
+            for (var formato : FORMATOS) {
+                if (aceito.isCompatibleWith(formato)) {
+                    return formato;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(FORMATOS);
+    }
+
+    @Scheduled(fixedDelayString = "${api.detalhes.intervalo-limpeza:1m}")
+    public void descartarVencidos() {
+        var agora = System.nanoTime();
+        entradas.values().removeIf(entrada -> entrada.expirada(agora));
+    }
+
+    private void remover(String recurso, Long id) {
+        for (var formato : FORMATOS) {
+            entradas.remove(new Chave(recurso, id, formato));
+        }
+    }
+
+    private byte[] carregar(Chave chave, Entrada entrada, Supplier<?> carregar) {
+        meterRegistry.counter("detalhes.cargas", "recurso", chave.recurso()).increment();
+        try {
+            var mapper = MediaType.APPLICATION_CBOR.equals(chave.formato()) ? cbor.getMapper() : objectMapper;
+            var bytes = mapper.writeValueAsBytes(carregar.get());
+            entrada.expiraEm = System.nanoTime() + janela.toNanos();
+            entrada.resposta.complete(bytes);
+            return bytes;
+        } catch (JsonProcessingException e) {
+            entradas.remove(chave, entrada);
+            entrada.resposta.completeExceptionally(e);
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            // Erros (como o 404) não ficam em cache: quem esperava recebe o mesmo erro, e a próxima requisição tenta de novo.
+            entradas.remove(chave, entrada);
+            entrada.resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static byte[] aguardar(Entrada entrada) {
+        try {
+            return entrada.resposta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package med.voll.api.infra.concorrencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+
+// Limita quantos agendamentos (POST /consultas) executam ao mesmo tempo, antes de a requisição
+// abrir transação e pegar conexão do pool. O excedente recebe 503 com Retry-After na hora.
+// Leituras, cancelamentos e /login não passam pelo limite, então continuam sendo atendidos
+// quando o banco fica lento e os agendamentos se acumulam.
+// Roda antes da cadeia do Spring Security: a autenticação consulta o usuário no banco, e o excedente é recusado
+// sem chegar lá. Pelo mesmo motivo a recusa é escrita aqui mesmo, e não com sendError, cujo despacho para /error
+// passaria pela autorização sem usuário autenticado.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class FiltroLimiteAgendamento extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.agendamento.limite.inicial:20}")
+    private int limiteInicial;
+
+    @Value("${api.agendamento.limite.minimo:2}")
+    private int limiteMinimo;
+
+    @Value("${api.agendamento.limite.maximo:200}")
+    private int limiteMaximo;
+
+    @Value("${api.agendamento.limite.janela-amostras:500}")
+    private int janelaAmostras;
+
+    @Value("${api.agendamento.limite.retry-after:1}")
+    private int retryAfterEmSegundos;
+
+    private LimitadorConcorrenciaAdaptativo limitador;
+    private Counter rejeitados;
+
+    @PostConstruct
+    void inicializar() {
+        limitador = new LimitadorConcorrenciaAdaptativo(limiteInicial, limiteMinimo, limiteMaximo, janelaAmostras, System::nanoTime);
+        Gauge.builder("agendamento.concorrencia.limite", limitador, LimitadorConcorrenciaAdaptativo::getLimite).register(meterRegistry);
+        Gauge.builder("agendamento.concorrencia.em-andamento", limitador, LimitadorConcorrenciaAdaptativo::getEmAndamento).register(meterRegistry);
+        rejeitados = meterRegistry.counter("agendamento.concorrencia.rejeitados");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equals(request.getMethod()) && "/consultas".equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var permissao = limitador.tentarAdquirir();
+        if (permissao.isEmpty()) {
+            rejeitados.increment();
+            recusar(response);
+            return;
+        }
+
+        var sobrecarga = true;
+        try {
+            filterChain.doFilter(request, response);
+            sobrecarga = response.getStatus() >= 500;
+        } finally {
+            if (sobrecarga) {
+                permissao.get().sinalizarSobrecarga();
+            } else {
+                permissao.get().concluir();
+            }
+        }
+    }
+
+    private void recusar(HttpServletResponse response) throws IOException {
+        var problema = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Muitos agendamentos em andamento, tente novamente em instantes");
+        problema.setType(URI.create("urn:voll-med:sobrecarga:LIMITE_AGENDAMENTOS"));
+        problema.setTitle("Agendamento recusado por sobrecarga");
+        problema.setProperty("codigo", "LIMITE_AGENDAMENTOS");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterEmSegundos));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problema);
+    }
+}
@@ -0,0 +1,108 @@
+package med.voll.api.infra.concorrencia;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Limite de concorrência que se ajusta pela latência observada (estilo "gradient").
+// A referência é a menor latência vista na última janela de amostras (o tempo do agendamento
+// sem fila); quando a latência atual passa da referência (tolerância incluída), o limite cai na
+// proporção do gradiente; quando está saudável e o limite está sendo usado, cresce aos poucos
+// (+ raiz do limite). Sobrecarga explícita (erro/timeout) reduz o limite multiplicativamente.
+public class LimitadorConcorrenciaAdaptativo {
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final double suavizacao;
+    private final int janelaAmostras;
+    private final LongSupplier relogio;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    private volatile double limite;
+    private long latenciaReferencia;
+    private long menorLatenciaNaJanela = Long.MAX_VALUE;
+    private int amostrasNaJanela;
+
+    public LimitadorConcorrenciaAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, int janelaAmostras, LongSupplier relogio) {
+        this.limite = limiteInicial;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = 1.5;
+        this.suavizacao = 0.2;
+        this.janelaAmostras = janelaAmostras;
+        this.relogio = relogio;
+    }
+
+    public Optional<Permissao> tentarAdquirir() {
+        while (true) {
+            var atual = emAndamento.get();
+            if (atual >= (int) limite) {
+                return Optional.empty();
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return Optional.of(new Permissao(relogio.getAsLong(), atual + 1));
+            }
+        }
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+
+    private synchronized void registrarLatencia(long latencia, int emAndamentoNaExecucao) {
+        // A referência é renovada a cada janela, para acompanhar mudanças reais no tempo base do banco.
+        menorLatenciaNaJanela = Math.min(menorLatenciaNaJanela, latencia);
+        if (++amostrasNaJanela >= janelaAmostras || latenciaReferencia == 0) {
+            latenciaReferencia = menorLatenciaNaJanela;
+            menorLatenciaNaJanela = Long.MAX_VALUE;
+            amostrasNaJanela = 0;
+        }
+
+        // Com o limite pouco usado a latência não diz nada sobre a capacidade: não mexe no limite.
+        if (emAndamentoNaExecucao < limite / 2) {
+            return;
+        }
+
+        var gradiente = Math.max(0.5, Math.min(1.0, tolerancia * latenciaReferencia / latencia));
+        var novoLimite = limite * gradiente + Math.sqrt(limite);
+        limite = limitar(limite * (1 - suavizacao) + novoLimite * suavizacao);
+    }
+
+    private synchronized void registrarSobrecarga() {
+        limite = limitar(limite * 0.9);
+    }
+
+    private double limitar(double valor) {
+        return Math.max(limiteMinimo, Math.min(limiteMaximo, valor));
+    }
+
+    public class Permissao {
+
+        private final long inicio;
+        private final int emAndamentoNoInicio;
+
+        private Permissao(long inicio, int emAndamentoNoInicio) {
+            this.inicio = inicio;
+            this.emAndamentoNoInicio = emAndamentoNoInicio;
+        }
+
+        // Execução normal: a latência entra no cálculo do limite.
+        public void concluir() {
+            // Concorrência vista pela execução: a maior entre a do início e a do término.
+            var emAndamentoNaExecucao = Math.max(emAndamentoNoInicio, emAndamento.getAndDecrement());
+            registrarLatencia(Math.max(1, relogio.getAsLong() - inicio), emAndamentoNaExecucao);
+        }
+
+        // Falha por sobrecarga (erro de servidor, timeout de banco): reduz o limite.
+        public void sinalizarSobrecarga() {
+            emAndamento.decrementAndGet();
+            registrarSobrecarga();
+        }
+    }
+}
@@ -1,16 +1,52 @@
 package med.voll.api.infra.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
+import med.voll.api.domain.CodigoErroValidacao;
 import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.consulta.AgendamentoNaoConcluidoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+
 @RestControllerAdvice
 public class TratadorDeErros {
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Cada código tem um único documento de problema possível com a mensagem padrão:
+    // ele é serializado uma vez na subida e devolvido como está em todas as recusas.
+    private final Map<CodigoErroValidacao, byte[]> problemasSerializados = new EnumMap<>(CodigoErroValidacao.class);
+    private final Map<CodigoErroValidacao, Counter> rejeicoes = new EnumMap<>(CodigoErroValidacao.class);
+
+    @PostConstruct
+    void prepararRespostas() throws JsonProcessingException {
+        for (var codigo : CodigoErroValidacao.values()) {
+            problemasSerializados.put(codigo, objectMapper.writeValueAsBytes(problema(codigo, codigo.getMensagem())));
+            rejeicoes.put(codigo, meterRegistry.counter("validacao.rejeicoes", "codigo", codigo.name()));
+        }
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity tratarErro404() {
         return ResponseEntity.notFound().build();
@@ -24,7 +60,38 @@ public class TratadorDeErros {
 
     @ExceptionHandler(ValidacaoException.class)
     public ResponseEntity tratarErroRegraDeNegocio(ValidacaoException ex) {
-        return ResponseEntity.badRequest().body(ex.getMessage());
+        var codigo = ex.getCodigo();
+        rejeicoes.get(codigo).increment();
+        if (ex.isMensagemPadrao()) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_PROBLEM_JSON).body(problemasSerializados.get(codigo));
+        }
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_PROBLEM_JSON).body(problema(codigo, ex.getMessage()));
+    }
+
+    // Nenhum dos formatos pedidos no Accept é produzido pelo endpoint. Vai sem corpo: não há formato aceito
+    // em que escrevê-lo (e o encaminhamento para /error responderia 403, por não ter autenticação).
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity tratarErro406() {
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
+
+    // O agendamento não terminou a tempo: nada indica que o pedido era inválido, então o cliente pode tentar de novo.
+    @ExceptionHandler(AgendamentoNaoConcluidoException.class)
+    public ResponseEntity tratarErro503(AgendamentoNaoConcluidoException ex) {
+        var problema = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        problema.setTitle("Agendamento não concluído");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problema);
+    }
+
+    private static ProblemDetail problema(CodigoErroValidacao codigo, String mensagem) {
+        var problema = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, mensagem);
+        problema.setType(URI.create("urn:voll-med:validacao:" + codigo.name()));
+        problema.setTitle("Regra de negócio violada");
+        problema.setProperty("codigo", codigo.name());
+        return problema;
     }
 
     private record DadosErroValidacao(String campo, String mensagem) {
@@ -33,4 +100,4 @@ public class TratadorDeErros {
         }
     }
 
-}
\ No newline at end of file
+}
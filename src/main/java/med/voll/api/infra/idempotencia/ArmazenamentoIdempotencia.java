@@ -0,0 +1,95 @@
+package med.voll.api.infra.idempotencia;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Guarda as respostas já produzidas para cada chave de idempotência.
+// As mais recentes ficam num mapa em memória de tamanho limitado (LRU); todas são gravadas
+// também na tabela chaves_idempotencia, consultada quando a chave já saiu da memória
+// ou foi atendida por outra instância.
+@Slf4j
+@Component
+public class ArmazenamentoIdempotencia {
+
+    @Autowired
+    private ChaveIdempotenciaRepository repository;
+
+    @Value("${api.idempotencia.capacidade:10000}")
+    private int capacidade;
+
+    @Value("${api.idempotencia.validade:24h}")
+    private Duration validade;
+
+    private Map<String, RespostaArmazenada> concluidas;
+
+    // Execuções em andamento: requisições repetidas aguardam o mesmo resultado em vez de executar de novo.
+    private final Map<String, CompletableFuture<RespostaArmazenada>> emAndamento = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void inicializar() {
+        concluidas = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespostaArmazenada> maisAntiga) {
+                return size() > capacidade;
+            }
+        });
+    }
+
+    public RespostaArmazenada buscar(String chave) {
+        var resposta = concluidas.get(chave);
+        if (resposta == null) {
+            resposta = repository.findById(chave).map(RespostaArmazenada::new).orElse(null);
+            if (resposta != null) {
+                concluidas.put(chave, resposta);
+            }
+        }
+        if (resposta != null && resposta.criadoEm().isBefore(LocalDateTime.now().minus(validade))) {
+            concluidas.remove(chave);
+            return null;
+        }
+        return resposta;
+    }
+
+    // Devolve null quando a chamada atual passa a ser a responsável pela execução;
+    // caso contrário devolve a execução já em andamento, que deve ser aguardada.
+    public CompletableFuture<RespostaArmazenada> reservar(String chave, CompletableFuture<RespostaArmazenada> execucao) {
+        return emAndamento.putIfAbsent(chave, execucao);
+    }
+
+    public void concluir(String chave, CompletableFuture<RespostaArmazenada> execucao, RespostaArmazenada resposta) {
+        // Erros de servidor não são guardados: uma nova tentativa deve executar de novo.
+        if (resposta.status() < 500) {
+            concluidas.put(chave, resposta);
+            try {
+                repository.save(new ChaveIdempotencia(chave, resposta));
+            } catch (DataAccessException e) {
+                log.warn("Não foi possível gravar a chave de idempotência {}", chave, e);
+            }
+        }
+        emAndamento.remove(chave, execucao);
+        execucao.complete(resposta);
+    }
+
+    public void falhar(String chave, CompletableFuture<RespostaArmazenada> execucao, Throwable erro) {
+        emAndamento.remove(chave, execucao);
+        execucao.completeExceptionally(erro);
+    }
+
+    @Scheduled(cron = "${api.idempotencia.limpeza.cron:0 30 3 * * *}")
+    public void excluirExpiradas() {
+        repository.excluirCriadasAntesDe(LocalDateTime.now().minus(validade));
+    }
+}
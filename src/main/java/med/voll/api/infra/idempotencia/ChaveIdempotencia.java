@@ -0,0 +1,37 @@
+package med.voll.api.infra.idempotencia;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Table(name = "chaves_idempotencia")
+@Entity(name = "ChaveIdempotencia")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "chave")
+public class ChaveIdempotencia {
+
+    @Id
+    private String chave;
+    private int status;
+    private String contentType;
+    private String location;
+    private byte[] corpo;
+    private String hashCorpo;
+    private LocalDateTime criadoEm;
+
+    public ChaveIdempotencia(String chave, RespostaArmazenada resposta) {
+        this.chave = chave;
+        this.status = resposta.status();
+        this.contentType = resposta.contentType();
+        this.location = resposta.location();
+        this.corpo = resposta.corpo();
+        this.hashCorpo = resposta.hashCorpo();
+        this.criadoEm = resposta.criadoEm();
+    }
+}
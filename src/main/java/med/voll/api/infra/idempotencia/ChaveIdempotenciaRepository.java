@@ -0,0 +1,16 @@
+package med.voll.api.infra.idempotencia;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from ChaveIdempotencia c where c.criadoEm < :limite")
+    int excluirCriadasAntesDe(LocalDateTime limite);
+}
@@ -0,0 +1,241 @@
+package med.voll.api.infra.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Filtro que torna idempotentes os POSTs de criação quando o cliente envia o cabeçalho Idempotency-Key.
+// Roda fora da transação do controller: a resposta só é guardada depois que ela foi concluída.
+// Roda depois da cadeia do Spring Security, porque a chave é do usuário autenticado; o FiltroLimiteAgendamento
+// roda antes dela, então uma resposta repetida também ocupa (por pouco tempo) uma vaga no limite de concorrência.
+// A chave fica associada ao hash do corpo: reenviar a mesma chave com outro corpo é erro do cliente (422).
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class FiltroIdempotencia extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    private static final int TAMANHO_MAXIMO_CHAVE = 200;
+
+    @Autowired
+    private ArmazenamentoIdempotencia armazenamento;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.idempotencia.caminhos:/consultas,/pacientes,/medicos}")
+    private Set<String> caminhos;
+
+    @Value("${api.idempotencia.espera-maxima:30s}")
+    private Duration esperaMaxima;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(CABECALHO) == null
+                || !caminhos.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var chaveInformada = request.getHeader(CABECALHO);
+        if (chaveInformada.isBlank() || chaveInformada.length() > TAMANHO_MAXIMO_CHAVE) {
+            recusar(response, HttpStatus.BAD_REQUEST, "CHAVE_INVALIDA", "Cabeçalho " + CABECALHO + " inválido");
+            return;
+        }
+
+        // O corpo é lido uma vez aqui e servido da memória para o controller.
+        var requisicao = new CorpoEmMemoria(request);
+        var hashCorpo = hash(requisicao.corpo);
+
+        // A chave vale apenas para o mesmo usuário e o mesmo endpoint.
+        var chave = usuarioAtual() + " POST " + request.getServletPath() + " " + chaveInformada;
+
+        var armazenada = armazenamento.buscar(chave);
+        if (armazenada != null) {
+            reproduzir(armazenada, hashCorpo, response);
+            return;
+        }
+
+        var execucao = new CompletableFuture<RespostaArmazenada>();
+        var emAndamento = armazenamento.reservar(chave, execucao);
+        if (emAndamento != null) {
+            var resposta = aguardar(emAndamento);
+            if (resposta == null) {
+                recusar(response, HttpStatus.CONFLICT, "CHAVE_EM_USO", "A requisição original com a mesma chave ainda está em andamento");
+            } else {
+                reproduzir(resposta, hashCorpo, response);
+            }
+            return;
+        }
+
+        // A execução anterior pode ter terminado entre a busca e a reserva.
+        armazenada = armazenamento.buscar(chave);
+        if (armazenada != null) {
+            armazenamento.concluir(chave, execucao, armazenada);
+            reproduzir(armazenada, hashCorpo, response);
+            return;
+        }
+
+        var respostaEmCache = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(requisicao, respostaEmCache);
+        } catch (ServletException | IOException | RuntimeException e) {
+            armazenamento.falhar(chave, execucao, e);
+            throw e;
+        }
+
+        armazenamento.concluir(chave, execucao, new RespostaArmazenada(
+                respostaEmCache.getStatus(),
+                respostaEmCache.getContentType(),
+                respostaEmCache.getHeader(HttpHeaders.LOCATION),
+                respostaEmCache.getContentAsByteArray(),
+                hashCorpo,
+                LocalDateTime.now()));
+        respostaEmCache.copyBodyToResponse();
+    }
+
+    // Devolve null se a execução original não terminar dentro da espera máxima.
+    private RespostaArmazenada aguardar(CompletableFuture<RespostaArmazenada> emAndamento) throws ServletException {
+        try {
+            return emAndamento.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new ServletException("A requisição original com a mesma chave falhou", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+    }
+
+    private void reproduzir(RespostaArmazenada resposta, String hashCorpo, HttpServletResponse response) throws IOException {
+        if (!resposta.mesmoCorpo(hashCorpo)) {
+            recusar(response, HttpStatus.UNPROCESSABLE_ENTITY, "CHAVE_REUTILIZADA", "A chave " + CABECALHO + " já foi usada com outro corpo");
+            return;
+        }
+        response.setStatus(resposta.status());
+        response.setHeader("Idempotency-Replayed", "true");
+        if (resposta.contentType() != null) {
+            response.setContentType(resposta.contentType());
+        }
+        if (resposta.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, resposta.location());
+        }
+        if (resposta.corpo() != null) {
+            response.setContentLength(resposta.corpo().length);
+            response.getOutputStream().write(resposta.corpo());
+        }
+    }
+
+    // Mesmo formato dos documentos de problema do TratadorDeErros.
+    private void recusar(HttpServletResponse response, HttpStatus status, String codigo, String mensagem) throws IOException {
+        var problema = ProblemDetail.forStatusAndDetail(status, mensagem);
+        problema.setType(URI.create("urn:voll-med:idempotencia:" + codigo));
+        problema.setTitle("Chave de idempotência recusada");
+        problema.setProperty("codigo", codigo);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problema);
+    }
+
+    private static String hash(byte[] corpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String usuarioAtual() {
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao == null ? "anonimo" : autenticacao.getName();
+    }
+
+    private static class CorpoEmMemoria extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoEmMemoria(HttpServletRequest request) throws IOException {
+            super(request);
+            this.corpo = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // O corpo já está todo em memória: está disponível de imediato e termina logo em seguida.
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            var charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package med.voll.api.infra.idempotencia;
+
+import java.time.LocalDateTime;
+
+// hashCorpo é o hash do corpo da requisição que produziu a resposta (null nas chaves gravadas antes dele existir).
+public record RespostaArmazenada(int status, String contentType, String location, byte[] corpo, String hashCorpo, LocalDateTime criadoEm) {
+
+    public RespostaArmazenada(ChaveIdempotencia chave) {
+        this(chave.getStatus(), chave.getContentType(), chave.getLocation(), chave.getCorpo(), chave.getHashCorpo(), chave.getCriadoEm());
+    }
+
+    public boolean mesmoCorpo(String hash) {
+        return hashCorpo == null || hashCorpo.equals(hash);
+    }
+}
@@ -0,0 +1,46 @@
+package med.voll.api.infra.inicializacao;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Adia a criação dos beans que não atendem o tráfego de negócio (springdoc, HelloController)
+// para a primeira vez em que forem usados. Ativado pela propriedade api.inicializacao.tardia.
+@Component
+public class InicializacaoTardia implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final List<String> PREFIXOS_NAO_CRITICOS = List.of(
+            "org.springdoc.",
+            "med.voll.api.controller.HelloController",
+            "med.voll.api.infra.springdoc.");
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (!environment.getProperty("api.inicializacao.tardia", Boolean.class, false)) {
+            return;
+        }
+
+        for (var nome : beanFactory.getBeanDefinitionNames()) {
+            var definicao = beanFactory.getBeanDefinition(nome);
+            var classe = definicao.getBeanClassName();
+            if (classe == null && definicao.getFactoryBeanName() != null) {
+                classe = beanFactory.getBeanDefinition(definicao.getFactoryBeanName()).getBeanClassName();
+            }
+            if (classe != null && PREFIXOS_NAO_CRITICOS.stream().anyMatch(classe::startsWith)) {
+                definicao.setLazyInit(true);
+            }
+        }
+    }
+}
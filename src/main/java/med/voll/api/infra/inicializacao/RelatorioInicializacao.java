@@ -0,0 +1,78 @@
+package med.voll.api.infra.inicializacao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// Ao final da inicialização, registra no log o tempo gasto por fase e os beans mais lentos,
+// a partir das etapas gravadas pelo BufferingApplicationStartup (ver ApiApplication).
+// Os mesmos dados completos ficam disponíveis em /actuator/startup.
+@Slf4j
+@Component
+public class RelatorioInicializacao {
+
+    @Value("${api.inicializacao.relatorio.beans:15}")
+    private int quantidadeBeans;
+
+    @EventListener
+    public void registrar(ApplicationReadyEvent evento) {
+        if (!(evento.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        var etapas = startup.getBufferedTimeline().getEvents();
+
+        // As etapas são aninhadas (um bean cria suas dependências dentro da própria etapa),
+        // então o relatório usa o tempo próprio de cada etapa, descontado o tempo das etapas filhas.
+        var tempoDasFilhas = new HashMap<Long, Duration>();
+        etapas.forEach(e -> {
+            var pai = e.getStartupStep().getParentId();
+            if (pai != null) {
+                tempoDasFilhas.merge(pai, e.getDuration(), Duration::plus);
+            }
+        });
+        Function<StartupTimeline.TimelineEvent, Duration> tempoProprio =
+                e -> e.getDuration().minus(tempoDasFilhas.getOrDefault(e.getStartupStep().getId(), Duration.ZERO));
+
+        var porFase = etapas.stream().collect(Collectors.groupingBy(
+                e -> e.getStartupStep().getName(),
+                Collectors.reducing(Duration.ZERO, tempoProprio, Duration::plus)));
+
+        var relatorio = new StringBuilder("Inicialização concluída em ")
+                .append(evento.getTimeTaken().toMillis()).append(" ms\nTempo próprio por fase:");
+        porFase.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .forEach(fase -> relatorio.append("\n  ").append(fase.getKey()).append(": ").append(fase.getValue().toMillis()).append(" ms"));
+
+        relatorio.append("\nBeans mais lentos (tempo próprio / total com dependências):");
+        etapas.stream()
+                .filter(e -> e.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .sorted(Comparator.comparing(tempoProprio).reversed())
+                .limit(quantidadeBeans)
+                .forEach(e -> relatorio.append("\n  ").append(nomeDoBean(e.getStartupStep())).append(": ")
+                        .append(tempoProprio.apply(e).toMillis()).append(" ms / ").append(e.getDuration().toMillis()).append(" ms"));
+
+        log.info(relatorio.toString());
+    }
+
+    private String nomeDoBean(StartupStep etapa) {
+        return StreamSupport.stream(etapa.getTags().spliterator(), false)
+                .filter(tag -> tag.getKey().equals("beanName"))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
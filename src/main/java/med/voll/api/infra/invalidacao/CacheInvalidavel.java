@@ -0,0 +1,8 @@
+package med.voll.api.infra.invalidacao;
+
+// Cache em memória que precisa descartar o que guarda de um recurso alterado por outra instância.
+// Chamado pelo LeitorAlteracoes, fora de transação; a próxima leitura deve ir ao banco.
+public interface CacheInvalidavel {
+
+    void invalidar(RecursoAlterado recurso, Long id);
+}
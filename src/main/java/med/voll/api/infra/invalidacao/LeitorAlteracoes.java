@@ -0,0 +1,138 @@
+package med.voll.api.infra.invalidacao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lê o log de alterações gravado pelas instâncias do cluster e invalida os caches locais.
+// Cada instância acompanha o log pelo id, a partir do maior id existente quando ela sobe (os caches
+// ainda estão vazios). Ids são reservados na ordem do insert, mas confirmados na ordem do commit: um id
+// pulado pode ser de uma transação ainda aberta, então fica guardado como lacuna e é procurado de novo
+// nos ciclos seguintes, até aparecer ou até a espera vencer (rollback, ou id que o banco não usou).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.invalidacao.habilitada", havingValue = "true", matchIfMissing = true)
+public class LeitorAlteracoes {
+
+    @Autowired
+    private LogAlteracaoRepository repository;
+
+    @Autowired
+    private RegistroAlteracoes registro;
+
+    @Autowired
+    private List<CacheInvalidavel> caches;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.invalidacao.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    @Value("${api.invalidacao.espera-lacunas:10s}")
+    private Duration esperaLacunas = Duration.ofSeconds(10);
+
+    @Value("${api.invalidacao.maximo-lacunas:10000}")
+    private int maximoLacunas = 10000;
+
+    @Value("${api.invalidacao.retencao:1d}")
+    private Duration retencao = Duration.ofDays(1);
+
+    // -1 até a instância subir: alterações anteriores não interessam a caches que ainda estão vazios.
+    private volatile long ultimoId = -1;
+
+    // Id pulado -> quando foi notado (System.nanoTime).
+    private final Map<Long, Long> lacunas = new HashMap<>();
+
+    private Timer atraso;
+    private Counter aplicadas;
+
+    @PostConstruct
+    void registrarMetricas() {
+        atraso = Timer.builder("invalidacao.atraso")
+                .description("Tempo entre a alteração em outra instância e a invalidação do cache local")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        aplicadas = meterRegistry.counter("invalidacao.aplicadas");
+        Gauge.builder("invalidacao.lacunas", lacunas, Map::size)
+                .description("Ids do log ainda não confirmados, aguardando o commit")
+                .register(meterRegistry);
+    }
+
+    // Antes dos carregamentos de cache (ApplicationReadyEvent com a ordem padrão): o que for alterado
+    // durante a carga ainda será lido do log.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void iniciar() {
+        ultimoId = repository.findMaiorId();
+        log.info("Leitor do log de alterações iniciado a partir do id {}", ultimoId);
+    }
+
+    @Scheduled(fixedDelayString = "${api.invalidacao.intervalo:1s}")
+    public void lerAlteracoes() {
+        if (ultimoId < 0) {
+            return;
+        }
+        var agora = System.nanoTime();
+        reverLacunas(agora);
+
+        List<LogAlteracao> lote;
+        do {
+            lote = repository.findByIdGreaterThanOrderByIdAsc(ultimoId, PageRequest.of(0, tamanhoLote));
+            for (var alteracao : lote) {
+                for (var id = ultimoId + 1; id < alteracao.getId() && lacunas.size() < maximoLacunas; id++) {
+                    lacunas.put(id, agora);
+                }
+                ultimoId = alteracao.getId();
+                aplicar(alteracao);
+            }
+        } while (lote.size() == tamanhoLote);
+    }
+
+    @Scheduled(cron = "${api.invalidacao.limpeza.cron:0 30 3 * * *}")
+    public void excluirAntigas() {
+        repository.excluirAntesDe(LocalDateTime.now().minus(retencao));
+    }
+
+    private void reverLacunas(long agora) {
+        if (lacunas.isEmpty()) {
+            return;
+        }
+        for (var alteracao : repository.findByIdIn(lacunas.keySet())) {
+            lacunas.remove(alteracao.getId());
+            aplicar(alteracao);
+        }
+        lacunas.values().removeIf(notadaEm -> agora - notadaEm > esperaLacunas.toNanos());
+    }
+
+    private void aplicar(LogAlteracao alteracao) {
+        if (registro.getOrigem().equals(alteracao.getOrigem())) {
+            return;
+        }
+        for (var cache : caches) {
+            cache.invalidar(alteracao.getRecurso(), alteracao.getIdRecurso());
+        }
+        aplicadas.increment();
+        // Depende dos relógios das instâncias estarem sincronizados, como o outbox.atraso.
+        atraso.record(Duration.between(alteracao.getCriadoEm(), LocalDateTime.now()));
+    }
+}
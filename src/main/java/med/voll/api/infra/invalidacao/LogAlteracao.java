@@ -0,0 +1,38 @@
+package med.voll.api.infra.invalidacao;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Table(name = "log_alteracoes")
+@Entity(name = "LogAlteracao")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class LogAlteracao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private RecursoAlterado recurso;
+
+    @Column(name = "recurso_id")
+    private Long idRecurso;
+
+    // Instância que fez a alteração; ela mesma já invalidou os seus caches depois do commit.
+    private String origem;
+
+    private LocalDateTime criadoEm;
+
+    public LogAlteracao(RecursoAlterado recurso, Long idRecurso, String origem) {
+        this.recurso = recurso;
+        this.idRecurso = idRecurso;
+        this.origem = origem;
+        this.criadoEm = LocalDateTime.now();
+    }
+}
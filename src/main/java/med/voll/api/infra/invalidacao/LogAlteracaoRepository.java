@@ -0,0 +1,26 @@
+package med.voll.api.infra.invalidacao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LogAlteracaoRepository extends JpaRepository<LogAlteracao, Long> {
+
+    List<LogAlteracao> findByIdGreaterThanOrderByIdAsc(Long id, Pageable lote);
+
+    List<LogAlteracao> findByIdIn(Collection<Long> ids);
+
+    @Query("select coalesce(max(l.id), 0) from LogAlteracao l")
+    long findMaiorId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from LogAlteracao l where l.criadoEm < :limite")
+    int excluirAntesDe(LocalDateTime limite);
+}
@@ -0,0 +1,24 @@
+package med.voll.api.infra.invalidacao;
+
+import lombok.Getter;
+
+@Getter
+public enum RecursoAlterado {
+
+    MEDICO("medico"),
+    PACIENTE("paciente"),
+    // Consultas do médico (id do médico): ocupação em memória.
+    AGENDA_MEDICO("agenda-medico"),
+    // Jornada e exceções de agenda do médico; as da clínica inteira são registradas com id 0.
+    JORNADA_MEDICO("jornada-medico"),
+    JORNADA_CLINICA("jornada-clinica"),
+    // Pedido da lista de espera que passou a aguardar vaga.
+    PEDIDO_ESPERA("pedido-espera");
+
+    // Nome usado nas chaves dos caches (ex: CacheDetalhes).
+    private final String nome;
+
+    RecursoAlterado(String nome) {
+        this.nome = nome;
+    }
+}
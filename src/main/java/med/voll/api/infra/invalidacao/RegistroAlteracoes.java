@@ -0,0 +1,25 @@
+package med.voll.api.infra.invalidacao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Anota no log de alterações, na transação corrente (a mesma da escrita), que um recurso mudou.
+// Se a escrita sofrer rollback, a anotação vai junto; as outras instâncias só enxergam alterações confirmadas.
+@Component
+public class RegistroAlteracoes {
+
+    @Autowired
+    private LogAlteracaoRepository repository;
+
+    private final String origem = UUID.randomUUID().toString();
+
+    public void registrar(RecursoAlterado recurso, Long id) {
+        repository.save(new LogAlteracao(recurso, id, origem));
+    }
+
+    public String getOrigem() {
+        return origem;
+    }
+}
@@ -0,0 +1,11 @@
+package med.voll.api.infra.outbox;
+
+import java.util.List;
+
+public interface DestinoEventos {
+
+    // Recebe um lote já ordenado e devolve quantos eventos (a partir do início do lote) foram aceitos.
+    // Devolver menos que o tamanho do lote sinaliza que o destino está saturado (backpressure).
+    int publicar(List<EventoOutbox> eventos);
+
+}
@@ -0,0 +1,19 @@
+package med.voll.api.infra.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.outbox.destino", havingValue = "log", matchIfMissing = true)
+public class DestinoEventosLog implements DestinoEventos {
+
+    @Override
+    public int publicar(List<EventoOutbox> eventos) {
+        eventos.forEach(e -> log.info("Evento {} da consulta {}: {}", e.getTipo(), e.getIdConsulta(), e.getPayload()));
+        return eventos.size();
+    }
+}
@@ -0,0 +1,40 @@
+package med.voll.api.infra.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Destino local, útil em testes: guarda os eventos numa fila limitada e recusa o excesso.
+@Component
+@ConditionalOnProperty(name = "api.outbox.destino", havingValue = "memoria")
+public class DestinoEventosMemoria implements DestinoEventos {
+
+    private final BlockingQueue<EventoOutbox> fila;
+
+    public DestinoEventosMemoria(@Value("${api.outbox.destino.memoria.capacidade:10000}") int capacidade) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+    }
+
+    @Override
+    public int publicar(List<EventoOutbox> eventos) {
+        var aceitos = 0;
+        for (var evento : eventos) {
+            if (!fila.offer(evento)) {
+                break;
+            }
+            aceitos++;
+        }
+        return aceitos;
+    }
+
+    public List<EventoOutbox> consumir() {
+        var eventos = new ArrayList<EventoOutbox>();
+        fila.drainTo(eventos);
+        return eventos;
+    }
+}
@@ -0,0 +1,39 @@
+package med.voll.api.infra.outbox;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import med.voll.api.domain.consulta.TipoEventoConsulta;
+
+import java.time.LocalDateTime;
+
+@Table(name = "outbox_eventos")
+@Entity(name = "EventoOutbox")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private TipoEventoConsulta tipo;
+
+    // Chave de ordenação: eventos de uma mesma consulta são entregues na ordem em que foram gravados.
+    @Column(name = "consulta_id")
+    private Long idConsulta;
+
+    private String payload;
+    private LocalDateTime criadoEm;
+    private LocalDateTime publicadoEm;
+
+    public EventoOutbox(TipoEventoConsulta tipo, Long idConsulta, String payload) {
+        this.tipo = tipo;
+        this.idConsulta = idConsulta;
+        this.payload = payload;
+        this.criadoEm = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package med.voll.api.infra.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    List<EventoOutbox> findByPublicadoEmIsNullOrderByIdAsc(Pageable lote);
+
+    long countByPublicadoEmIsNull();
+
+    @Query("select min(e.criadoEm) from EventoOutbox e where e.publicadoEm is null")
+    LocalDateTime findCriadoEmMaisAntigoPendente();
+
+    @Modifying
+    @Transactional
+    @Query("update EventoOutbox e set e.publicadoEm = :agora where e.id in :ids")
+    int marcarPublicados(List<Long> ids, LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("delete from EventoOutbox e where e.publicadoEm < :limite")
+    int excluirPublicadosAntesDe(LocalDateTime limite);
+}
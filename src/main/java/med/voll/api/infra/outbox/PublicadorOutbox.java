@@ -0,0 +1,132 @@
+package med.voll.api.infra.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drena a tabela de outbox em lotes, fora do caminho da requisição.
+// Um único publicador lê os eventos em ordem de id e só avança depois que o destino os aceita,
+// o que preserva a ordem por consulta. Se o destino recusar ou falhar, o publicador recua
+// (pausa exponencial) em vez de insistir.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "api.outbox.publicador.habilitado", havingValue = "true", matchIfMissing = true)
+public class PublicadorOutbox {
+
+    @Autowired
+    private EventoOutboxRepository repository;
+
+    @Autowired
+    private DestinoEventos destino;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.outbox.publicador.tamanho-lote:100}")
+    private int tamanhoLote = 100;
+
+    @Value("${api.outbox.publicador.lotes-por-ciclo:10}")
+    private int lotesPorCiclo = 10;
+
+    @Value("${api.outbox.publicador.pausa-maxima:30s}")
+    private Duration pausaMaxima = Duration.ofSeconds(30);
+
+    @Value("${api.outbox.retencao:7d}")
+    private Duration retencao = Duration.ofDays(7);
+
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong atrasoEmMilissegundos = new AtomicLong();
+
+    private Counter publicados;
+    private Counter recusados;
+    private Counter falhas;
+
+    private long pausaAtual;
+    private long proximaTentativa;
+
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("outbox.pendentes", pendentes, AtomicLong::get)
+                .description("Eventos gravados e ainda não entregues")
+                .register(meterRegistry);
+        Gauge.builder("outbox.atraso", atrasoEmMilissegundos, AtomicLong::get)
+                .description("Idade do evento pendente mais antigo")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        publicados = meterRegistry.counter("outbox.publicados");
+        recusados = meterRegistry.counter("outbox.recusados");
+        falhas = meterRegistry.counter("outbox.falhas");
+    }
+
+    @Scheduled(fixedDelayString = "${api.outbox.publicador.intervalo:500ms}")
+    public void publicarPendentes() {
+        if (System.currentTimeMillis() < proximaTentativa) {
+            return;
+        }
+
+        for (var i = 0; i < lotesPorCiclo; i++) {
+            var lote = repository.findByPublicadoEmIsNullOrderByIdAsc(PageRequest.of(0, tamanhoLote));
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            int aceitos;
+            try {
+                aceitos = destino.publicar(lote);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao entregar lote de {} eventos do outbox", lote.size(), e);
+                falhas.increment();
+                recuar();
+                break;
+            }
+
+            if (aceitos > 0) {
+                var ids = lote.subList(0, aceitos).stream().map(EventoOutbox::getId).toList();
+                repository.marcarPublicados(ids, LocalDateTime.now());
+                publicados.increment(aceitos);
+            }
+
+            if (aceitos < lote.size()) {
+                // Destino saturado: o restante do lote fica para o próximo ciclo, na mesma ordem.
+                recusados.increment(lote.size() - aceitos);
+                recuar();
+                break;
+            }
+
+            pausaAtual = 0;
+            if (lote.size() < tamanhoLote) {
+                break;
+            }
+        }
+
+        atualizarMetricas();
+    }
+
+    @Scheduled(cron = "${api.outbox.limpeza.cron:0 0 3 * * *}")
+    public void excluirPublicadosAntigos() {
+        repository.excluirPublicadosAntesDe(LocalDateTime.now().minus(retencao));
+    }
+
+    private void recuar() {
+        pausaAtual = pausaAtual == 0 ? 100 : Math.min(pausaAtual * 2, pausaMaxima.toMillis());
+        proximaTentativa = System.currentTimeMillis() + pausaAtual;
+    }
+
+    private void atualizarMetricas() {
+        pendentes.set(repository.countByPublicadoEmIsNull());
+        var maisAntigo = repository.findCriadoEmMaisAntigoPendente();
+        atrasoEmMilissegundos.set(maisAntigo == null ? 0 : Duration.between(maisAntigo, LocalDateTime.now()).toMillis());
+    }
+}
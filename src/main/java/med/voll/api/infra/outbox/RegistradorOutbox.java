@@ -0,0 +1,30 @@
+package med.voll.api.infra.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.consulta.DadosEventoConsulta;
+import med.voll.api.domain.consulta.TipoEventoConsulta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Grava o evento na tabela de outbox usando a transação corrente (a mesma da consulta).
+// Nenhuma entrega acontece aqui: quem envia para fora é o PublicadorOutbox, em segundo plano.
+@Component
+public class RegistradorOutbox {
+
+    @Autowired
+    private EventoOutboxRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void registrar(TipoEventoConsulta tipo, Consulta consulta) {
+        try {
+            var payload = objectMapper.writeValueAsString(new DadosEventoConsulta(consulta));
+            repository.save(new EventoOutbox(tipo, consulta.getId(), payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento da consulta " + consulta.getId(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package med.voll.api.infra.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,6 +41,11 @@ public class SecurityConfigurations {
                     req.requestMatchers(HttpMethod.POST, "/login").permitAll();
                     // Permite acesso à documentação do Swagger sem autenticação.
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll();
+                    // Health check liberado para o balanceador e o autoscaler saberem quando a instância está pronta.
+                    req.requestMatchers(HttpMethod.GET, "/actuator/health").permitAll();
+                    // Os envios do fluxo SSE (/consultas/eventos) acontecem em despachos assíncronos
+                    // de uma requisição que já foi autenticada na abertura da conexão.
+                    req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     // Exige que todas as outras requisições (`anyRequest`) sejam autenticadas.
                     req.anyRequest().authenticated();
                 })
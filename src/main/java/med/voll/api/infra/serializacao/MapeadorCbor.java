@@ -0,0 +1,29 @@
+package med.voll.api.infra.serializacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+// Mapper CBOR montado pelo mesmo builder do JSON, com os mesmos módulos e configurações do Spring Boot.
+// É a única instância usada para CBOR: pelo conversor do Spring MVC e pelas respostas já serializadas do CacheDetalhes.
+// Não é exposto como bean ObjectMapper para não substituir o mapper JSON do Spring Boot.
+@Component
+public class MapeadorCbor {
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder builder;
+
+    private ObjectMapper mapper;
+
+    @PostConstruct
+    void construir() {
+        mapper = builder.factory(new CBORFactory()).build();
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+}
@@ -0,0 +1,38 @@
+package med.voll.api.infra.serializacao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// CBOR (application/cbor) ao lado do JSON em todos os controllers, nas respostas e nos corpos das requisições.
+// O cliente escolhe pelo Accept e pelo Content-Type. O Spring MVC já registra um conversor CBOR, mas com um mapper
+// próprio, sem as configurações do Spring Boot: ele é trocado, na mesma posição, por um que usa o MapeadorCbor,
+// então os dois formatos carregam exatamente os mesmos campos.
+@Configuration
+public class SerializacaoConfigurations implements WebMvcConfigurer {
+
+    @Autowired
+    private MapeadorCbor cbor;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        var conversor = new MappingJackson2CborHttpMessageConverter(cbor.getMapper());
+        var posicao = -1;
+        for (var i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                posicao = i;
+                break;
+            }
+        }
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        if (posicao < 0) {
+            converters.add(conversor);
+        } else {
+            converters.add(posicao, conversor);
+        }
+    }
+}
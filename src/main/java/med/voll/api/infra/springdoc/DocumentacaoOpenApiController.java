@@ -0,0 +1,55 @@
+package med.voll.api.infra.springdoc;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+// Serve o documento OpenAPI gerado no build (perfil Maven "openapi") direto da memória, com ETag,
+// no lugar do gerador do springdoc, que varre os controllers por reflexão na primeira chamada.
+// O gerador em tempo de execução continua disponível no perfil "dev" (springdoc.api-docs.enabled=true).
+@Slf4j
+@RestController
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "false")
+public class DocumentacaoOpenApiController {
+
+    @Value("classpath:openapi/openapi.json")
+    private Resource documento;
+
+    private byte[] conteudo;
+    private String etag;
+
+    @PostConstruct
+    void carregar() throws IOException {
+        if (!documento.exists()) {
+            log.warn("Documento OpenAPI não encontrado no classpath; gere-o com: mvn -Popenapi verify");
+            return;
+        }
+        conteudo = documento.getContentAsByteArray();
+        etag = "\"" + DigestUtils.md5DigestAsHex(conteudo) + "\"";
+    }
+
+    @GetMapping(path = "/v3/api-docs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> documento(@RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch) {
+        if (conteudo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(conteudo);
+    }
+}
@@ -0,0 +1,170 @@
+package med.voll.api.infra.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.medico.Especialidade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Distribui as alterações de horário para os clientes conectados em /consultas/eventos.
+// As conexões ociosas não prendem threads (SseEmitter usa o modo assíncrono do servlet);
+// cada inscrito tem uma fila limitada, esvaziada por uma virtual thread apenas quando há o que enviar.
+// Quem não acompanha o ritmo e enche a fila é desconectado, para não atrasar os demais.
+// Na parada, o que já está nas filas ainda é enviado (até api.sse.espera-encerramento) antes de fechar as conexões.
+@Component
+public class DifusorEventosAgenda {
+
+    private static final Mensagem HEARTBEAT = new Mensagem(null, null);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.sse.capacidade-fila:64}")
+    private int capacidadeFila;
+
+    @Value("${api.sse.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${api.sse.espera-encerramento:2s}")
+    private Duration esperaEncerramento;
+
+    private final Set<Inscricao> inscricoes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Counter descartados;
+
+    @PostConstruct
+    void registrarMetricas() {
+        meterRegistry.gaugeCollectionSize("sse.inscritos", Tags.empty(), inscricoes);
+        descartados = meterRegistry.counter("sse.inscritos.descartados");
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        envios.shutdown();
+        envios.awaitTermination(esperaEncerramento.toMillis(), TimeUnit.MILLISECONDS);
+        envios.shutdownNow();
+        inscricoes.forEach(i -> i.emitter.complete());
+        inscricoes.clear();
+    }
+
+    public SseEmitter inscrever(Long idMedico, Especialidade especialidade) {
+        return inscrever(new SseEmitter(timeout.toMillis()), idMedico, especialidade);
+    }
+
+    SseEmitter inscrever(SseEmitter emitter, Long idMedico, Especialidade especialidade) {
+        var inscricao = new Inscricao(emitter, idMedico, especialidade, new ArrayBlockingQueue<>(capacidadeFila));
+        emitter.onCompletion(() -> inscricoes.remove(inscricao));
+        emitter.onTimeout(() -> inscricoes.remove(inscricao));
+        emitter.onError(erro -> inscricoes.remove(inscricao));
+        inscricoes.add(inscricao);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void publicar(AlteracaoHorario alteracao) {
+        if (inscricoes.isEmpty()) {
+            return;
+        }
+
+        // Serializa uma única vez e reaproveita o mesmo texto para todos os inscritos.
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(alteracao);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        var evento = new Mensagem(alteracao.tipo().name(), json);
+
+        for (var inscricao : inscricoes) {
+            if (inscricao.aceita(alteracao)) {
+                enfileirar(inscricao, evento);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.sse.heartbeat:25s}")
+    public void enviarHeartbeat() {
+        inscricoes.forEach(inscricao -> enfileirar(inscricao, HEARTBEAT));
+    }
+
+    private void enfileirar(Inscricao inscricao, Mensagem evento) {
+        if (!inscricao.fila.offer(evento)) {
+            descartar(inscricao);
+            return;
+        }
+        if (inscricao.enviando.compareAndSet(false, true)) {
+            try {
+                envios.execute(() -> esvaziar(inscricao));
+            } catch (RejectedExecutionException e) {
+                // Encerrando: o evento fica na fila e a conexão é fechada em seguida.
+                inscricao.enviando.set(false);
+            }
+        }
+    }
+
+    private void esvaziar(Inscricao inscricao) {
+        do {
+            Mensagem evento;
+            while ((evento = inscricao.fila.poll()) != null) {
+                try {
+                    inscricao.emitter.send(evento.construir());
+                } catch (IOException | IllegalStateException e) {
+                    inscricoes.remove(inscricao);
+                    inscricao.fila.clear();
+                    return;
+                }
+            }
+            inscricao.enviando.set(false);
+            // Um evento pode ter chegado entre o último poll e a liberação da flag.
+        } while (!inscricao.fila.isEmpty() && inscricao.enviando.compareAndSet(false, true));
+    }
+
+    private void descartar(Inscricao inscricao) {
+        if (inscricoes.remove(inscricao)) {
+            descartados.increment();
+            inscricao.fila.clear();
+            inscricao.emitter.complete();
+        }
+    }
+
+    private record Inscricao(SseEmitter emitter, Long idMedico, Especialidade especialidade,
+                             BlockingQueue<Mensagem> fila, AtomicBoolean enviando) {
+
+        Inscricao(SseEmitter emitter, Long idMedico, Especialidade especialidade, BlockingQueue<Mensagem> fila) {
+            this(emitter, idMedico, especialidade, fila, new AtomicBoolean());
+        }
+
+        boolean aceita(AlteracaoHorario alteracao) {
+            return (idMedico == null || idMedico.equals(alteracao.idMedico()))
+                    && (especialidade == null || especialidade == alteracao.especialidade());
+        }
+    }
+
+    // O SseEventBuilder não pode ser reutilizado entre envios, então a fila guarda só o conteúdo.
+    private record Mensagem(String nome, String dados) {
+
+        SseEmitter.SseEventBuilder construir() {
+            return nome == null ? SseEmitter.event().comment("heartbeat") : SseEmitter.event().name(nome).data(dados);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package med.voll.api.infra.transacao;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class Transacoes {
+
+    private Transacoes() {
+    }
+
+    // Executa a ação somente depois do commit da transação corrente (ou imediatamente, se não houver transação).
+    // Usado para atualizar estruturas em memória sem expor dados que ainda podem sofrer rollback.
+    public static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
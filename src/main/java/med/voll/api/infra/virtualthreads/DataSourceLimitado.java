@@ -0,0 +1,87 @@
+package med.voll.api.infra.virtualthreads;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// DataSource que só deixa pedir conexão ao pool quem conseguiu uma licença de um semáforo justo
+// (FIFO) do tamanho do pool. Com virtual threads não há mais o teto natural de threads do Tomcat:
+// sem essa fila, milhares de threads disputariam o Hikari ao mesmo tempo. A licença é devolvida
+// quando a conexão é fechada (devolvida ao pool).
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    private final Semaphore licencas;
+    private final Duration espera;
+
+    public DataSourceLimitado(DataSource dataSource, int tamanhoDoPool, Duration espera) {
+        super(dataSource);
+        this.licencas = new Semaphore(tamanhoDoPool, true);
+        this.espera = espera;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            licencas.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            licencas.release();
+            throw e;
+        }
+    }
+
+    public int getAguardando() {
+        return licencas.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!licencas.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Tempo esgotado aguardando conexão com o banco (" + espera.toMillis() + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão com o banco", e);
+        }
+    }
+
+    private Connection liberarAoFechar(Connection conexao) {
+        var fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, metodo, args) -> {
+            if (metodo.getName().equals("close") && fechada.compareAndSet(false, true)) {
+                try {
+                    return metodo.invoke(conexao, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    licencas.release();
+                }
+            }
+            try {
+                return metodo.invoke(conexao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package med.voll.api.infra.virtualthreads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Escuta o evento jdk.VirtualThreadPinned do JFR: uma virtual thread que bloqueia dentro de um
+// synchronized (ou código nativo) prende a carrier thread e derruba o ganho do modo virtual.
+// Cada ocorrência vira log com o trecho da pilha e um contador por frame da aplicação.
+@Slf4j
+public class MonitorPinagemVirtualThreads {
+
+    private static final String PACOTE_APLICACAO = "med.voll.";
+    private static final int FRAMES_NO_LOG = 8;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${api.virtual-threads.limiar-pinagem:20ms}")
+    private Duration limiar;
+
+    private RecordingStream gravacao;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        gravacao = new RecordingStream();
+        gravacao.enable("jdk.VirtualThreadPinned").withThreshold(limiar).withStackTrace();
+        gravacao.onEvent("jdk.VirtualThreadPinned", this::registrar);
+        gravacao.startAsync();
+        log.info("Monitor de pinagem de virtual threads ativo (limiar {} ms)", limiar.toMillis());
+    }
+
+    void registrar(RecordedEvent evento) {
+        var pilha = evento.getStackTrace();
+        var frames = pilha == null ? List.<RecordedFrame>of() : pilha.getFrames();
+        var origem = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(PACOTE_APLICACAO))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(MonitorPinagemVirtualThreads::descrever)
+                .orElse("desconhecida");
+
+        meterRegistry.counter("virtual-threads.pinagens", "origem", origem).increment();
+        log.warn("Virtual thread presa à carrier por {} ms em {}:\n\t{}",
+                evento.getDuration().toMillis(),
+                origem,
+                frames.stream().limit(FRAMES_NO_LOG).map(MonitorPinagemVirtualThreads::descrever).collect(Collectors.joining("\n\t")));
+    }
+
+    private static String descrever(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (gravacao != null) {
+            gravacao.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package med.voll.api.infra.virtualthreads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Modo virtual threads, ligado por spring.threads.virtual.enabled=true (perfil "virtual").
+// O próprio Spring Boot passa a atender as requisições do Tomcat e os @Scheduled em virtual threads;
+// aqui entram o limite de acesso ao banco e o monitor de pinagem.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfigurations {
+
+    @Bean
+    public static BeanPostProcessor limitarConexoesDoPool(@Value("${api.virtual-threads.espera-conexao:30s}") Duration espera,
+                                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    var limitado = new DataSourceLimitado(hikari, hikari.getMaximumPoolSize(), espera);
+                    meterRegistry.ifAvailable(registry -> Gauge.builder("jdbc.conexoes.aguardando", limitado, DataSourceLimitado::getAguardando).register(registry));
+                    return limitado;
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "api.virtual-threads.monitorar-pinagem", havingValue = "true", matchIfMissing = true)
+    public MonitorPinagemVirtualThreads monitorPinagemVirtualThreads() {
+        return new MonitorPinagemVirtualThreads();
+    }
+}
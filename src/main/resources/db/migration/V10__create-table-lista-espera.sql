@@ -0,0 +1,19 @@
+create table lista_espera(
+
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    medico_id bigint,
+    especialidade varchar(100),
+    inicio datetime not null,
+    fim datetime not null,
+    status varchar(20) not null,
+    consulta_id bigint,
+    criado_em datetime not null,
+
+    primary key(id),
+    constraint fk_lista_espera_paciente_id foreign key(paciente_id) references pacientes(id),
+    constraint fk_lista_espera_medico_id foreign key(medico_id) references medicos(id)
+
+);
+
+create index idx_lista_espera_status on lista_espera(status, fim);
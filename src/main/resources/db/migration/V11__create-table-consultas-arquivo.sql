@@ -0,0 +1,24 @@
+create table consultas_arquivo(
+
+    id bigint not null,
+    medico_id bigint not null,
+    paciente_id bigint not null,
+    data datetime not null,
+    motivo_cancelamento varchar(100),
+    arquivada_em datetime not null,
+
+    primary key(id)
+
+);
+
+create index idx_consultas_arquivo_medico_data on consultas_arquivo(medico_id, data);
+create index idx_consultas_arquivo_paciente_data on consultas_arquivo(paciente_id, data);
+
+create index idx_consultas_medico_data on consultas(medico_id, data);
+create index idx_consultas_paciente_data on consultas(paciente_id, data);
+create index idx_consultas_data_id on consultas(data, id);
+
+create view consultas_historico as
+    select id, medico_id, paciente_id, data, motivo_cancelamento, false as arquivada from consultas
+    union all
+    select id, medico_id, paciente_id, data, motivo_cancelamento, true as arquivada from consultas_arquivo;
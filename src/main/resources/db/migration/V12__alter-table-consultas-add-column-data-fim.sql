@@ -0,0 +1,20 @@
+alter table consultas add column data_fim datetime;
+alter table consultas_arquivo add column data_fim datetime;
+
+-- Até aqui toda consulta ocupava uma hora.
+update consultas set data_fim = timestampadd(minute, 60, data);
+update consultas_arquivo set data_fim = timestampadd(minute, 60, data);
+
+alter table consultas modify data_fim datetime not null;
+alter table consultas_arquivo modify data_fim datetime not null;
+
+-- A busca de sobreposição filtra por médico e pelos dois extremos do intervalo.
+create index idx_consultas_medico_periodo on consultas(medico_id, data, data_fim);
+drop index idx_consultas_medico_data on consultas;
+
+drop view consultas_historico;
+
+create view consultas_historico as
+    select id, medico_id, paciente_id, data, data_fim, motivo_cancelamento, false as arquivada from consultas
+    union all
+    select id, medico_id, paciente_id, data, data_fim, motivo_cancelamento, true as arquivada from consultas_arquivo;
@@ -0,0 +1,28 @@
+create table horarios_trabalho(
+
+    id bigint not null auto_increment,
+    medico_id bigint not null,
+    dia_semana varchar(10) not null,
+    inicio time not null,
+    fim time not null,
+
+    primary key(id),
+    constraint fk_horarios_trabalho_medico_id foreign key(medico_id) references medicos(id)
+
+);
+
+-- Sem medico_id a exceção vale para a clínica inteira (feriados, por exemplo).
+create table excecoes_agenda(
+
+    id bigint not null auto_increment,
+    medico_id bigint,
+    inicio datetime not null,
+    fim datetime not null,
+    motivo varchar(100),
+
+    primary key(id),
+    constraint fk_excecoes_agenda_medico_id foreign key(medico_id) references medicos(id)
+
+);
+
+create index idx_excecoes_agenda_fim on excecoes_agenda(fim);
@@ -0,0 +1,25 @@
+create table estatisticas_consultas(
+
+    dia date not null,
+    especialidade varchar(100) not null,
+    medico_id bigint not null,
+    agendadas int not null,
+    canceladas_paciente_desistiu int not null,
+    canceladas_medico_cancelou int not null,
+    canceladas_outros int not null,
+
+    primary key(dia, especialidade, medico_id)
+
+);
+
+create index idx_estatisticas_consultas_medico_dia on estatisticas_consultas(medico_id, dia);
+
+-- Carga inicial com todas as consultas, inclusive as arquivadas.
+insert into estatisticas_consultas (dia, especialidade, medico_id, agendadas, canceladas_paciente_desistiu, canceladas_medico_cancelou, canceladas_outros)
+    select cast(c.data as date), m.especialidade, c.medico_id, count(*),
+           sum(case when c.motivo_cancelamento = 'PACIENTE_DESISTIU' then 1 else 0 end),
+           sum(case when c.motivo_cancelamento = 'MEDICO_CANCELOU' then 1 else 0 end),
+           sum(case when c.motivo_cancelamento = 'OUTROS' then 1 else 0 end)
+    from consultas_historico c
+    join medicos m on m.id = c.medico_id
+    group by cast(c.data as date), m.especialidade, c.medico_id;
@@ -0,0 +1,13 @@
+create table log_alteracoes(
+
+    id bigint not null auto_increment,
+    recurso varchar(20) not null,
+    recurso_id bigint not null,
+    origem varchar(36) not null,
+    criado_em datetime(6) not null,
+
+    primary key(id)
+
+);
+
+create index idx_log_alteracoes_criado_em on log_alteracoes(criado_em);
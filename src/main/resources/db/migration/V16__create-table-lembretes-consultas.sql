@@ -0,0 +1,14 @@
+-- Marca de envio dos lembretes: uma linha por consulta, reservada antes do envio e confirmada depois.
+-- Sem chave estrangeira: a consulta pode ser movida para consultas_arquivo.
+create table lembretes_consultas(
+
+    consulta_id bigint not null,
+    token varchar(36) not null,
+    reservado_em datetime(6) not null,
+    enviado_em datetime(6),
+
+    primary key(consulta_id)
+
+);
+
+create index idx_lembretes_consultas_reservado_em on lembretes_consultas(reservado_em);
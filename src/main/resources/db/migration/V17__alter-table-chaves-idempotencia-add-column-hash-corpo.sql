@@ -0,0 +1,2 @@
+-- Hash SHA-256 do corpo da requisição original: a mesma chave com outro corpo é recusada.
+alter table chaves_idempotencia add column hash_corpo varchar(64);
@@ -0,0 +1,14 @@
+create table outbox_eventos(
+
+    id bigint not null auto_increment,
+    tipo varchar(50) not null,
+    consulta_id bigint not null,
+    payload text not null,
+    criado_em datetime not null,
+    publicado_em datetime,
+
+    primary key(id)
+
+);
+
+create index idx_outbox_eventos_pendentes on outbox_eventos(publicado_em, id);
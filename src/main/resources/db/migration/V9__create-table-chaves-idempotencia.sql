@@ -0,0 +1,14 @@
+create table chaves_idempotencia(
+
+    chave varchar(400) not null,
+    status int not null,
+    content_type varchar(100),
+    location varchar(255),
+    corpo mediumblob,
+    criado_em datetime not null,
+
+    primary key(chave)
+
+);
+
+create index idx_chaves_idempotencia_criado_em on chaves_idempotencia(criado_em);
@@ -0,0 +1,41 @@
+package med.voll.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sobe a aplicação inteira contra o banco configurado no perfil test: fica fora do build padrão (ver pom.xml).
+@Slf4j
+@Tag("inicializacao")
+class TempoDeInicializacaoTest {
+
+    // Orçamento de tempo até a primeira requisição atendida; pode ser ajustado com -Dapi.inicializacao.limite=PT20S
+    private static final Duration LIMITE = Duration.parse(System.getProperty("api.inicializacao.limite", "PT30S"));
+
+    @Test
+    @DisplayName("Deveria atender a primeira requisição dentro do orçamento de inicialização")
+    void primeiraRequisicaoCenario1() throws Exception {
+        var inicio = System.nanoTime();
+
+        try (var contexto = ApiApplication.criarAplicacao().run("--server.port=0", "--spring.profiles.active=test,fast-start")) {
+            var porta = contexto.getEnvironment().getProperty("local.server.port");
+            var requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/actuator/health")).build();
+
+            var resposta = HttpClient.newHttpClient().send(requisicao, HttpResponse.BodyHandlers.ofString());
+            var tempo = Duration.ofNanos(System.nanoTime() - inicio);
+
+            log.info("Tempo até a primeira requisição atendida: {} ms (limite {} ms)", tempo.toMillis(), LIMITE.toMillis());
+            assertThat(resposta.statusCode()).isEqualTo(200);
+            assertThat(tempo).isLessThan(LIMITE);
+        }
+    }
+}
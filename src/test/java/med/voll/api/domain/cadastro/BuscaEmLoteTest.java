@@ -0,0 +1,65 @@
+package med.voll.api.domain.cadastro;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaEmLoteTest {
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @InjectMocks
+    private BuscaEmLote buscaEmLote;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(buscaEmLote, "tamanhoMaximo", 3);
+    }
+
+    @Test
+    @DisplayName("Deveria buscar numa única consulta, manter a ordem pedida e informar os inexistentes")
+    void medicosCenario1() {
+        when(medicoRepository.findListagemByIdIn(Set.of(3L, 1L, 9L))).thenReturn(List.of(medico(1L), medico(3L)));
+
+        var lote = buscaEmLote.medicos(List.of(3L, 1L, 3L, 9L));
+
+        assertThat(lote.itens()).extracting(DadosListagemMedico::id).containsExactly(3L, 1L);
+        assertThat(lote.inexistentes()).containsExactly(9L);
+        verify(medicoRepository).findListagemByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Deveria recusar lote maior que o permitido sem consultar o banco")
+    void medicosCenario2() {
+        assertThatThrownBy(() -> buscaEmLote.pacientes(List.of(1L, 2L, 3L, 4L)))
+                .extracting("codigo").isEqualTo(CodigoErroValidacao.LOTE_GRANDE);
+        verifyNoInteractions(pacienteRepository);
+    }
+
+    private static DadosListagemMedico medico(Long id) {
+        return new DadosListagemMedico(id, "Médico " + id, "m" + id + "@voll.med", "12345" + id, Especialidade.CARDIOLOGIA);
+    }
+}
@@ -0,0 +1,41 @@
+package med.voll.api.domain.cadastro;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConjuntoIdsTest {
+
+    @Test
+    @DisplayName("Deveria adicionar e remover ids, inclusive além da capacidade inicial")
+    void adicionarCenario1() {
+        var conjunto = new ConjuntoIds();
+
+        conjunto.adicionar(1);
+        conjunto.adicionar(63);
+        conjunto.adicionar(64);
+        conjunto.adicionar(5_000_000);
+        conjunto.remover(63);
+
+        assertThat(conjunto.contem(1)).isTrue();
+        assertThat(conjunto.contem(63)).isFalse();
+        assertThat(conjunto.contem(64)).isTrue();
+        assertThat(conjunto.contem(5_000_000)).isTrue();
+        assertThat(conjunto.contem(5_000_001)).isFalse();
+        assertThat(conjunto.contem(900_000_000)).isFalse();
+        assertThat(conjunto.quantidade()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deveria ocupar poucos KB para um milhão de ids sequenciais")
+    void bytesCenario1() {
+        var conjunto = new ConjuntoIds();
+        for (long id = 1; id <= 1_000_000; id++) {
+            conjunto.adicionar(id);
+        }
+
+        assertThat(conjunto.quantidade()).isEqualTo(1_000_000);
+        assertThat(conjunto.bytes()).isLessThan(256 * 1024);
+    }
+}
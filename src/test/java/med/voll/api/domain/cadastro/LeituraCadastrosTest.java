@@ -0,0 +1,131 @@
+package med.voll.api.domain.cadastro;
+
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.DadosCadastroPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Confere, no SQL gerado, que as leituras de listagem e detalhe buscam só as colunas dos DTOs.
+// Roda no H2 em modo MySQL, com as mesmas migrations.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:leitura;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATA",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=med.voll.api.domain.cadastro.LeituraCadastrosTest$Inspetor"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LeituraCadastrosTest {
+
+    private static final List<String> COLUNAS_ENDERECO = List.of("logradouro", "bairro", "cep", "cidade", "uf", "numero", "complemento");
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        em.persist(new Medico(new DadosCadastroMedico("Bruno", "bruno@voll.med", "61999999999", "123456", Especialidade.CARDIOLOGIA, endereco())));
+        em.persist(new Medico(new DadosCadastroMedico("Ana", "ana@voll.med", "61999999999", "654321", Especialidade.ORTOPEDIA, endereco())));
+        em.persist(new Paciente(new DadosCadastroPaciente("Carla", "carla@email.com", "61999999999", "000.000.000-00", endereco())));
+        em.flush();
+        em.clear();
+        Inspetor.comandos.clear();
+    }
+
+    @Test
+    @DisplayName("Deveria listar médicos lendo só as colunas da listagem, sem entidades no contexto")
+    void listarMedicosCenario1() {
+        var pagina = medicoRepository.findListagemAtivos(PageRequest.of(0, 10, Sort.by("nome")));
+
+        assertThat(pagina.getContent()).extracting("nome").containsExactly("Ana", "Bruno");
+        assertThat(colunasSelecionadas(consulta())).containsExactlyInAnyOrder("id", "nome", "email", "crm", "especialidade");
+        assertThat(entidadesGerenciadas()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deveria detalhar o médico lendo as colunas do detalhe, incluindo o endereço, sem entidades no contexto")
+    void detalharMedicoCenario1() {
+        var id = medicoRepository.findListagemAtivos(PageRequest.of(0, 1, Sort.by("nome"))).getContent().getFirst().id();
+        Inspetor.comandos.clear();
+
+        var detalhe = medicoRepository.findDetalhamentoById(id).orElseThrow();
+
+        assertThat(detalhe.nome()).isEqualTo("Ana");
+        assertThat(detalhe.endereco().getCidade()).isEqualTo("Brasilia");
+        assertThat(colunasSelecionadas(consulta())).containsAll(COLUNAS_ENDERECO)
+                .contains("id", "nome", "email", "crm", "telefone", "especialidade")
+                .doesNotContain("ativo");
+        assertThat(entidadesGerenciadas()).isZero();
+        assertThat(medicoRepository.findDetalhamentoById(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deveria listar e detalhar pacientes lendo só as colunas de cada DTO")
+    void pacientesCenario1() {
+        var pagina = pacienteRepository.findListagemAtivos(PageRequest.of(0, 10, Sort.by("nome")));
+        assertThat(colunasSelecionadas(consulta())).containsExactlyInAnyOrder("id", "nome", "email", "cpf");
+
+        Inspetor.comandos.clear();
+        var detalhe = pacienteRepository.findDetalhamentoById(pagina.getContent().getFirst().id()).orElseThrow();
+
+        assertThat(detalhe.cpf()).isEqualTo("000.000.000-00");
+        assertThat(colunasSelecionadas(consulta())).containsAll(COLUNAS_ENDERECO)
+                .contains("id", "nome", "email", "cpf", "telefone")
+                .doesNotContain("ativo");
+        assertThat(entidadesGerenciadas()).isZero();
+    }
+
+    // Primeiro select registrado (a contagem da página vem depois).
+    private static String consulta() {
+        return Inspetor.comandos.stream().filter(sql -> !sql.contains("count(")).findFirst().orElseThrow();
+    }
+
+    // "select m1_0.id,m1_0.nome from ..." -> [id, nome]
+    private static List<String> colunasSelecionadas(String sql) {
+        var selecao = sql.substring("select ".length(), sql.indexOf(" from "));
+        return List.of(selecao.split(",")).stream().map(coluna -> coluna.substring(coluna.indexOf('.') + 1).trim()).toList();
+    }
+
+    private int entidadesGerenciadas() {
+        return em.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    private static DadosEndereco endereco() {
+        return new DadosEndereco("rua xpto", "bairro", "00000000", "Brasilia", "DF", null, null);
+    }
+
+    public static class Inspetor implements StatementInspector {
+
+        static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            comandos.add(sql.replaceAll("\\s+", " ").trim().toLowerCase());
+            return sql;
+        }
+    }
+}
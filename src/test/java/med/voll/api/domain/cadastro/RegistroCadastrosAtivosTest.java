@@ -0,0 +1,85 @@
+package med.voll.api.domain.cadastro;
+
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistroCadastrosAtivosTest {
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @InjectMocks
+    private RegistroCadastrosAtivos registro;
+
+    @Test
+    @DisplayName("Deveria carregar em lotes e responder sem consultar o banco")
+    void carregarCenario1() {
+        ReflectionTestUtils.setField(registro, "tamanhoLote", 2);
+        when(medicoRepository.findIdsAPartirDe(eq(0L), any(Pageable.class))).thenReturn(List.of(id(1L, true), id(2L, false)));
+        when(medicoRepository.findIdsAPartirDe(eq(2L), any(Pageable.class))).thenReturn(List.of(id(5L, true)));
+        when(pacienteRepository.findIdsAPartirDe(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        registro.carregar();
+
+        assertThat(registro.medicoAtivo(1L)).isTrue();
+        assertThat(registro.medicoAtivo(2L)).isFalse();
+        assertThat(registro.medicoAtivo(5L)).isTrue();
+        verify(medicoRepository, never()).findAtivoById(any());
+    }
+
+    @Test
+    @DisplayName("Deveria consultar o banco uma única vez para ids desconhecidos que existem")
+    void pacienteAtivoCenario1() {
+        when(pacienteRepository.findAtivoById(7L)).thenReturn(true);
+        when(pacienteRepository.findAtivoById(8L)).thenReturn(null);
+
+        assertThat(registro.pacienteAtivo(7L)).isTrue();
+        assertThat(registro.pacienteAtivo(7L)).isTrue();
+        assertThat(registro.pacienteAtivo(8L)).isNull();
+        assertThat(registro.pacienteAtivo(8L)).isNull();
+
+        verify(pacienteRepository, times(1)).findAtivoById(7L);
+        verify(pacienteRepository, times(2)).findAtivoById(8L);
+    }
+
+    @Test
+    @DisplayName("Deveria refletir a exclusão sem transação ativa imediatamente")
+    void pacienteExcluidoCenario1() {
+        registro.pacienteCadastrado(3L);
+        registro.pacienteExcluido(3L);
+
+        assertThat(registro.pacienteAtivo(3L)).isFalse();
+        verifyNoInteractions(pacienteRepository);
+    }
+
+    private static IdAtivo id(Long id, boolean ativo) {
+        return new IdAtivo() {
+            public Long getId() {
+                return id;
+            }
+
+            public Boolean getAtivo() {
+                return ativo;
+            }
+        };
+    }
+}
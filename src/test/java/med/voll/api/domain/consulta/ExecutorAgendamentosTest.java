@@ -0,0 +1,235 @@
+package med.voll.api.domain.consulta;
+
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class ExecutorAgendamentosTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    private final List<ExecutorAgendamentos> executores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (var executor : executores) {
+            executor.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Deveria gravar o lote num único commit e resolver conflitos a favor de quem chegou primeiro")
+    void agendarEmGrupoCenario1() throws Exception {
+        var banco = new BancoSimulado(Duration.ZERO);
+        var executor = executor(banco, true, Duration.ofMillis(300));
+
+        var pool = Executors.newFixedThreadPool(3);
+        var primeiro = pool.submit(() -> executor.agendar(dados(1L, 10L)));
+        Thread.sleep(30);
+        var segundo = pool.submit(() -> executor.agendar(dados(1L, 11L)));
+        Thread.sleep(30);
+        var terceiro = pool.submit(() -> executor.agendar(dados(2L, 12L)));
+
+        assertThat(primeiro.get(5, TimeUnit.SECONDS).idPaciente()).isEqualTo(10L);
+        assertThat(terceiro.get(5, TimeUnit.SECONDS).idPaciente()).isEqualTo(12L);
+        assertThatThrownBy(() -> segundo.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ValidacaoException.class);
+        assertThat(banco.commits).hasValue(1);
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deveria refazer cada agendamento em sua própria transação quando o commit do lote falhar")
+    void agendarEmGrupoCenario2() throws Exception {
+        var banco = new BancoSimulado(Duration.ZERO);
+        banco.commitsComFalha.set(1);
+        var executor = executor(banco, true, Duration.ofMillis(200));
+
+        var pool = Executors.newFixedThreadPool(2);
+        var primeiro = pool.submit(() -> executor.agendar(dados(1L, 10L)));
+        var segundo = pool.submit(() -> executor.agendar(dados(2L, 11L)));
+
+        assertThat(primeiro.get(5, TimeUnit.SECONDS).idMedico()).isEqualTo(1L);
+        assertThat(segundo.get(5, TimeUnit.SECONDS).idMedico()).isEqualTo(2L);
+        assertThat(banco.commits).hasValue(2);
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deveria esperar o lote já iniciado mesmo depois da espera máxima e desistir só dos pedidos ainda na fila")
+    void agendarEmGrupoCenario4() throws Exception {
+        var liberar = new CountDownLatch(1);
+        var agenda = mock(AgendaDeConsultas.class);
+        when(agenda.agendar(any())).thenAnswer(invocacao -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return new DadosDetalhamentoConsulta(1L, 1L, 10L, DATA);
+        });
+        var executor = executor(agenda, new TransactionTemplate(new BancoSimulado(Duration.ZERO)), true, Duration.ZERO);
+        ReflectionTestUtils.setField(executor, "esperaMaxima", Duration.ofMillis(100));
+
+        var pool = Executors.newFixedThreadPool(2);
+        var noLote = pool.submit(() -> executor.agendar(dados(1L, 10L)));
+        Thread.sleep(30);
+        var naFila = pool.submit(() -> executor.agendar(dados(2L, 11L)));
+
+        // A espera máxima vence enquanto a transação do lote ainda roda.
+        assertThatThrownBy(() -> naFila.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AgendamentoNaoConcluidoException.class);
+        Thread.sleep(200);
+        assertThat(noLote).isNotDone();
+        liberar.countDown();
+
+        assertThat(noLote.get(5, TimeUnit.SECONDS).id()).isEqualTo(1L);
+        Thread.sleep(200);
+        verify(agenda, times(1)).agendar(any());
+        pool.shutdown();
+    }
+
+    // Medição de vazão: fora do build padrão (ver testes.excluidos no pom.xml).
+    @Test
+    @Tag("desempenho")
+    @DisplayName("Deveria aumentar a vazão de agendamentos concorrentes quando cada commit custa um flush serializado")
+    void agendarEmGrupoCenario3() throws Exception {
+        var custoCommit = Duration.ofMillis(2);
+        var direto = medir(executor(new BancoSimulado(custoCommit), false, Duration.ZERO));
+        var emGrupo = medir(executor(new BancoSimulado(custoCommit), true, Duration.ofMillis(2)));
+
+        log.info("Commit direto:   {} agendamentos/s, latência p50 {} ms, p99 {} ms", String.format("%.0f", direto.vazao()), String.format("%.1f", direto.p50()), String.format("%.1f", direto.p99()));
+        log.info("Commit em grupo: {} agendamentos/s, latência p50 {} ms, p99 {} ms", String.format("%.0f", emGrupo.vazao()), String.format("%.1f", emGrupo.p50()), String.format("%.1f", emGrupo.p99()));
+
+        assertThat(emGrupo.vazao()).isGreaterThan(direto.vazao() * 2);
+    }
+
+    private record Medicao(double vazao, double p50, double p99) {
+    }
+
+    private Medicao medir(ExecutorAgendamentos executor) throws Exception {
+        var total = 400;
+        var pool = Executors.newFixedThreadPool(64);
+        var latencias = new ConcurrentLinkedQueue<Long>();
+        var tarefas = new ArrayList<Callable<DadosDetalhamentoConsulta>>();
+        for (long i = 0; i < total; i++) {
+            var dados = dados(i, i);
+            tarefas.add(() -> {
+                var inicio = System.nanoTime();
+                var resultado = executor.agendar(dados);
+                latencias.add(System.nanoTime() - inicio);
+                return resultado;
+            });
+        }
+
+        var inicio = System.nanoTime();
+        for (var futuro : pool.invokeAll(tarefas)) {
+            futuro.get();
+        }
+        var segundos = (System.nanoTime() - inicio) / 1e9;
+        pool.shutdown();
+
+        var ordenadas = latencias.stream().sorted().toList();
+        return new Medicao(total / segundos, percentil(ordenadas, 0.5), percentil(ordenadas, 0.99));
+    }
+
+    private static double percentil(List<Long> ordenadas, double p) {
+        return ordenadas.get((int) Math.ceil(p * ordenadas.size()) - 1) / 1e6;
+    }
+
+    private ExecutorAgendamentos executor(BancoSimulado banco, boolean emGrupo, Duration janela) {
+        var agenda = mock(AgendaDeConsultas.class);
+        when(agenda.agendar(any())).thenAnswer(invocacao -> banco.agendar(invocacao.getArgument(0)));
+        return executor(agenda, new TransactionTemplate(banco), emGrupo, janela);
+    }
+
+    private ExecutorAgendamentos executor(AgendaDeConsultas agenda, TransactionTemplate transactionTemplate, boolean emGrupo, Duration janela) {
+        var executor = new ExecutorAgendamentos();
+        ReflectionTestUtils.setField(executor, "agenda", agenda);
+        ReflectionTestUtils.setField(executor, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(executor, "emGrupo", emGrupo);
+        ReflectionTestUtils.setField(executor, "janela", janela);
+        ReflectionTestUtils.setField(executor, "tamanhoMaximo", 100);
+        ReflectionTestUtils.setField(executor, "esperaMaxima", Duration.ofSeconds(10));
+        executor.iniciar();
+        executores.add(executor);
+        return executor;
+    }
+
+    private static DadosAgendamentoConsulta dados(Long idMedico, Long idPaciente) {
+        return new DadosAgendamentoConsulta(idMedico, idPaciente, DATA, null);
+    }
+
+    // Simula um banco cujo commit custa um flush de log serializado: o que a transação grava só passa a
+    // valer para as outras depois do commit.
+    private static class BancoSimulado implements PlatformTransactionManager {
+
+        private final Duration custoCommit;
+        private final Set<Long> ocupados = ConcurrentHashMap.newKeySet();
+        private final ThreadLocal<Set<Long>> gravacoesDaTransacao = new ThreadLocal<>();
+        private final AtomicLong proximoId = new AtomicLong();
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger commitsComFalha = new AtomicInteger();
+
+        BancoSimulado(Duration custoCommit) {
+            this.custoCommit = custoCommit;
+        }
+
+        DadosDetalhamentoConsulta agendar(DadosAgendamentoConsulta dados) {
+            if (ocupados.contains(dados.idMedico()) || !gravacoesDaTransacao.get().add(dados.idMedico())) {
+                throw new ValidacaoException(CodigoErroValidacao.MEDICO_OCUPADO_NO_HORARIO);
+            }
+            return new DadosDetalhamentoConsulta(proximoId.incrementAndGet(), dados.idMedico(), dados.idPaciente(), dados.data());
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            gravacoesDaTransacao.set(new HashSet<>());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            var gravacoes = gravacoesDaTransacao.get();
+            gravacoesDaTransacao.remove();
+            synchronized (this) {
+                try {
+                    Thread.sleep(custoCommit);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (commitsComFalha.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new TransactionSystemException("Falha simulada no commit");
+            }
+            ocupados.addAll(gravacoes);
+            commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            gravacoesDaTransacao.remove();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package med.voll.api.domain.consulta.calendario;
+
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.TipoAlteracaoHorario;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarioDisponibilidadeTest {
+
+    private static final YearMonth MES = YearMonth.now().plusMonths(2);
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private JornadasMedicos jornadas;
+
+    @InjectMocks
+    private CalendarioDisponibilidade calendario;
+
+    @Test
+    @DisplayName("Deveria somar por dia a capacidade de cada médico menos os minutos ocupados em consultas da duração padrão")
+    void consultarCenario1() {
+        var dias = MES.lengthOfMonth();
+        when(medicoRepository.findIdsAtivosPorEspecialidade(Especialidade.CARDIOLOGIA)).thenReturn(List.of(1L, 2L));
+        when(jornadas.capacidadePorDia(eq(1L), eq(MES.atDay(1)), eq(dias), eq(Duration.ofMinutes(45)))).thenReturn(capacidade(dias, 16));
+        when(jornadas.capacidadePorDia(eq(2L), eq(MES.atDay(1)), eq(dias), eq(Duration.ofMinutes(45)))).thenReturn(capacidade(dias, 2));
+        when(consultaRepository.somarOcupacaoPorMedicoEDia(Especialidade.CARDIOLOGIA, MES.atDay(1).atStartOfDay(), MES.plusMonths(1).atDay(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        ocupacao(1L, MES.atDay(1), 45),
+                        ocupacao(1L, MES.atDay(2), 90),
+                        // Médico 2 com mais consultas do que a jornada comporta: não desconta dos livres do médico 1.
+                        ocupacao(2L, MES.atDay(2), 180),
+                        // Médico inativo: ignorado.
+                        ocupacao(3L, MES.atDay(3), 45)));
+
+        var resultado = calendario.consultar(Especialidade.CARDIOLOGIA, MES);
+
+        assertThat(resultado.medicosAtivos()).isEqualTo(2);
+        assertThat(resultado.dias()).hasSize(dias);
+        assertThat(resultado.dias().subList(0, 3)).containsExactly(
+                new DadosDiaCalendario(MES.atDay(1), 17),
+                new DadosDiaCalendario(MES.atDay(2), 14),
+                new DadosDiaCalendario(MES.atDay(3), 18));
+    }
+
+    @Test
+    @DisplayName("Deveria reaproveitar o mês calculado até um agendamento ou cancelamento naquele mês")
+    void consultarCenario2() {
+        when(medicoRepository.findIdsAtivosPorEspecialidade(any())).thenReturn(List.of(1L));
+        when(jornadas.capacidadePorDia(eq(1L), any(), anyInt(), any())).thenAnswer(invocacao -> capacidade(invocacao.getArgument(2), 10));
+
+        calendario.consultar(Especialidade.CARDIOLOGIA, MES);
+        calendario.consultar(Especialidade.CARDIOLOGIA, MES);
+        calendario.consultar(Especialidade.ORTOPEDIA, MES);
+        verify(consultaRepository, times(2)).somarOcupacaoPorMedicoEDia(any(), any(), any());
+
+        calendario.invalidar(alteracao(Especialidade.CARDIOLOGIA, MES.plusMonths(1).atDay(3)));
+        calendario.invalidar(alteracao(Especialidade.ORTOPEDIA, MES.atDay(3)));
+        calendario.consultar(Especialidade.CARDIOLOGIA, MES);
+        verify(consultaRepository, times(1)).somarOcupacaoPorMedicoEDia(eq(Especialidade.CARDIOLOGIA), any(), any());
+
+        calendario.invalidar(alteracao(Especialidade.CARDIOLOGIA, MES.atDay(10)));
+        calendario.consultar(Especialidade.CARDIOLOGIA, MES);
+        verify(consultaRepository, times(2)).somarOcupacaoPorMedicoEDia(eq(Especialidade.CARDIOLOGIA), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deveria mostrar sem horários livres os dias que já passaram")
+    void consultarCenario3() {
+        var mesPassado = YearMonth.now().minusMonths(1);
+        when(medicoRepository.findIdsAtivosPorEspecialidade(any())).thenReturn(List.of(1L));
+        when(jornadas.capacidadePorDia(eq(1L), any(), anyInt(), any())).thenAnswer(invocacao -> capacidade(invocacao.getArgument(2), 10));
+
+        var resultado = calendario.consultar(Especialidade.DERMATOLOGIA, mesPassado);
+
+        assertThat(resultado.dias()).extracting(DadosDiaCalendario::horariosLivres).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("Deveria compartilhar o cálculo entre consultas simultâneas e descartar o que foi invalidado durante o cálculo")
+    void consultarCenario4() throws Exception {
+        var calculando = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        when(medicoRepository.findIdsAtivosPorEspecialidade(any())).thenReturn(List.of(1L));
+        when(jornadas.capacidadePorDia(eq(1L), any(), anyInt(), any())).thenAnswer(invocacao -> {
+            calculando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return capacidade(invocacao.getArgument(2), 10);
+        });
+
+        var pool = Executors.newFixedThreadPool(2);
+        var primeira = pool.submit(() -> calendario.consultar(Especialidade.CARDIOLOGIA, MES));
+        calculando.await(5, TimeUnit.SECONDS);
+        var segunda = pool.submit(() -> calendario.consultar(Especialidade.CARDIOLOGIA, MES));
+        Thread.sleep(50);
+        // Um agendamento no mês é confirmado enquanto o cálculo ainda roda.
+        calendario.invalidar(alteracao(Especialidade.CARDIOLOGIA, MES.atDay(10)));
+        liberar.countDown();
+
+        assertThat(segunda.get(5, TimeUnit.SECONDS)).isSameAs(primeira.get(5, TimeUnit.SECONDS));
+        verify(consultaRepository, times(1)).somarOcupacaoPorMedicoEDia(any(), any(), any());
+        calendario.consultar(Especialidade.CARDIOLOGIA, MES);
+        verify(consultaRepository, times(2)).somarOcupacaoPorMedicoEDia(any(), any(), any());
+        pool.shutdown();
+    }
+
+    private static int[] capacidade(int dias, int porDia) {
+        var capacidade = new int[dias];
+        Arrays.fill(capacidade, porDia);
+        return capacidade;
+    }
+
+    private static AlteracaoHorario alteracao(Especialidade especialidade, LocalDate dia) {
+        return new AlteracaoHorario(TipoAlteracaoHorario.HORARIO_OCUPADO, 1L, 1L, especialidade, dia.atTime(10, 0), dia.atTime(10, 45));
+    }
+
+    private static ConsultaRepository.OcupacaoDiaria ocupacao(Long idMedico, LocalDate dia, long minutos) {
+        return new ConsultaRepository.OcupacaoDiaria() {
+            public Long getIdMedico() {
+                return idMedico;
+            }
+
+            public LocalDate getDia() {
+                return dia;
+            }
+
+            public Long getMinutos() {
+                return minutos;
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package med.voll.api.domain.consulta.escolha;
+
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.TipoAlteracaoHorario;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EscolhaMedicoMenosOcupadoTest {
+
+    // Uma sexta-feira: os dois dias anteriores caem na mesma semana.
+    private static final LocalDateTime DATA = LocalDateTime.of(2030, 1, 4, 10, 0);
+    private static final LocalDateTime FIM = DATA.plusMinutes(45);
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @Mock
+    private JornadasMedicos jornadas;
+
+    @InjectMocks
+    private EscolhaMedicoMenosOcupado escolha;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jornadas.atende(any(), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Deveria escolher o médico livre com menos consultas no dia")
+    void escolherCenario1() {
+        ocupar(1L, DATA, 2);
+        ocupar(2L, DATA, 1);
+        ocupar(3L, DATA, 3);
+        var medico = mock(Medico.class);
+        when(medicoRepository.findIdsLivresNoPeriodo(Especialidade.CARDIOLOGIA, DATA, FIM)).thenReturn(List.of(1L, 2L, 3L));
+        when(medicoRepository.getReferenceById(2L)).thenReturn(medico);
+
+        assertThat(escolha.escolher(Especialidade.CARDIOLOGIA, DATA, FIM)).isSameAs(medico);
+    }
+
+    @Test
+    @DisplayName("Deveria desempatar pela carga da semana e descontar consultas canceladas")
+    void escolherCenario2() {
+        ocupar(1L, DATA.minusDays(1), 2);
+        ocupar(2L, DATA.minusDays(1), 3);
+        ocupar(2L, DATA.minusDays(2), 1);
+        liberar(2L, DATA.minusDays(2));
+        liberar(2L, DATA.minusDays(1));
+        liberar(2L, DATA.minusDays(1));
+        when(medicoRepository.findIdsLivresNoPeriodo(Especialidade.CARDIOLOGIA, DATA, FIM)).thenReturn(List.of(1L, 2L));
+
+        escolha.escolher(Especialidade.CARDIOLOGIA, DATA, FIM);
+
+        verify(medicoRepository).getReferenceById(2L);
+    }
+
+    @Test
+    @DisplayName("Deveria reconstruir os contadores a partir do banco")
+    void reconstruirCenario1() {
+        when(consultaRepository.contarPorMedicoEDiaDesde(any())).thenReturn(List.of(carga(1L, DATA.toLocalDate(), 5), carga(2L, DATA.toLocalDate(), 1)));
+        when(medicoRepository.findIdsLivresNoPeriodo(Especialidade.ORTOPEDIA, DATA, FIM)).thenReturn(List.of(1L, 2L));
+
+        escolha.reconstruir();
+        escolha.escolher(Especialidade.ORTOPEDIA, DATA, FIM);
+
+        verify(medicoRepository).getReferenceById(2L);
+    }
+
+    @Test
+    @DisplayName("Deveria ignorar o médico que não atende no horário")
+    void escolherCenario4() {
+        ocupar(2L, DATA, 3);
+        var medico = mock(Medico.class);
+        when(medicoRepository.findIdsLivresNoPeriodo(Especialidade.CARDIOLOGIA, DATA, FIM)).thenReturn(List.of(1L, 2L));
+        when(jornadas.atende(1L, DATA, FIM)).thenReturn(false);
+        when(medicoRepository.getReferenceById(2L)).thenReturn(medico);
+
+        assertThat(escolha.escolher(Especialidade.CARDIOLOGIA, DATA, FIM)).isSameAs(medico);
+    }
+
+    @Test
+    @DisplayName("Deveria retornar null quando não houver médico livre")
+    void escolherCenario3() {
+        when(medicoRepository.findIdsLivresNoPeriodo(Especialidade.DERMATOLOGIA, DATA, FIM)).thenReturn(List.of());
+
+        assertThat(escolha.escolher(Especialidade.DERMATOLOGIA, DATA, FIM)).isNull();
+        verify(medicoRepository, never()).getReferenceById(any());
+    }
+
+    private void ocupar(Long idMedico, LocalDateTime data, int vezes) {
+        for (var i = 0; i < vezes; i++) {
+            escolha.atualizar(new AlteracaoHorario(TipoAlteracaoHorario.HORARIO_OCUPADO, null, idMedico, Especialidade.CARDIOLOGIA, data, data.plusMinutes(45)));
+        }
+    }
+
+    private void liberar(Long idMedico, LocalDateTime data) {
+        escolha.atualizar(new AlteracaoHorario(TipoAlteracaoHorario.HORARIO_LIBERADO, null, idMedico, Especialidade.CARDIOLOGIA, data, data.plusMinutes(45)));
+    }
+
+    private static ConsultaRepository.CargaDiaria carga(Long idMedico, LocalDate dia, long total) {
+        return new ConsultaRepository.CargaDiaria() {
+            public Long getIdMedico() {
+                return idMedico;
+            }
+
+            public LocalDate getDia() {
+                return dia;
+            }
+
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
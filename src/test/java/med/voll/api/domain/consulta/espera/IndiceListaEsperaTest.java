@@ -0,0 +1,79 @@
+package med.voll.api.domain.consulta.espera;
+
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceListaEsperaTest {
+
+    private final IndiceListaEspera indice = new IndiceListaEspera();
+    private final LocalDateTime amanhaAs10 = LocalDate.now().plusDays(1).atTime(10, 0);
+
+    @Test
+    @DisplayName("Deveria devolver primeiro o pedido mais antigo entre os feitos para o médico e para a especialidade")
+    void candidatosCenario1() {
+        var medico = medico(7L);
+        indice.adicionar(pedido(3L, medico, null, amanhaAs10.minusHours(2), amanhaAs10.plusHours(2)));
+        indice.adicionar(pedido(1L, null, Especialidade.CARDIOLOGIA, amanhaAs10.minusDays(1), amanhaAs10.plusDays(1)));
+        indice.adicionar(pedido(2L, null, Especialidade.ORTOPEDIA, amanhaAs10.minusHours(1), amanhaAs10.plusHours(1)));
+
+        var candidatos = indice.candidatos(7L, Especialidade.CARDIOLOGIA, amanhaAs10, 10);
+
+        assertThat(candidatos).extracting(IndiceListaEspera.Entrada::id).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Deveria ignorar pedidos cuja janela não contém o horário liberado e pedidos removidos")
+    void candidatosCenario2() {
+        var medico = medico(7L);
+        var atendido = pedido(1L, medico, null, amanhaAs10.minusHours(1), amanhaAs10.plusHours(1));
+        indice.adicionar(atendido);
+        indice.adicionar(pedido(2L, medico, null, amanhaAs10.plusHours(1), amanhaAs10.plusHours(3)));
+        indice.adicionar(pedido(3L, medico, null, amanhaAs10, amanhaAs10.plusHours(1)));
+
+        indice.remover(atendido);
+
+        assertThat(indice.candidatos(7L, Especialidade.CARDIOLOGIA, amanhaAs10, 10))
+                .extracting(IndiceListaEspera.Entrada::id).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Deveria indexar o pedido criado por outra instância e retirar o que deixou de aguardar")
+    void invalidar() {
+        var repository = mock(PedidoEsperaRepository.class);
+        ReflectionTestUtils.setField(indice, "repository", repository);
+        var pedido = pedido(1L, medico(7L), null, amanhaAs10.minusHours(1), amanhaAs10.plusHours(1));
+        when(repository.findById(1L)).thenReturn(Optional.of(pedido));
+
+        indice.invalidar(RecursoAlterado.PEDIDO_ESPERA, 1L);
+        assertThat(indice.candidatos(7L, Especialidade.CARDIOLOGIA, amanhaAs10, 10)).extracting(IndiceListaEspera.Entrada::id).containsExactly(1L);
+
+        pedido.cancelar();
+        indice.invalidar(RecursoAlterado.PEDIDO_ESPERA, 1L);
+        assertThat(indice.candidatos(7L, Especialidade.CARDIOLOGIA, amanhaAs10, 10)).isEmpty();
+    }
+
+    private Medico medico(Long id) {
+        var medico = new Medico();
+        ReflectionTestUtils.setField(medico, "id", id);
+        ReflectionTestUtils.setField(medico, "especialidade", Especialidade.CARDIOLOGIA);
+        return medico;
+    }
+
+    private PedidoEspera pedido(Long id, Medico medico, Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim) {
+        var pedido = new PedidoEspera(null, medico, especialidade, inicio, fim);
+        ReflectionTestUtils.setField(pedido, "id", id);
+        return pedido;
+    }
+}
@@ -0,0 +1,108 @@
+package med.voll.api.domain.consulta.estatistica;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.consulta.DuracaoConsultas;
+import med.voll.api.domain.consulta.MotivoCancelamento;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContadoresConsultasTest {
+
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 4);
+
+    @Mock
+    private EstatisticaConsultasRepository repository;
+
+    @Mock
+    private DuracaoConsultas duracoes;
+
+    @InjectMocks
+    private ContadoresConsultas contadores;
+
+    @Test
+    @DisplayName("Deveria somar o agendamento e o cancelamento na linha do médico no dia da consulta")
+    void somarCenario1() {
+        var medico = mock(Medico.class);
+        when(medico.getId()).thenReturn(7L);
+        when(duracoes.especialidadeDoMedico(7L)).thenReturn(Especialidade.ORTOPEDIA);
+        var consulta = new Consulta(1L, medico, null, DIA.atTime(10, 0), DIA.atTime(10, 30));
+
+        contadores.agendada(consulta);
+        contadores.cancelada(consulta, MotivoCancelamento.MEDICO_CANCELOU);
+
+        verify(repository).somar(DIA, "ORTOPEDIA", 7L, 1, 0, 0, 0);
+        verify(repository).somar(DIA, "ORTOPEDIA", 7L, 0, 0, 1, 0);
+    }
+
+    @Test
+    @DisplayName("Deveria totalizar os dias pedidos e os cancelamentos por motivo")
+    void consultarCenario1() {
+        when(repository.totaisPorDia(DIA, DIA.plusDays(1), null, null)).thenReturn(List.of(
+                totais(DIA, Especialidade.CARDIOLOGIA, 10, 1, 2, 0),
+                totais(DIA.plusDays(1), Especialidade.DERMATOLOGIA, 4, 0, 0, 3)));
+
+        var estatisticas = contadores.consultar(DIA, DIA.plusDays(1), null, null);
+
+        assertThat(estatisticas.agendadas()).isEqualTo(14);
+        assertThat(estatisticas.canceladas()).isEqualTo(6);
+        assertThat(estatisticas.cancelamentosPorMotivo()).containsEntry(MotivoCancelamento.PACIENTE_DESISTIU, 1L)
+                .containsEntry(MotivoCancelamento.MEDICO_CANCELOU, 2L).containsEntry(MotivoCancelamento.OUTROS, 3L);
+        assertThat(estatisticas.dias()).containsExactly(
+                new DadosEstatisticaDia(DIA, Especialidade.CARDIOLOGIA, 10, 3),
+                new DadosEstatisticaDia(DIA.plusDays(1), Especialidade.DERMATOLOGIA, 4, 3));
+    }
+
+    @Test
+    @DisplayName("Deveria recusar período invertido ou maior que um ano")
+    void consultarCenario2() {
+        assertThatThrownBy(() -> contadores.consultar(DIA, DIA.minusDays(1), null, null))
+                .extracting("codigo").isEqualTo(CodigoErroValidacao.PERIODO_ESTATISTICAS_INVALIDO);
+        assertThatThrownBy(() -> contadores.consultar(DIA, DIA.plusDays(366), null, null))
+                .extracting("codigo").isEqualTo(CodigoErroValidacao.PERIODO_ESTATISTICAS_INVALIDO);
+        verifyNoInteractions(repository);
+    }
+
+    private static EstatisticaConsultasRepository.TotaisDia totais(LocalDate dia, Especialidade especialidade, long agendadas,
+                                                                   long pacienteDesistiu, long medicoCancelou, long outros) {
+        return new EstatisticaConsultasRepository.TotaisDia() {
+            public LocalDate getDia() {
+                return dia;
+            }
+
+            public Especialidade getEspecialidade() {
+                return especialidade;
+            }
+
+            public long getAgendadas() {
+                return agendadas;
+            }
+
+            public long getCanceladasPacienteDesistiu() {
+                return pacienteDesistiu;
+            }
+
+            public long getCanceladasMedicoCancelou() {
+                return medicoCancelou;
+            }
+
+            public long getCanceladasOutros() {
+                return outros;
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package med.voll.api.domain.consulta.historico;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ArquivamentoConsultasTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime DATA = LocalDateTime.of(2020, 5, 4, 10, 0);
+
+    private final ConsultaRepository repository = mock(ConsultaRepository.class);
+    private final TransacoesRegistradas transacoes = new TransacoesRegistradas();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ArquivamentoConsultas arquivamento = new ArquivamentoConsultas();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(arquivamento, "consultaRepository", repository);
+        ReflectionTestUtils.setField(arquivamento, "transactionTemplate", new TransactionTemplate(transacoes));
+        ReflectionTestUtils.setField(arquivamento, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(arquivamento, "horizonte", Duration.ofDays(30));
+        ReflectionTestUtils.setField(arquivamento, "tamanhoLote", 3);
+        ReflectionTestUtils.setField(arquivamento, "pausaEntreLotes", Duration.ZERO);
+        ReflectionTestUtils.setField(arquivamento, "lotesPorExecucao", 1000);
+        arquivamento.registrarMetricas();
+    }
+
+    @Test
+    @DisplayName("Deveria percorrer os lotes pela chave (data, id) a partir do último item do lote anterior")
+    void arquivarCenario1() throws Exception {
+        when(repository.findLoteParaArquivar(eq(INICIO), eq(0L), any(), eq(3))).thenReturn(lote(1, 3));
+        when(repository.findLoteParaArquivar(eq(DATA.plusHours(3)), eq(3L), any(), eq(3))).thenReturn(lote(4, 6));
+        when(repository.findLoteParaArquivar(eq(DATA.plusHours(6)), eq(6L), any(), eq(3))).thenReturn(lote(7, 7));
+
+        arquivamento.arquivar();
+
+        verify(repository, times(3)).findLoteParaArquivar(any(), anyLong(), any(), anyInt());
+        verify(repository).copiarParaArquivo(eq(List.of(1L, 2L, 3L)), any());
+        verify(repository).copiarParaArquivo(eq(List.of(4L, 5L, 6L)), any());
+        verify(repository).copiarParaArquivo(eq(List.of(7L)), any());
+        assertThat(transacoes.confirmadas).isEqualTo(3);
+        assertThat(meterRegistry.counter("consultas.arquivadas").count()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Deveria copiar para o arquivo e só depois excluir, na mesma transação de cada lote")
+    void arquivarCenario2() throws Exception {
+        when(repository.findLoteParaArquivar(eq(INICIO), eq(0L), any(), eq(3))).thenReturn(lote(1, 2));
+        when(repository.copiarParaArquivo(any(), any())).thenAnswer(invocacao -> transacoes.registrar("copiar"));
+        when(repository.excluirArquivadas(any())).thenAnswer(invocacao -> transacoes.registrar("excluir"));
+
+        arquivamento.arquivar();
+
+        InOrder ordem = inOrder(repository);
+        ordem.verify(repository).copiarParaArquivo(eq(List.of(1L, 2L)), any());
+        ordem.verify(repository).excluirArquivadas(List.of(1L, 2L));
+        assertThat(transacoes.operacoes).containsExactly(List.of("copiar", "excluir"));
+    }
+
+    @Test
+    @DisplayName("Não deveria excluir as consultas de um lote cuja cópia falhou")
+    void arquivarCenario3() {
+        when(repository.findLoteParaArquivar(eq(INICIO), eq(0L), any(), eq(3))).thenReturn(lote(1, 3));
+        when(repository.copiarParaArquivo(any(), any())).thenThrow(new IllegalStateException("falha na cópia"));
+
+        assertThatThrownBy(arquivamento::arquivar).isInstanceOf(IllegalStateException.class);
+
+        verify(repository, never()).excluirArquivadas(any());
+        assertThat(transacoes.desfeitas).isEqualTo(1);
+        assertThat(transacoes.confirmadas).isZero();
+    }
+
+    @Test
+    @DisplayName("Deveria parar no limite de lotes por execução")
+    void arquivarCenario4() throws Exception {
+        ReflectionTestUtils.setField(arquivamento, "lotesPorExecucao", 2);
+        when(repository.findLoteParaArquivar(any(), anyLong(), any(), eq(3))).thenReturn(lote(1, 3)).thenReturn(lote(4, 6)).thenReturn(lote(7, 9));
+
+        arquivamento.arquivar();
+
+        verify(repository, times(2)).findLoteParaArquivar(any(), anyLong(), any(), anyInt());
+        assertThat(meterRegistry.counter("consultas.arquivadas").count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Deveria arquivar fora da thread do agendador e pular o disparo enquanto a execução anterior não termina")
+    void agendarArquivamento() throws Exception {
+        var liberar = new CountDownLatch(1);
+        var threads = new ArrayList<String>();
+        when(repository.findLoteParaArquivar(any(), anyLong(), any(), anyInt())).thenAnswer(invocacao -> {
+            threads.add(Thread.currentThread().getName());
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        arquivamento.agendarArquivamento();
+        arquivamento.agendarArquivamento();
+        liberar.countDown();
+        verify(repository, timeout(5000)).findLoteParaArquivar(any(), anyLong(), any(), anyInt());
+        Thread.sleep(100);
+
+        assertThat(threads).containsExactly("arquivamento");
+        arquivamento.encerrar();
+    }
+
+    // Consultas com ids de..ate, uma por hora a partir de DATA.
+    private static List<ConsultaRepository.ChaveArquivamento> lote(long de, long ate) {
+        return LongStream.rangeClosed(de, ate)
+                .mapToObj(id -> (ConsultaRepository.ChaveArquivamento) new Chave(id, DATA.plusHours(id)))
+                .toList();
+    }
+
+    private record Chave(Long getId, LocalDateTime getData) implements ConsultaRepository.ChaveArquivamento {
+    }
+
+    // Registra as operações feitas dentro de cada transação.
+    private static class TransacoesRegistradas implements PlatformTransactionManager {
+
+        final List<List<String>> operacoes = new ArrayList<>();
+        private List<String> atual;
+        int confirmadas;
+        int desfeitas;
+
+        int registrar(String operacao) {
+            assertThat(atual).as("operação fora de transação").isNotNull();
+            atual.add(operacao);
+            return 1;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            atual = new ArrayList<>();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            operacoes.add(atual);
+            atual = null;
+            confirmadas++;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            atual = null;
+            desfeitas++;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package med.voll.api.domain.consulta.jornada;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradeSemanalTest {
+
+    @Test
+    @DisplayName("Deveria marcar e conferir faixas que atravessam palavras")
+    void marcarCenario1() {
+        var grade = new GradeSemanal();
+        grade.marcar(60, 200);
+
+        assertThat(grade.contemTodas(60, 200)).isTrue();
+        assertThat(grade.contemTodas(64, 128)).isTrue();
+        assertThat(grade.contemTodas(59, 61)).isFalse();
+        assertThat(grade.contemTodas(199, 201)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deveria desmarcar um trecho no meio de uma faixa")
+    void desmarcarCenario1() {
+        var grade = new GradeSemanal();
+        grade.marcar(0, GradeSemanal.FATIAS_POR_SEMANA);
+        grade.desmarcar(100, 130);
+
+        assertThat(grade.faixas()).containsExactly(new GradeSemanal.Faixa(0, 100), new GradeSemanal.Faixa(130, GradeSemanal.FATIAS_POR_SEMANA));
+        assertThat(grade.contemTodas(GradeSemanal.FATIAS_POR_SEMANA - 1, GradeSemanal.FATIAS_POR_SEMANA + 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deveria descontar a ocupação da jornada sem alterar a grade de ocupação")
+    void removerCenario1() {
+        var jornada = new GradeSemanal();
+        jornada.marcar(84, 144);
+        var ocupados = new GradeSemanal();
+        ocupados.marcar(90, 99);
+        ocupados.marcar(140, 150);
+
+        var livres = jornada.copia().remover(ocupados);
+
+        assertThat(livres.faixas()).containsExactly(new GradeSemanal.Faixa(84, 90), new GradeSemanal.Faixa(99, 140));
+        assertThat(jornada.contemTodas(84, 144)).isTrue();
+        assertThat(ocupados.faixas()).containsExactly(new GradeSemanal.Faixa(90, 99), new GradeSemanal.Faixa(140, 150));
+    }
+
+    @Test
+    @DisplayName("Deveria retornar nenhuma faixa para grade vazia")
+    void faixasCenario1() {
+        assertThat(new GradeSemanal().faixas()).isEmpty();
+    }
+}
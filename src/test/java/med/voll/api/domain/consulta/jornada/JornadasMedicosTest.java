@@ -0,0 +1,110 @@
+package med.voll.api.domain.consulta.jornada;
+
+import med.voll.api.domain.consulta.ocupacao.Intervalo;
+import med.voll.api.domain.consulta.ocupacao.OcupacaoMedicos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JornadasMedicosTest {
+
+    // Uma quarta-feira futura.
+    private static final LocalDate QUARTA = LocalDate.now().plusWeeks(2).with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+
+    @Mock
+    private HorarioTrabalhoRepository horarioRepository;
+
+    @Mock
+    private ExcecaoAgendaRepository excecaoRepository;
+
+    @Mock
+    private OcupacaoMedicos ocupacao;
+
+    @InjectMocks
+    private JornadasMedicos jornadas;
+
+    @Test
+    @DisplayName("Deveria usar o horário da clínica para médico sem jornada cadastrada")
+    void atendeCenario1() {
+        assertThat(jornadas.atende(1L, QUARTA.atTime(7, 0), QUARTA.atTime(7, 45))).isTrue();
+        assertThat(jornadas.atende(1L, QUARTA.atTime(18, 30), QUARTA.atTime(19, 15))).isFalse();
+        var domingo = QUARTA.with(TemporalAdjusters.next(DayOfWeek.SUNDAY));
+        assertThat(jornadas.atende(1L, domingo.atTime(10, 0), domingo.atTime(10, 30))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deveria recompilar só o médico alterado, aplicando jornada e exceções")
+    void recompilarCenario1() {
+        when(horarioRepository.findAllByIdMedico(1L)).thenReturn(List.of(horario(1L, DayOfWeek.WEDNESDAY, 13, 17)));
+        when(excecaoRepository.findAllByIdMedicoAndFimAfter(eq(1L), any())).thenReturn(List.of(excecao(1L, QUARTA.atTime(15, 0), QUARTA.atTime(16, 0))));
+        assertThat(jornadas.atende(1L, QUARTA.atTime(9, 0), QUARTA.atTime(9, 30))).isTrue();
+
+        jornadas.recompilar(1L);
+
+        assertThat(jornadas.atende(1L, QUARTA.atTime(9, 0), QUARTA.atTime(9, 30))).isFalse();
+        assertThat(jornadas.atende(1L, QUARTA.atTime(13, 0), QUARTA.atTime(14, 0))).isTrue();
+        assertThat(jornadas.atende(1L, QUARTA.atTime(14, 30), QUARTA.atTime(15, 15))).isFalse();
+        assertThat(jornadas.atende(2L, QUARTA.atTime(9, 0), QUARTA.atTime(9, 30))).isTrue();
+        verify(horarioRepository, never()).findAllByIdMedico(2L);
+    }
+
+    @Test
+    @DisplayName("Deveria descontar feriados da clínica de todos os médicos")
+    void recompilarClinicaCenario1() {
+        when(excecaoRepository.findAllByIdMedicoIsNullAndFimAfter(any())).thenReturn(List.of(excecao(null, QUARTA.atStartOfDay(), QUARTA.plusDays(1).atStartOfDay())));
+
+        jornadas.recompilarClinica();
+
+        assertThat(jornadas.atende(1L, QUARTA.atTime(10, 0), QUARTA.atTime(10, 30))).isFalse();
+        assertThat(jornadas.atende(1L, QUARTA.plusDays(1).atTime(10, 0), QUARTA.plusDays(1).atTime(10, 30))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deveria listar como livres os períodos da jornada sem consulta que comportam a duração")
+    void horariosLivresCenario1() {
+        when(ocupacao.intervalos(1L, QUARTA)).thenReturn(List.of(
+                new Intervalo(10L, QUARTA.atTime(8, 0), QUARTA.atTime(8, 45)),
+                new Intervalo(11L, QUARTA.atTime(9, 0), QUARTA.atTime(18, 40))));
+
+        var livres = jornadas.horariosLivres(1L, QUARTA, 1, Duration.ofMinutes(20));
+
+        assertThat(livres).containsExactly(
+                new DadosHorarioLivre(QUARTA.atTime(7, 0), QUARTA.atTime(8, 0)),
+                new DadosHorarioLivre(QUARTA.atTime(18, 40), QUARTA.atTime(19, 0)));
+    }
+
+    @Test
+    @DisplayName("Deveria contar por dia quantas consultas da duração cabem na jornada, descontando exceções")
+    void capacidadePorDiaCenario1() {
+        when(horarioRepository.findAllByIdMedico(1L)).thenReturn(List.of(horario(1L, DayOfWeek.WEDNESDAY, 13, 17), horario(1L, DayOfWeek.THURSDAY, 8, 10)));
+        when(excecaoRepository.findAllByIdMedicoAndFimAfter(eq(1L), any())).thenReturn(List.of(excecao(1L, QUARTA.atTime(15, 0), QUARTA.atTime(15, 30))));
+        jornadas.recompilar(1L);
+
+        var capacidade = jornadas.capacidadePorDia(1L, QUARTA.minusDays(1), 10, Duration.ofMinutes(45));
+
+        // terça: sem jornada; quarta: 13h-15h (2) e 15h30-17h (2); quinta: 8h-10h (2); quarta seguinte: 13h-17h (5).
+        assertThat(capacidade).containsExactly(0, 4, 2, 0, 0, 0, 0, 0, 5, 2);
+        assertThat(jornadas.capacidadePorDia(2L, QUARTA, 1, Duration.ofMinutes(30))).containsExactly(24);
+    }
+
+    private static HorarioTrabalho horario(Long idMedico, DayOfWeek dia, int inicio, int fim) {
+        return new HorarioTrabalho(idMedico, new DadosHorarioTrabalho(dia, LocalTime.of(inicio, 0), LocalTime.of(fim, 0)));
+    }
+
+    private static ExcecaoAgenda excecao(Long idMedico, LocalDateTime inicio, LocalDateTime fim) {
+        return new ExcecaoAgenda(idMedico, new DadosExcecaoAgenda(inicio, fim, "Teste"));
+    }
+}
@@ -0,0 +1,142 @@
+package med.voll.api.domain.consulta.lembrete;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnvioLembretesTest {
+
+    private static final LocalDateTime AMANHA = LocalDateTime.now().plusHours(12).withNano(0);
+
+    @Mock
+    private LembreteConsultaRepository repository;
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> confirmadas;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Deveria enviar só as consultas reservadas e confirmar só as entregues")
+    void enviarPendentesCenario1() {
+        var lote = List.of(consulta(1L, AMANHA), consulta(2L, AMANHA), consulta(3L, AMANHA.plusHours(1)));
+        when(repository.findLotePendente(any(), eq(0L), any(), any(), anyInt())).thenReturn(lote);
+        // A consulta 2 já foi reservada por outra instância.
+        when(repository.findReservadas(anyCollection(), anyString())).thenReturn(List.of(1L, 3L));
+        var envio = envio(lembrete -> {
+            if (lembrete.idConsulta() == 3L) {
+                throw new IllegalStateException("canal indisponível");
+            }
+        }, 10, 4);
+
+        envio.enviarPendentes();
+
+        verify(repository).marcarEnviados(confirmadas.capture(), anyString(), any());
+        assertThat(confirmadas.getValue()).containsExactly(1L);
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("lembretes.falhas").count()).isEqualTo(1);
+        // Lote menor que o tamanho: a janela acabou, sem nova leitura.
+        verify(repository, times(1)).findLotePendente(any(), anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deveria continuar a varredura a partir da última chave (data, id) do lote anterior")
+    void enviarPendentesCenario2() {
+        when(repository.findLotePendente(any(), eq(0L), any(), any(), eq(2)))
+                .thenReturn(List.of(consulta(4L, AMANHA), consulta(9L, AMANHA.plusMinutes(30))));
+        when(repository.findLotePendente(eq(AMANHA.plusMinutes(30)), eq(9L), any(), any(), eq(2)))
+                .thenReturn(List.of(consulta(5L, AMANHA.plusHours(2))));
+        when(repository.findReservadas(anyCollection(), anyString())).thenAnswer(reservarTodas());
+        var entregues = new AtomicInteger();
+        var envio = envio(lembrete -> entregues.incrementAndGet(), 2, 4);
+
+        envio.enviarPendentes();
+
+        assertThat(entregues).hasValue(3);
+        verify(repository, times(2)).marcarEnviados(anyCollection(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deveria limitar o número de entregas simultâneas")
+    void enviarPendentesCenario3() {
+        var lote = LongStream.rangeClosed(1, 40).mapToObj(id -> consulta(id, AMANHA)).toList();
+        when(repository.findLotePendente(any(), eq(0L), any(), any(), anyInt())).thenReturn(lote);
+        when(repository.findReservadas(anyCollection(), anyString())).thenAnswer(reservarTodas());
+        var emAndamento = new AtomicInteger();
+        var maximo = new AtomicInteger();
+        var envio = envio(lembrete -> {
+            maximo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            emAndamento.decrementAndGet();
+        }, 100, 3);
+
+        envio.enviarPendentes();
+
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isEqualTo(40);
+        assertThat(maximo.get()).isLessThanOrEqualTo(3);
+    }
+
+    // Nenhuma consulta reservada por outra instância: todas as pedidas são devolvidas.
+    private static Answer<List<Long>> reservarTodas() {
+        return invocacao -> List.copyOf(invocacao.<Collection<Long>>getArgument(0));
+    }
+
+    private EnvioLembretes envio(CanalLembretes canal, int tamanhoLote, int paralelismo) {
+        var envio = new EnvioLembretes();
+        ReflectionTestUtils.setField(envio, "repository", repository);
+        ReflectionTestUtils.setField(envio, "canal", canal);
+        ReflectionTestUtils.setField(envio, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(envio, "tamanhoLote", tamanhoLote);
+        ReflectionTestUtils.setField(envio, "paralelismo", paralelismo);
+        envio.registrarMetricas();
+        return envio;
+    }
+
+    private static LembreteConsultaRepository.ConsultaParaLembrete consulta(Long id, LocalDateTime data) {
+        return new LembreteConsultaRepository.ConsultaParaLembrete() {
+            public Long getId() {
+                return id;
+            }
+
+            public LocalDateTime getData() {
+                return data;
+            }
+
+            public Long getMedicoId() {
+                return 1L;
+            }
+
+            public Long getPacienteId() {
+                return 2L;
+            }
+        };
+    }
+}
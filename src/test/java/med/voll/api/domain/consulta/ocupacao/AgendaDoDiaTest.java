@@ -0,0 +1,62 @@
+package med.voll.api.domain.consulta.ocupacao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AgendaDoDiaTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    @Test
+    @DisplayName("Deveria detectar sobreposição com consulta que começa antes e termina depois do início pedido")
+    void sobrepoeCenario1() {
+        var agenda = new AgendaDoDia(List.of(intervalo(1L, 10, 0, 45)));
+
+        assertThat(agenda.sobrepoe(hora(10, 15), hora(10, 45), Set.of())).isTrue();
+        assertThat(agenda.sobrepoe(hora(9, 30), hora(10, 1), Set.of())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Não deveria considerar sobreposição entre consultas adjacentes")
+    void sobrepoeCenario2() {
+        var agenda = new AgendaDoDia(List.of(intervalo(1L, 10, 0, 45)));
+
+        assertThat(agenda.sobrepoe(hora(10, 45), hora(11, 30), Set.of())).isFalse();
+        assertThat(agenda.sobrepoe(hora(9, 15), hora(10, 0), Set.of())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deveria encontrar conflito com consulta longa mesmo havendo consultas curtas entre elas")
+    void sobrepoeCenario3() {
+        var agenda = new AgendaDoDia(List.of(intervalo(1L, 8, 0, 240), intervalo(2L, 11, 0, 20)));
+
+        assertThat(agenda.sobrepoe(hora(11, 30), hora(11, 50), Set.of())).isTrue();
+        assertThat(agenda.sobrepoe(hora(12, 0), hora(12, 20), Set.of())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deveria ignorar consultas liberadas e as informadas para ignorar")
+    void sobrepoeCenario4() {
+        var agenda = new AgendaDoDia(List.of(intervalo(1L, 10, 0, 45), intervalo(2L, 14, 0, 30)));
+        agenda.liberar(2L);
+
+        assertThat(agenda.sobrepoe(hora(10, 15), hora(10, 30), Set.of(1L))).isFalse();
+        assertThat(agenda.sobrepoe(hora(14, 0), hora(14, 30), Set.of())).isFalse();
+        assertThat(agenda.tamanho()).isEqualTo(1);
+    }
+
+    private static Intervalo intervalo(Long id, int hora, int minuto, int duracaoMinutos) {
+        var inicio = hora(hora, minuto);
+        return new Intervalo(id, inicio, inicio.plusMinutes(duracaoMinutos));
+    }
+
+    private static LocalDateTime hora(int hora, int minuto) {
+        return DIA.withHour(hora).withMinute(minuto);
+    }
+}
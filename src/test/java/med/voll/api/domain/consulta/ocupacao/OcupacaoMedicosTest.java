@@ -0,0 +1,109 @@
+package med.voll.api.domain.consulta.ocupacao;
+
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.TipoAlteracaoHorario;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.infra.invalidacao.RecursoAlterado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OcupacaoMedicosTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final OcupacaoMedicos ocupacao = new OcupacaoMedicos();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ocupacao, "consultaRepository", consultaRepository);
+        ReflectionTestUtils.setField(ocupacao, "validade", Duration.ofMinutes(10));
+        when(consultaRepository.findOcupacaoDoMedico(eq(1L), any(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(ocupacao);
+    }
+
+    @Test
+    @DisplayName("Deveria carregar o dia uma única vez e manter a ocupação pelos eventos confirmados")
+    void ocupadoCenario1() {
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isFalse();
+        ocupacao.aplicar(alteracao(TipoAlteracaoHorario.HORARIO_OCUPADO, 10));
+
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isTrue();
+        verify(consultaRepository, times(1)).findOcupacaoDoMedico(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deveria instalar uma carga durante a qual um commit foi aplicado")
+    void ocupadoCenario2() {
+        var confirmado = intervalo(10);
+        when(consultaRepository.findOcupacaoDoMedico(eq(1L), any(), any())).thenAnswer(invocacao -> {
+            // O commit chega depois da leitura do banco, que não o enxergou.
+            ocupacao.aplicar(alteracao(TipoAlteracaoHorario.HORARIO_OCUPADO, 10));
+            return List.of();
+        }).thenReturn(List.of(confirmado));
+
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isFalse();
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isTrue();
+        verify(consultaRepository, times(2)).findOcupacaoDoMedico(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deveria instalar o que foi lido por uma transação com alterações de horário pendentes")
+    void ocupadoCenario3() {
+        TransactionSynchronizationManager.initSynchronization();
+        ocupacao.registrarPendencia(alteracao(TipoAlteracaoHorario.HORARIO_OCUPADO, 14));
+
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(14), DIA.withHour(15))).isTrue();
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isFalse();
+        tearDown();
+
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isFalse();
+        assertThat(ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11))).isFalse();
+        verify(consultaRepository, times(3)).findOcupacaoDoMedico(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deveria recarregar os dias descartados depois de um conflito no banco ou de uma alteração de outra instância")
+    void descartar() {
+        ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11));
+        ocupacao.descartar(1L, DIA.toLocalDate(), DIA.toLocalDate());
+        ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11));
+        ocupacao.invalidar(RecursoAlterado.AGENDA_MEDICO, 1L);
+        ocupacao.ocupado(1L, DIA.withHour(10), DIA.withHour(11));
+
+        verify(consultaRepository, times(3)).findOcupacaoDoMedico(eq(1L), any(), any());
+    }
+
+    private static AlteracaoHorario alteracao(TipoAlteracaoHorario tipo, int hora) {
+        return new AlteracaoHorario(tipo, 100L + hora, 1L, Especialidade.CARDIOLOGIA, DIA.withHour(hora), DIA.withHour(hora).plusMinutes(30));
+    }
+
+    private static ConsultaRepository.IntervaloOcupado intervalo(int hora) {
+        var intervalo = mock(ConsultaRepository.IntervaloOcupado.class);
+        when(intervalo.getId()).thenReturn(100L + hora);
+        when(intervalo.getData()).thenReturn(DIA.withHour(hora));
+        when(intervalo.getDataFim()).thenReturn(DIA.withHour(hora).plusMinutes(30));
+        return intervalo;
+    }
+}
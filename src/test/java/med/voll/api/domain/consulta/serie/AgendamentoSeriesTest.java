@@ -0,0 +1,148 @@
+package med.voll.api.domain.consulta.serie;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
+import med.voll.api.domain.consulta.AgendaDeConsultas;
+import med.voll.api.domain.consulta.Consulta;
+import med.voll.api.domain.consulta.ConsultaRepository;
+import med.voll.api.domain.consulta.DuracaoConsultas;
+import med.voll.api.domain.consulta.jornada.JornadasMedicos;
+import med.voll.api.domain.consulta.validacoes.OrdenadorValidadores;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.Paciente;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AgendamentoSeriesTest {
+
+    // Uma segunda-feira.
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+    @Mock
+    private MedicoRepository medicoRepository;
+    @Mock
+    private PacienteRepository pacienteRepository;
+    @Mock
+    private RegistroCadastrosAtivos cadastrosAtivos;
+    @Mock
+    private OrdenadorValidadores validadores;
+    @Mock
+    private JornadasMedicos jornadas;
+    @Mock
+    private DuracaoConsultas duracoes;
+    @Mock
+    private AgendaDeConsultas agenda;
+
+    @InjectMocks
+    private AgendamentoSeries series;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(series, "maximoOcorrencias", 52);
+    }
+
+    @Test
+    @DisplayName("Deveria expandir a série pela quantidade ou pela data final, o que vier antes")
+    void expandirCenario1() {
+        assertThat(series.expandir(dados(2, UnidadeRecorrencia.SEMANAS, 3, null, null)))
+                .containsExactly(INICIO, INICIO.plusWeeks(2), INICIO.plusWeeks(4));
+        assertThat(series.expandir(dados(1, UnidadeRecorrencia.DIAS, 10, LocalDate.of(2030, 3, 6), null)))
+                .containsExactly(INICIO, INICIO.plusDays(1), INICIO.plusDays(2));
+    }
+
+    @Test
+    @DisplayName("Deveria recusar série sem fim ou com mais ocorrências que o permitido")
+    void expandirCenario2() {
+        assertThatThrownBy(() -> series.expandir(dados(1, UnidadeRecorrencia.SEMANAS, null, null, null)))
+                .extracting("codigo").isEqualTo(CodigoErroValidacao.SERIE_SEM_OCORRENCIAS);
+        assertThatThrownBy(() -> series.expandir(dados(1, UnidadeRecorrencia.DIAS, null, LocalDate.of(2031, 1, 1), null)))
+                .extracting("codigo").isEqualTo(CodigoErroValidacao.SERIE_LONGA);
+    }
+
+    @Test
+    @DisplayName("Deveria recusar a série inteira quando uma ocorrência conflitar, consultando o banco só duas vezes")
+    void agendarCenario1() {
+        prepararCadastros();
+        when(consultaRepository.findOcupacaoDoMedico(1L, INICIO, INICIO.plusWeeks(3).plusMinutes(45)))
+                .thenReturn(List.of(ocupado(INICIO.plusWeeks(1).plusMinutes(30), INICIO.plusWeeks(1).plusMinutes(75))));
+
+        assertThatThrownBy(() -> series.agendar(dados(1, UnidadeRecorrencia.SEMANAS, 4, null, null)))
+                .isInstanceOf(ValidacaoException.class)
+                .extracting("codigo").isEqualTo(CodigoErroValidacao.SERIE_COM_CONFLITOS);
+        verify(consultaRepository).findOcupacaoDoMedico(any(), any(), any());
+        verify(consultaRepository).findDatasDoPaciente(any(), any(), any());
+        verifyNoInteractions(agenda);
+    }
+
+    @Test
+    @DisplayName("Deveria agendar as ocorrências livres e informar as recusadas no modo melhor esforço")
+    void agendarCenario2() {
+        prepararCadastros();
+        when(consultaRepository.findDatasDoPaciente(1L, INICIO.toLocalDate().atStartOfDay(), INICIO.plusWeeks(3).toLocalDate().plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(INICIO.plusWeeks(2).withHour(15)));
+        when(jornadas.atende(1L, INICIO.plusWeeks(3), INICIO.plusWeeks(3).plusMinutes(45))).thenReturn(false);
+
+        var resultado = series.agendar(dados(1, UnidadeRecorrencia.SEMANAS, 4, null, ModoAgendamentoSerie.MELHOR_ESFORCO));
+
+        assertThat(resultado.ocorrencias()).isEqualTo(4);
+        assertThat(resultado.agendadas()).extracting("data").containsExactly(INICIO, INICIO.plusWeeks(1));
+        assertThat(resultado.recusadas()).extracting("codigo")
+                .containsExactly(CodigoErroValidacao.PACIENTE_COM_CONSULTA_NO_DIA, CodigoErroValidacao.FORA_DA_JORNADA_DO_MEDICO);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Consulta>> consultas = ArgumentCaptor.forClass(List.class);
+        verify(agenda).registrarAgendamentos(consultas.capture());
+        assertThat(consultas.getValue()).extracting("dataFim").containsExactly(INICIO.plusMinutes(45), INICIO.plusWeeks(1).plusMinutes(45));
+    }
+
+    private void prepararCadastros() {
+        when(cadastrosAtivos.pacienteAtivo(1L)).thenReturn(true);
+        when(cadastrosAtivos.medicoAtivo(1L)).thenReturn(true);
+        when(duracoes.duracaoPadrao(1L)).thenReturn(Especialidade.CARDIOLOGIA.getDuracaoPadrao());
+        lenient().when(jornadas.atende(any(), any(), any())).thenReturn(true);
+        lenient().when(medicoRepository.getReferenceById(1L)).thenReturn(mock(Medico.class));
+        lenient().when(pacienteRepository.getReferenceById(1L)).thenReturn(mock(Paciente.class));
+    }
+
+    private static DadosAgendamentoSerie dados(int intervalo, UnidadeRecorrencia unidade, Integer quantidade, LocalDate ate, ModoAgendamentoSerie modo) {
+        return new DadosAgendamentoSerie(1L, 1L, INICIO, null, intervalo, unidade, quantidade, ate, modo);
+    }
+
+    private static ConsultaRepository.IntervaloOcupado ocupado(LocalDateTime inicio, LocalDateTime fim) {
+        return new ConsultaRepository.IntervaloOcupado() {
+            public Long getId() {
+                return 99L;
+            }
+
+            public LocalDateTime getData() {
+                return inicio;
+            }
+
+            public LocalDateTime getDataFim() {
+                return fim;
+            }
+        };
+    }
+}
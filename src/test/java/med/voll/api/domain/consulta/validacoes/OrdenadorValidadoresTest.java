@@ -0,0 +1,91 @@
+package med.voll.api.domain.consulta.validacoes;
+
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrdenadorValidadoresTest {
+
+    private static final DadosAgendamentoConsulta DADOS = new DadosAgendamentoConsulta(1L, 1L, LocalDateTime.now().plusDays(1), null);
+
+    private final List<String> executados = new ArrayList<>();
+
+    @Test
+    @DisplayName("Deveria executar apenas os validadores da classe de custo pedida")
+    void validarCenario1() {
+        var ordenador = ordenador(
+                new ValidadorFalso("banco", CustoValidacao.BANCO, false),
+                new ValidadorFalso("puro", CustoValidacao.PURO, false));
+
+        ordenador.validar(DADOS, CustoValidacao.PURO);
+        assertThat(executados).containsExactly("puro");
+
+        ordenador.validar(DADOS, CustoValidacao.BANCO);
+        assertThat(executados).containsExactly("puro", "banco");
+    }
+
+    @Test
+    @DisplayName("Deveria colocar na frente o validador de banco que mais recusa")
+    void reordenarCenario1() {
+        var ordenador = ordenador(
+                new ValidadorFalso("raramente-recusa", CustoValidacao.BANCO, false),
+                new ValidadorFalso("sempre-recusa", CustoValidacao.BANCO, true));
+
+        for (var i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> ordenador.validar(DADOS, CustoValidacao.BANCO)).isInstanceOf(ValidacaoException.class);
+        }
+        ordenador.reordenar();
+        executados.clear();
+
+        assertThatThrownBy(() -> ordenador.validar(DADOS, CustoValidacao.BANCO)).isInstanceOf(ValidacaoException.class);
+        assertThat(executados).containsExactly("sempre-recusa");
+
+        var descricao = ordenador.descrever().validadores();
+        assertThat(descricao).extracting(DadosDesempenhoValidador::validador).containsExactly("ValidadorFalso", "ValidadorFalso");
+        assertThat(descricao.get(0).rejeicoes()).isEqualTo(10);
+        assertThat(descricao.get(1).rejeicoes()).isZero();
+    }
+
+    private OrdenadorValidadores ordenador(ValidadorAgendamentoDeConsulta... validadores) {
+        var ordenador = new OrdenadorValidadores();
+        ReflectionTestUtils.setField(ordenador, "validadores", List.of(validadores));
+        ordenador.iniciar();
+        return ordenador;
+    }
+
+    private class ValidadorFalso implements ValidadorAgendamentoDeConsulta {
+
+        private final String nome;
+        private final CustoValidacao custo;
+        private final boolean recusa;
+
+        ValidadorFalso(String nome, CustoValidacao custo, boolean recusa) {
+            this.nome = nome;
+            this.custo = custo;
+            this.recusa = recusa;
+        }
+
+        @Override
+        public void validar(DadosAgendamentoConsulta dados) {
+            executados.add(nome);
+            if (recusa) {
+                throw new ValidacaoException(CodigoErroValidacao.MEDICO_INDISPONIVEL, "Recusado por " + nome);
+            }
+        }
+
+        @Override
+        public CustoValidacao custo() {
+            return custo;
+        }
+    }
+}
@@ -32,8 +32,8 @@ class MedicoRepositoryTest {
     private TestEntityManager em;
 
     @Test
-    @DisplayName("Deve devolver null quando o único médico cadastrado não está disponível na data.")
-    void escolherMedicoAleatorioLivreNaDataCenario1() {
+    @DisplayName("Não deve devolver o único médico cadastrado quando ele não está disponível na data.")
+    void findIdsLivresNoPeriodoCenario1() {
         // given ou arrange: Preparação do cenário
         var proximaSegundaAs10 = LocalDate.now()
                 .with(TemporalAdjusters.next(DayOfWeek.MONDAY))
@@ -43,15 +43,16 @@ class MedicoRepositoryTest {
         cadastrarConsulta(medico, paciente, proximaSegundaAs10);
 
         // when ou act: Execução da lógica a ser testada
-        var medicoLivre = medicoRepository.escolherMedicoAleatorioLivreNaData(Especialidade.CARDIOLOGIA, proximaSegundaAs10);
+        var livres = medicoRepository.findIdsLivresNoPeriodo(Especialidade.CARDIOLOGIA, proximaSegundaAs10,
+                proximaSegundaAs10.plus(Especialidade.CARDIOLOGIA.getDuracaoPadrao()));
 
         // then ou assert: Verificação do resultado
-        assertThat(medicoLivre).isNull();
+        assertThat(livres).isEmpty();
     }
 
     @Test
     @DisplayName("Deve devolver o médico quando ele está disponível na data.")
-    void escolherMedicoAleatorioLivreNaDataCenario2() {
+    void findIdsLivresNoPeriodoCenario2() {
         // given ou arrange
         var proximaSegundaAs10 = LocalDate.now()
                 .with(TemporalAdjusters.next(DayOfWeek.MONDAY))
@@ -59,18 +60,17 @@ class MedicoRepositoryTest {
         var medico = cadastrarMedico("Medico", "medico@voll.med", "123456", Especialidade.CARDIOLOGIA);
 
         // when ou act
-        // CORREÇÃO: Adicionado 'var' para declarar a variável
-        var medicoLivre = medicoRepository.escolherMedicoAleatorioLivreNaData(Especialidade.CARDIOLOGIA, proximaSegundaAs10);
+        var livres = medicoRepository.findIdsLivresNoPeriodo(Especialidade.CARDIOLOGIA, proximaSegundaAs10,
+                proximaSegundaAs10.plus(Especialidade.CARDIOLOGIA.getDuracaoPadrao()));
 
         // then ou assert
-        // CORREÇÃO: A asserção agora verifica se o médico retornado é o mesmo que foi cadastrado
-        assertThat(medicoLivre).isEqualTo(medico);
+        assertThat(livres).containsExactly(medico.getId());
     }
 
     // ################# MÉTODOS DE AJUDA (SEM DUPLICAÇÃO) #################
 
     private void cadastrarConsulta(Medico medico, Paciente paciente, LocalDateTime data) {
-        em.persist(new Consulta(data,   null, medico, paciente, null));
+        em.persist(new Consulta(null, medico, paciente, data, data.plus(medico.getEspecialidade().getDuracaoPadrao())));
     }
 
     private Medico cadastrarMedico(String nome, String email, String crm, Especialidade especialidade) {
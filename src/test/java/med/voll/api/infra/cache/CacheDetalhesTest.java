@@ -0,0 +1,165 @@
+package med.voll.api.infra.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import med.voll.api.infra.serializacao.MapeadorCbor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheDetalhesTest {
+
+    private final CacheDetalhes cache = new CacheDetalhes();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger cargas = new AtomicInteger();
+    private final MapeadorCbor cbor = new MapeadorCbor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cbor, "builder", new Jackson2ObjectMapperBuilder());
+        ReflectionTestUtils.invokeMethod(cbor, "construir");
+        ReflectionTestUtils.setField(cache, "cbor", cbor);
+        ReflectionTestUtils.setField(cache, "negociacao", new ContentNegotiationManager());
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "janela", Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deveria descartar na limpeza apenas as entradas vencidas, mantendo as que ainda estão na janela")
+    void descartarVencidos() {
+        ReflectionTestUtils.setField(cache, "janela", Duration.ZERO);
+        cache.obter("medico", 1L, this::carregar);
+        cache.obter("medico", 2L, this::carregar);
+        ReflectionTestUtils.setField(cache, "janela", Duration.ofMinutes(1));
+        cache.obter("medico", 3L, this::carregar);
+
+        cache.descartarVencidos();
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(cache, "entradas")).hasSize(1);
+        cache.obter("medico", 3L, this::carregar);
+        assertThat(cargas).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Deveria compartilhar uma única carga entre requisições simultâneas para o mesmo id")
+    void obterCenario1() throws Exception {
+        var liberarCarga = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(8);
+        var respostas = new ArrayList<Future<byte[]>>();
+        for (var i = 0; i < 8; i++) {
+            respostas.add(pool.submit(() -> cache.obter("medico", 1L, () -> {
+                cargas.incrementAndGet();
+                aguardar(liberarCarga);
+                return Map.of("id", 1);
+            })));
+        }
+        Thread.sleep(100);
+        liberarCarga.countDown();
+
+        var primeira = respostas.get(0).get(5, TimeUnit.SECONDS);
+        for (var resposta : respostas) {
+            assertThat(resposta.get(5, TimeUnit.SECONDS)).isSameAs(primeira);
+        }
+        assertThat(cargas).hasValue(1);
+        assertThat(meterRegistry.counter("detalhes.cargas.economizadas", "recurso", "medico").count()).isEqualTo(7);
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deveria carregar de novo depois da invalidação ou do fim da janela")
+    void obterCenario2() {
+        cache.obter("paciente", 1L, this::carregar);
+        cache.obter("paciente", 1L, this::carregar);
+        cache.invalidar("paciente", 1L);
+        cache.obter("paciente", 1L, this::carregar);
+        assertThat(cargas).hasValue(2);
+
+        ReflectionTestUtils.setField(cache, "janela", Duration.ZERO);
+        cache.invalidar("paciente", 1L);
+        cache.obter("paciente", 1L, this::carregar);
+        cache.obter("paciente", 1L, this::carregar);
+        assertThat(cargas).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Não deveria guardar erros de carga")
+    void obterCenario3() {
+        assertThatThrownBy(() -> cache.obter("medico", 9L, () -> {
+            throw new EntityNotFoundException();
+        })).isInstanceOf(EntityNotFoundException.class);
+
+        assertThat(new String(cache.obter("medico", 9L, this::carregar))).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    @DisplayName("Deveria guardar JSON e CBOR separadamente e invalidar os dois juntos")
+    void obterCenario4() throws Exception {
+        var json = cache.obter("medico", 1L, MediaType.APPLICATION_JSON, this::carregar);
+        var emCbor = cache.obter("medico", 1L, MediaType.APPLICATION_CBOR, this::carregar);
+        assertThat(cargas).hasValue(2);
+        assertThat(new String(json)).isEqualTo("{\"id\":1}");
+        assertThat(cbor.getMapper().readTree(emCbor).get("id").asInt()).isEqualTo(1);
+
+        cache.obter("medico", 1L, MediaType.APPLICATION_CBOR, this::carregar);
+        assertThat(cargas).hasValue(2);
+
+        cache.invalidar("medico", 1L);
+        cache.obter("medico", 1L, MediaType.APPLICATION_JSON, this::carregar);
+        cache.obter("medico", 1L, MediaType.APPLICATION_CBOR, this::carregar);
+        assertThat(cargas).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Deveria escolher o formato pelo cabeçalho Accept, com JSON como padrão, e recusar os não suportados")
+    void formato() throws Exception {
+        assertThat(cache.formato(requisicao(null))).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cache.formato(requisicao("*/*"))).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cache.formato(requisicao("application/cbor"))).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cache.formato(requisicao("application/json;q=0.5, application/cbor"))).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cache.formato(requisicao("application/cbor;q=0.5, application/json"))).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(cache.formato(requisicao("application/xml, application/cbor;q=0.1"))).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThatThrownBy(() -> cache.formato(requisicao("application/xml"))).isInstanceOf(HttpMediaTypeNotAcceptableException.class);
+    }
+
+    private static ServletWebRequest requisicao(String accept) {
+        var requisicao = new MockHttpServletRequest();
+        if (accept != null) {
+            requisicao.addHeader("Accept", accept);
+        }
+        return new ServletWebRequest(requisicao);
+    }
+
+    private Object carregar() {
+        cargas.incrementAndGet();
+        return Map.of("id", 1);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
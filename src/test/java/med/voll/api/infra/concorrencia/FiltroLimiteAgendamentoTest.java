@@ -0,0 +1,129 @@
+package med.voll.api.infra.concorrencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.security.SecurityFilter;
+import med.voll.api.infra.security.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class FiltroLimiteAgendamentoTest {
+
+    private final FiltroLimiteAgendamento filtro = new FiltroLimiteAgendamento();
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final SecurityFilter securityFilter = new SecurityFilter();
+    private final AtomicInteger atendidas = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filtro, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filtro, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filtro, "limiteInicial", 1);
+        ReflectionTestUtils.setField(filtro, "limiteMinimo", 1);
+        ReflectionTestUtils.setField(filtro, "limiteMaximo", 1);
+        ReflectionTestUtils.setField(filtro, "janelaAmostras", 500);
+        ReflectionTestUtils.setField(filtro, "retryAfterEmSegundos", 1);
+        filtro.inicializar();
+
+        var tokenService = mock(TokenService.class);
+        when(tokenService.getSubject(anyString())).thenReturn("ana");
+        when(usuarioRepository.findByLogin("ana")).thenReturn(new Usuario());
+        ReflectionTestUtils.setField(securityFilter, "tokenService", tokenService);
+        ReflectionTestUtils.setField(securityFilter, "repository", usuarioRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deveria recusar o excedente com 503 antes da autenticação, sem consultar o usuário no banco")
+    void doFilterCenario1() throws Exception {
+        var ocupada = ((LimitadorConcorrenciaAdaptativo) ReflectionTestUtils.getField(filtro, "limitador")).tentarAdquirir();
+        assertThat(ocupada).isPresent();
+
+        var response = executar();
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentType()).isEqualTo("application/problem+json");
+        assertThat(response.getContentAsString()).contains("\"codigo\":\"LIMITE_AGENDAMENTOS\"");
+        assertThat(atendidas).hasValue(0);
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    @DisplayName("Deveria autenticar e atender normalmente enquanto houver vaga no limite")
+    void doFilterCenario2() throws Exception {
+        var response = executar();
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(atendidas).hasValue(1);
+        verify(usuarioRepository).findByLogin("ana");
+    }
+
+    // Monta a cadeia na ordem em que o Spring registra os filtros: o limite pela sua @Order, e a autenticação
+    // na posição da cadeia do Spring Security.
+    private MockHttpServletResponse executar() throws Exception {
+        var filtros = new ArrayList<Filter>(List.of(new CadeiaSeguranca(securityFilter), filtro));
+        AnnotationAwareOrderComparator.sort(filtros);
+        assertThat(filtros.getFirst()).isSameAs(filtro);
+
+        var request = new MockHttpServletRequest("POST", "/consultas");
+        request.setServletPath("/consultas");
+        request.addHeader("Authorization", "Bearer token");
+        var response = new MockHttpServletResponse();
+        var controller = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                atendidas.incrementAndGet();
+                res.setStatus(201);
+            }
+        };
+        new MockFilterChain(controller, filtros.toArray(Filter[]::new)).doFilter(request, response);
+        return response;
+    }
+
+    private record CadeiaSeguranca(Filter autenticacao) implements Filter, Ordered {
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            autenticacao.doFilter(request, response, chain);
+        }
+
+        @Override
+        public int getOrder() {
+            return SecurityProperties.DEFAULT_FILTER_ORDER;
+        }
+    }
+}
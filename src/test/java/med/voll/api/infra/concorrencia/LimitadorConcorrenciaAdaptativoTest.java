@@ -0,0 +1,81 @@
+package med.voll.api.infra.concorrencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorConcorrenciaAdaptativoTest {
+
+    private final AtomicLong relogio = new AtomicLong();
+    private final LimitadorConcorrenciaAdaptativo limitador = new LimitadorConcorrenciaAdaptativo(20, 2, 200, 50, relogio::get);
+
+    // Repositório simulado: até 'capacidade' consultas simultâneas respondem na latência base;
+    // acima disso o banco enfileira e a latência cresce proporcionalmente.
+    private long latenciaDoRepositorio(int simultaneas, long latenciaBaseEmMs, int capacidade) {
+        var fila = Math.max(1.0, (double) simultaneas / capacidade);
+        return TimeUnit.MILLISECONDS.toNanos((long) (latenciaBaseEmMs * fila));
+    }
+
+    // Uma rodada: 'demanda' requisições tentam agendar ao mesmo tempo; as que conseguem permissão
+    // executam juntas e terminam depois da latência simulada. Devolve quantas foram rejeitadas.
+    private int rodada(int demanda, long latenciaBaseEmMs, int capacidade) {
+        var permissoes = new ArrayList<LimitadorConcorrenciaAdaptativo.Permissao>();
+        var rejeitadas = 0;
+        for (var i = 0; i < demanda; i++) {
+            var permissao = limitador.tentarAdquirir();
+            if (permissao.isPresent()) {
+                permissoes.add(permissao.get());
+            } else {
+                rejeitadas++;
+            }
+        }
+        relogio.addAndGet(latenciaDoRepositorio(permissoes.size(), latenciaBaseEmMs, capacidade));
+        permissoes.forEach(LimitadorConcorrenciaAdaptativo.Permissao::concluir);
+        return rejeitadas;
+    }
+
+    @Test
+    @DisplayName("Deveria aumentar o limite enquanto a latência do repositório continua saudável")
+    void limiteCenario1() {
+        for (var i = 0; i < 100; i++) {
+            rodada(100, 10, 100);
+        }
+
+        assertThat(limitador.getLimite()).isGreaterThan(20);
+        assertThat(limitador.getEmAndamento()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deveria reduzir o limite e rejeitar o excedente quando o repositório fica lento")
+    void limiteCenario2() {
+        for (var i = 0; i < 100; i++) {
+            rodada(100, 10, 100);
+        }
+        var limiteSaudavel = limitador.getLimite();
+
+        // O banco passa a aguentar só 5 consultas simultâneas sem enfileirar.
+        var rejeitadas = 0;
+        for (var i = 0; i < 30; i++) {
+            rejeitadas += rodada(100, 10, 5);
+        }
+
+        assertThat(limitador.getLimite()).isLessThan(limiteSaudavel / 2);
+        assertThat(rejeitadas).isPositive();
+    }
+
+    @Test
+    @DisplayName("Deveria reduzir o limite quando a execução sinaliza sobrecarga")
+    void limiteCenario3() {
+        for (var i = 0; i < 10; i++) {
+            limitador.tentarAdquirir().orElseThrow().sinalizarSobrecarga();
+        }
+
+        assertThat(limitador.getLimite()).isLessThan(20);
+        assertThat(limitador.getEmAndamento()).isZero();
+    }
+}
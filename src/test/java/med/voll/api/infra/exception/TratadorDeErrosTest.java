@@ -0,0 +1,60 @@
+package med.voll.api.infra.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.CodigoErroValidacao;
+import med.voll.api.domain.ValidacaoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TratadorDeErrosTest {
+
+    private final TratadorDeErros tratador = new TratadorDeErros();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(tratador, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(tratador, "meterRegistry", meterRegistry);
+        tratador.prepararRespostas();
+    }
+
+    @Test
+    @DisplayName("Deveria devolver sempre o mesmo problem+json já serializado para a mensagem padrão do código")
+    void tratarErroRegraDeNegocioCenario1() {
+        var primeira = tratador.tratarErroRegraDeNegocio(new ValidacaoException(CodigoErroValidacao.PACIENTE_INATIVO));
+        var segunda = tratador.tratarErroRegraDeNegocio(new ValidacaoException(CodigoErroValidacao.PACIENTE_INATIVO));
+
+        assertThat(primeira.getStatusCode().value()).isEqualTo(400);
+        assertThat(primeira.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        assertThat(segunda.getBody()).isSameAs(primeira.getBody());
+        assertThat(new String((byte[]) primeira.getBody(), StandardCharsets.UTF_8))
+                .contains("\"codigo\":\"PACIENTE_INATIVO\"")
+                .contains("\"detail\":\"A consulta não pode ser agendada com um paciente inativo\"");
+        assertThat(meterRegistry.counter("validacao.rejeicoes", "codigo", "PACIENTE_INATIVO").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deveria montar o problema na hora quando a mensagem tiver detalhe próprio")
+    void tratarErroRegraDeNegocioCenario2() {
+        var resposta = tratador.tratarErroRegraDeNegocio(new ValidacaoException(CodigoErroValidacao.JANELA_ESPERA_LONGA, "Máximo de 14 dias"));
+
+        var problema = (ProblemDetail) resposta.getBody();
+        assertThat(problema.getDetail()).isEqualTo("Máximo de 14 dias");
+        assertThat(problema.getProperties()).containsEntry("codigo", "JANELA_ESPERA_LONGA");
+    }
+
+    @Test
+    @DisplayName("Não deveria capturar stack trace nas recusas")
+    void validacaoExceptionCenario1() {
+        assertThat(new ValidacaoException(CodigoErroValidacao.MEDICO_INATIVO).getStackTrace()).isEmpty();
+    }
+}
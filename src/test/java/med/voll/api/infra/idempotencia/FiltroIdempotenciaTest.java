@@ -0,0 +1,199 @@
+package med.voll.api.infra.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FiltroIdempotenciaTest {
+
+    private FiltroIdempotencia filtro;
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        var repository = mock(ChaveIdempotenciaRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+        var armazenamento = new ArmazenamentoIdempotencia();
+        ReflectionTestUtils.setField(armazenamento, "repository", repository);
+        ReflectionTestUtils.setField(armazenamento, "capacidade", 100);
+        ReflectionTestUtils.setField(armazenamento, "validade", Duration.ofHours(1));
+        armazenamento.inicializar();
+
+        filtro = new FiltroIdempotencia();
+        ReflectionTestUtils.setField(filtro, "armazenamento", armazenamento);
+        ReflectionTestUtils.setField(filtro, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filtro, "caminhos", Set.of("/consultas"));
+        ReflectionTestUtils.setField(filtro, "esperaMaxima", Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Deveria devolver a resposta original quando a mesma chave for reenviada")
+    void doFilterCenario1() throws Exception {
+        FilterChain chain = (req, res) -> criarConsulta((HttpServletResponse) res);
+
+        var primeira = executar("chave-1", "{\"idPaciente\":1}", chain);
+        var segunda = executar("chave-1", "{\"idPaciente\":1}", chain);
+
+        assertThat(execucoes.get()).isEqualTo(1);
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getContentAsString()).isEqualTo(primeira.getContentAsString());
+        assertThat(segunda.getHeader("Location")).isEqualTo("/consultas/1");
+        assertThat(segunda.getHeader("Idempotency-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    @DisplayName("Deveria executar uma única vez quando requisições com a mesma chave chegam ao mesmo tempo")
+    void doFilterCenario2() throws Exception {
+        var liberar = new CountDownLatch(1);
+        FilterChain chain = (req, res) -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            criarConsulta((HttpServletResponse) res);
+        };
+
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var respostas = IntStream.range(0, 4)
+                    .mapToObj(i -> executor.submit(() -> executar("chave-2", "{}", chain)))
+                    .toList();
+            Thread.sleep(200);
+            liberar.countDown();
+
+            for (var resposta : respostas) {
+                assertThat(resposta.get().getStatus()).isEqualTo(201);
+            }
+        }
+        assertThat(execucoes.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deveria recusar com 422 a mesma chave reenviada com outro corpo")
+    void doFilterCenario3() throws Exception {
+        FilterChain chain = (req, res) -> criarConsulta((HttpServletResponse) res);
+
+        executar("chave-3", "{\"idPaciente\":1}", chain);
+        var outroCorpo = executar("chave-3", "{\"idPaciente\":2}", chain);
+
+        assertThat(execucoes.get()).isEqualTo(1);
+        assertThat(outroCorpo.getStatus()).isEqualTo(422);
+        assertThat(outroCorpo.getContentType()).isEqualTo("application/problem+json");
+        assertThat(outroCorpo.getContentAsString()).contains("\"codigo\":\"CHAVE_REUTILIZADA\"");
+    }
+
+    @Test
+    @DisplayName("Deveria entregar ao controller o corpo já lido pelo filtro")
+    void doFilterCenario4() throws Exception {
+        var recebido = new StringBuilder();
+        FilterChain chain = (req, res) -> {
+            recebido.append(new String(req.getInputStream().readAllBytes()));
+            criarConsulta((HttpServletResponse) res);
+        };
+
+        executar("chave-4", "{\"idPaciente\":1}", chain);
+
+        assertThat(recebido.toString()).isEqualTo("{\"idPaciente\":1}");
+    }
+
+    @Test
+    @DisplayName("Deveria responder 409 com documento de problema quando a requisição original demora além da espera máxima")
+    void doFilterCenario5() throws Exception {
+        ReflectionTestUtils.setField(filtro, "esperaMaxima", Duration.ofMillis(100));
+        var liberar = new CountDownLatch(1);
+        FilterChain chain = (req, res) -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            criarConsulta((HttpServletResponse) res);
+        };
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var original = executor.submit(() -> executar("chave-5", "{}", chain));
+            Thread.sleep(50);
+            var repetida = executar("chave-5", "{}", chain);
+            liberar.countDown();
+
+            assertThat(repetida.getStatus()).isEqualTo(409);
+            assertThat(repetida.getContentAsString()).contains("\"codigo\":\"CHAVE_EM_USO\"");
+            assertThat(original.get().getStatus()).isEqualTo(201);
+        }
+    }
+
+    @Test
+    @DisplayName("Deveria entregar o corpo já lido a quem o consome de forma assíncrona")
+    void doFilterCenario6() throws Exception {
+        var recebido = new StringBuilder();
+        var concluido = new CountDownLatch(1);
+        FilterChain chain = (req, res) -> {
+            var entrada = req.getInputStream();
+            entrada.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (entrada.isReady() && !entrada.isFinished()) {
+                        recebido.append((char) entrada.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    concluido.countDown();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            criarConsulta((HttpServletResponse) res);
+        };
+
+        executar("chave-6", "{\"idPaciente\":1}", chain);
+
+        assertThat(concluido.getCount()).isZero();
+        assertThat(recebido.toString()).isEqualTo("{\"idPaciente\":1}");
+    }
+
+    private MockHttpServletResponse executar(String chave, String corpo, FilterChain chain) throws Exception {
+        var request = new MockHttpServletRequest("POST", "/consultas");
+        request.setServletPath("/consultas");
+        request.addHeader(FiltroIdempotencia.CABECALHO, chave);
+        request.setContent(corpo.getBytes());
+        var response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void criarConsulta(HttpServletResponse response) throws IOException {
+        var id = execucoes.incrementAndGet();
+        response.setStatus(201);
+        response.setHeader("Location", "/consultas/" + id);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"id\":" + id + "}");
+    }
+}
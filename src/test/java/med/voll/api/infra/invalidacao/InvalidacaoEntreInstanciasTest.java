@@ -0,0 +1,106 @@
+package med.voll.api.infra.invalidacao;
+
+import med.voll.api.ApiApplication;
+import med.voll.api.controller.MedicoController;
+import med.voll.api.domain.cadastro.RegistroCadastrosAtivos;
+import med.voll.api.domain.endereco.DadosEndereco;
+import med.voll.api.domain.medico.DadosAtualizacaoMedico;
+import med.voll.api.domain.medico.DadosCadastroMedico;
+import med.voll.api.domain.medico.DadosDetalhamentoMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.infra.cache.CacheDetalhes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Duas instâncias da aplicação compartilhando o mesmo banco H2 em memória, como dois nós atrás do balanceador.
+class InvalidacaoEntreInstanciasTest {
+
+    private static ConfigurableApplicationContext instanciaA;
+    private static ConfigurableApplicationContext instanciaB;
+
+    @BeforeAll
+    static void subirInstancias() {
+        instanciaA = subir();
+        instanciaB = subir();
+    }
+
+    @AfterAll
+    static void derrubarInstancias() {
+        instanciaB.close();
+        instanciaA.close();
+    }
+
+    @Test
+    @DisplayName("Deveria invalidar na outra instância o detalhe do médico atualizado")
+    void atualizarCenario1() {
+        var id = cadastrarMedico("Maria", "123456");
+        var cacheB = instanciaB.getBean(CacheDetalhes.class);
+        assertThat(detalhe(cacheB, id)).contains("\"nome\":\"Maria\"");
+
+        instanciaA.getBean(MedicoController.class).atualizar(id, new DadosAtualizacaoMedico(id, "Maria Souza", null, null));
+
+        assertThat(detalhe(cacheB, id)).contains("\"nome\":\"Maria\"");
+        aguardar(() -> detalhe(cacheB, id).contains("\"nome\":\"Maria Souza\""));
+    }
+
+    @Test
+    @DisplayName("Deveria fazer a outra instância enxergar a exclusão do médico")
+    void excluirCenario1() {
+        var id = cadastrarMedico("João", "654321");
+        var registroB = instanciaB.getBean(RegistroCadastrosAtivos.class);
+        assertThat(registroB.medicoAtivo(id)).isTrue();
+
+        instanciaA.getBean(MedicoController.class).excluir(id);
+
+        assertThat(instanciaA.getBean(RegistroCadastrosAtivos.class).medicoAtivo(id)).isFalse();
+        aguardar(() -> !registroB.medicoAtivo(id));
+    }
+
+    private static ConfigurableApplicationContext subir() {
+        return ApiApplication.criarAplicacao().run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATA",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.jmx.enabled=false",
+                "--api.outbox.publicador.habilitado=false",
+                "--api.detalhes.janela-cache=1h",
+                "--api.invalidacao.intervalo=100ms");
+    }
+
+    private static Long cadastrarMedico(String nome, String crm) {
+        var endereco = new DadosEndereco("Rua 1", "Centro", "01001000", "São Paulo", "SP", null, "1");
+        var dados = new DadosCadastroMedico(nome, crm + "@voll.med", "11999999999", crm, Especialidade.CARDIOLOGIA, endereco);
+        return instanciaA.getBean(MedicoController.class).cadastrar(dados, UriComponentsBuilder.newInstance()).getBody().id();
+    }
+
+    private static String detalhe(CacheDetalhes cache, Long id) {
+        return new String(cache.obter("medico", id, () -> new DadosDetalhamentoMedico(
+                instanciaB.getBean(MedicoRepository.class).findById(id).orElseThrow())), StandardCharsets.UTF_8);
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        var limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atendida em 5s").isLessThan(limite);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
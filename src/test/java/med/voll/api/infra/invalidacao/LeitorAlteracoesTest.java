@@ -0,0 +1,127 @@
+package med.voll.api.infra.invalidacao;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeitorAlteracoesTest {
+
+    @Mock
+    private LogAlteracaoRepository repository;
+
+    @Mock
+    private RegistroAlteracoes registro;
+
+    @Mock
+    private CacheInvalidavel cache;
+
+    private LeitorAlteracoes leitor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        leitor = new LeitorAlteracoes();
+        ReflectionTestUtils.setField(leitor, "repository", repository);
+        ReflectionTestUtils.setField(leitor, "registro", registro);
+        ReflectionTestUtils.setField(leitor, "caches", List.of(cache));
+        ReflectionTestUtils.setField(leitor, "meterRegistry", meterRegistry);
+        leitor.registrarMetricas();
+
+        lenient().when(registro.getOrigem()).thenReturn("local");
+        when(repository.findMaiorId()).thenReturn(10L);
+        leitor.iniciar();
+    }
+
+    @Test
+    @DisplayName("Deveria invalidar as alterações de outras instâncias e ignorar as da própria")
+    void lerAlteracoesCenario1() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(alteracao(11L, RecursoAlterado.MEDICO, 1L, "outra"), alteracao(12L, RecursoAlterado.PACIENTE, 2L, "local")));
+
+        leitor.lerAlteracoes();
+
+        verify(cache).invalidar(RecursoAlterado.MEDICO, 1L);
+        verifyNoMoreInteractions(cache);
+        assertThat(meterRegistry.counter("invalidacao.aplicadas").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("invalidacao.atraso").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deveria aplicar uma alteração confirmada depois de outra com id maior")
+    void lerAlteracoesCenario2() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(alteracao(12L, RecursoAlterado.MEDICO, 2L, "outra")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findByIdIn(Set.of(11L)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(alteracao(11L, RecursoAlterado.MEDICO, 1L, "outra")));
+
+        leitor.lerAlteracoes();
+        leitor.lerAlteracoes();
+        verify(cache, never()).invalidar(RecursoAlterado.MEDICO, 1L);
+
+        leitor.lerAlteracoes();
+        verify(cache).invalidar(RecursoAlterado.MEDICO, 1L);
+        verify(cache).invalidar(RecursoAlterado.MEDICO, 2L);
+
+        leitor.lerAlteracoes();
+        verify(repository, times(2)).findByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Deveria desistir de uma lacuna depois da espera (transação desfeita)")
+    void lerAlteracoesCenario3() {
+        ReflectionTestUtils.setField(leitor, "esperaLacunas", Duration.ZERO);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(alteracao(12L, RecursoAlterado.MEDICO, 2L, "outra")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findByIdIn(any())).thenReturn(List.of());
+
+        leitor.lerAlteracoes();
+        assertThat(meterRegistry.get("invalidacao.lacunas").gauge().value()).isEqualTo(1);
+
+        leitor.lerAlteracoes();
+        leitor.lerAlteracoes();
+        assertThat(meterRegistry.get("invalidacao.lacunas").gauge().value()).isZero();
+        verify(repository, times(1)).findByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Deveria ler o log em lotes até esgotar")
+    void lerAlteracoesCenario4() {
+        ReflectionTestUtils.setField(leitor, "tamanhoLote", 2);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(alteracao(11L, RecursoAlterado.MEDICO, 1L, "outra"), alteracao(12L, RecursoAlterado.MEDICO, 2L, "outra")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class)))
+                .thenReturn(List.of(alteracao(13L, RecursoAlterado.MEDICO, 3L, "outra")));
+
+        leitor.lerAlteracoes();
+
+        verify(cache, times(3)).invalidar(eq(RecursoAlterado.MEDICO), anyLong());
+        verify(repository, never()).findByIdIn(any());
+    }
+
+    private static LogAlteracao alteracao(Long id, RecursoAlterado recurso, Long idRecurso, String origem) {
+        var alteracao = new LogAlteracao(recurso, idRecurso, origem);
+        ReflectionTestUtils.setField(alteracao, "id", id);
+        return alteracao;
+    }
+}
@@ -0,0 +1,80 @@
+package med.voll.api.infra.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.consulta.TipoEventoConsulta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublicadorOutboxTest {
+
+    @Mock
+    private EventoOutboxRepository repository;
+
+    @Spy
+    private DestinoEventosMemoria destino = new DestinoEventosMemoria(3);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PublicadorOutbox publicador;
+
+    @BeforeEach
+    void setUp() {
+        publicador.registrarMetricas();
+    }
+
+    @Test
+    @DisplayName("Deveria entregar os eventos na ordem de gravação e marcar somente os aceitos")
+    void publicarPendentesCenario1() {
+        var lote = List.of(evento(1L, 10L), evento(2L, 10L), evento(3L, 11L), evento(4L, 10L));
+        when(repository.findByPublicadoEmIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(lote);
+
+        publicador.publicarPendentes();
+
+        // O destino só comporta 3 eventos: o quarto fica pendente para o próximo ciclo.
+        assertThat(destino.consumir()).extracting(EventoOutbox::getId).containsExactly(1L, 2L, 3L);
+        verify(repository).marcarPublicados(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("outbox.recusados").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deveria recuar depois de uma falha do destino, sem marcar nenhum evento")
+    void publicarPendentesCenario2() {
+        when(repository.findByPublicadoEmIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(evento(1L, 10L)));
+        doThrow(new IllegalStateException("destino indisponível")).when(destino).publicar(anyList());
+
+        publicador.publicarPendentes();
+        publicador.publicarPendentes();
+
+        verify(repository, never()).marcarPublicados(anyList(), any());
+        // A segunda chamada cai dentro da pausa e nem consulta o banco.
+        verify(repository, times(1)).findByPublicadoEmIsNullOrderByIdAsc(any(Pageable.class));
+        assertThat(meterRegistry.counter("outbox.falhas").count()).isEqualTo(1);
+    }
+
+    private EventoOutbox evento(Long id, Long idConsulta) {
+        var evento = new EventoOutbox(TipoEventoConsulta.CONSULTA_AGENDADA, idConsulta, "{}");
+        ReflectionTestUtils.setField(evento, "id", id);
+        return evento;
+    }
+}
@@ -0,0 +1,83 @@
+package med.voll.api.infra.serializacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import med.voll.api.domain.consulta.DadosAgendamentoConsulta;
+import med.voll.api.domain.consulta.MotivoCancelamento;
+import med.voll.api.domain.consulta.historico.DadosHistoricoConsulta;
+import med.voll.api.domain.medico.DadosListagemMedico;
+import med.voll.api.domain.medico.Especialidade;
+import med.voll.api.domain.paciente.DadosListagemPaciente;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class FormatosSerializacaoTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    @Test
+    @DisplayName("Deveria ler o corpo de um agendamento enviado em CBOR")
+    void agendamentoEmCbor() throws Exception {
+        var dados = new DadosAgendamentoConsulta(1L, 2L, DATA, Especialidade.CARDIOLOGIA, 45);
+
+        assertThat(cbor.readValue(cbor.writeValueAsBytes(dados), DadosAgendamentoConsulta.class)).isEqualTo(dados);
+    }
+
+    @Test
+    @DisplayName("Deveria gerar páginas menores em CBOR do que em JSON")
+    void compararTamanho() throws Exception {
+        for (var pagina : paginas()) {
+            assertThat(cbor.writeValueAsBytes(pagina[1]).length).isLessThan(json.writeValueAsBytes(pagina[1]).length);
+        }
+    }
+
+    // Medição de tempo de serialização: fora do build padrão (ver testes.excluidos no pom.xml).
+    @Test
+    @Tag("desempenho")
+    @DisplayName("Deveria medir o tamanho e o tempo de serialização das páginas em JSON e em CBOR")
+    void comparar() throws Exception {
+        for (var pagina : paginas()) {
+            log.info("Página de {}: JSON {} bytes, {} µs | CBOR {} bytes, {} µs", pagina[0],
+                    json.writeValueAsBytes(pagina[1]).length, String.format("%.1f", medir(json, pagina[1])),
+                    cbor.writeValueAsBytes(pagina[1]).length, String.format("%.1f", medir(cbor, pagina[1])));
+        }
+    }
+
+    private static Object[][] paginas() {
+        return new Object[][]{
+                {"médicos (20)", pagina(LongStream.rangeClosed(1, 20).mapToObj(i -> (Object) new DadosListagemMedico(i, "Médico " + i, "medico" + i + "@voll.med", String.format("%06d", i), Especialidade.values()[(int) (i % Especialidade.values().length)])).toList())},
+                {"pacientes (10)", pagina(LongStream.rangeClosed(1, 10).mapToObj(i -> (Object) new DadosListagemPaciente(i, "Paciente " + i, "paciente" + i + "@voll.med", String.format("%011d", i))).toList())},
+                {"histórico (50)", pagina(LongStream.rangeClosed(1, 50).mapToObj(i -> (Object) new DadosHistoricoConsulta(i, i % 7, i, DATA.plusHours(i), DATA.plusHours(i).plusMinutes(30), i % 5 == 0 ? MotivoCancelamento.PACIENTE_DESISTIU : null, false)).toList())}};
+    }
+
+    private static PageImpl<Object> pagina(List<Object> conteudo) {
+        return new PageImpl<>(conteudo, PageRequest.of(0, conteudo.size()), 1000);
+    }
+
+    // Tempo médio de serialização, em microssegundos, depois de um aquecimento.
+    private static double medir(ObjectMapper mapper, Object valor) throws Exception {
+        for (var i = 0; i < 2_000; i++) {
+            mapper.writeValueAsBytes(valor);
+        }
+        var repeticoes = 5_000;
+        var inicio = System.nanoTime();
+        for (var i = 0; i < repeticoes; i++) {
+            mapper.writeValueAsBytes(valor);
+        }
+        return (System.nanoTime() - inicio) / 1e3 / repeticoes;
+    }
+}
@@ -0,0 +1,179 @@
+package med.voll.api.infra.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.consulta.AlteracaoHorario;
+import med.voll.api.domain.consulta.TipoAlteracaoHorario;
+import med.voll.api.domain.medico.Especialidade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DifusorEventosAgendaTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    private final DifusorEventosAgenda difusor = new DifusorEventosAgenda();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(difusor, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(difusor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(difusor, "capacidadeFila", 2);
+        ReflectionTestUtils.setField(difusor, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(difusor, "esperaEncerramento", Duration.ofSeconds(2));
+        difusor.registrarMetricas();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        difusor.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deveria entregar cada alteração a todos os inscritos cujo filtro a aceita")
+    void publicarCenario1() throws Exception {
+        var doMedico = inscrever(new EmitterFalso(), 1L, null);
+        var daEspecialidade = inscrever(new EmitterFalso(), null, Especialidade.CARDIOLOGIA);
+        var deOutroMedico = inscrever(new EmitterFalso(), 2L, null);
+
+        difusor.publicar(alteracao(1L, Especialidade.CARDIOLOGIA));
+
+        aguardar(() -> doMedico.enviados.size() == 1 && daEspecialidade.enviados.size() == 1);
+        assertThat(doMedico.enviados.getFirst()).contains("HORARIO_OCUPADO");
+        assertThat(daEspecialidade.enviados).isEqualTo(doMedico.enviados);
+        Thread.sleep(50);
+        assertThat(deOutroMedico.enviados).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deveria desconectar quem enche a fila sem atrasar os demais inscritos")
+    void publicarCenario2() throws Exception {
+        var lento = inscrever(new EmitterFalso(new CountDownLatch(1)), null, null);
+        var rapido = inscrever(new EmitterFalso(), null, null);
+
+        for (var i = 1; i <= 4; i++) {
+            difusor.publicar(alteracao(1L, Especialidade.CARDIOLOGIA));
+            var publicados = i;
+            aguardar(() -> rapido.enviados.size() == publicados);
+        }
+
+        assertThat(lento.completado).isTrue();
+        assertThat(meterRegistry.counter("sse.inscritos.descartados").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.inscritos").gauge().value()).isEqualTo(1);
+        lento.liberar.countDown();
+    }
+
+    @Test
+    @DisplayName("Deveria remover o inscrito cuja conexão foi fechada pelo cliente")
+    void publicarCenario3() throws Exception {
+        var fechado = inscrever(new EmitterFalso(), null, null);
+        fechado.fechado = true;
+        var aberto = inscrever(new EmitterFalso(), null, null);
+
+        difusor.publicar(alteracao(1L, Especialidade.CARDIOLOGIA));
+
+        aguardar(() -> meterRegistry.get("sse.inscritos").gauge().value() == 1);
+        difusor.enviarHeartbeat();
+        aguardar(() -> aberto.enviados.size() == 2);
+        assertThat(fechado.enviados).isEmpty();
+        assertThat(fechado.tentativas).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deveria enviar o que já está nas filas antes de fechar as conexões na parada")
+    void encerrarCenario1() throws Exception {
+        var emitter = inscrever(new EmitterFalso(Duration.ofMillis(50)), null, null);
+        difusor.publicar(alteracao(1L, Especialidade.CARDIOLOGIA));
+        difusor.publicar(alteracao(2L, Especialidade.CARDIOLOGIA));
+
+        difusor.encerrar();
+
+        assertThat(emitter.enviados).hasSize(2);
+        assertThat(emitter.completado).isTrue();
+        assertThat(meterRegistry.get("sse.inscritos").gauge().value()).isZero();
+    }
+
+    private EmitterFalso inscrever(EmitterFalso emitter, Long idMedico, Especialidade especialidade) {
+        difusor.inscrever(emitter, idMedico, especialidade);
+        return emitter;
+    }
+
+    private static AlteracaoHorario alteracao(Long idMedico, Especialidade especialidade) {
+        return new AlteracaoHorario(TipoAlteracaoHorario.HORARIO_OCUPADO, 10L, idMedico, especialidade, DATA, DATA.plusMinutes(30));
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        var limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atingida a tempo").isLessThan(limite);
+            Thread.sleep(5);
+        }
+    }
+
+    // Registra o que seria escrito na conexão; pode simular um cliente lento (espera a cada envio, ou até ser
+    // liberado) ou uma conexão já fechada (falha no envio).
+    private static class EmitterFalso extends SseEmitter {
+
+        final List<String> enviados = new CopyOnWriteArrayList<>();
+        final CountDownLatch liberar;
+        final Duration pausa;
+        volatile boolean fechado;
+        volatile boolean completado;
+        volatile int tentativas;
+
+        EmitterFalso() {
+            this(new CountDownLatch(0), Duration.ZERO);
+        }
+
+        EmitterFalso(CountDownLatch liberar) {
+            this(liberar, Duration.ZERO);
+        }
+
+        EmitterFalso(Duration pausa) {
+            this(new CountDownLatch(0), pausa);
+        }
+
+        private EmitterFalso(CountDownLatch liberar, Duration pausa) {
+            this.liberar = liberar;
+            this.pausa = pausa;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            tentativas++;
+            if (fechado) {
+                throw new IOException("Conexão fechada pelo cliente");
+            }
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+                Thread.sleep(pausa);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            enviados.add(evento.build().stream().map(parte -> parte.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completado = true;
+        }
+    }
+}
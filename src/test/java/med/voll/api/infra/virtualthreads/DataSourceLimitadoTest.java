@@ -0,0 +1,78 @@
+package med.voll.api.infra.virtualthreads;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class DataSourceLimitadoTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection conexao = mock(Connection.class);
+    private DataSourceLimitado dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenReturn(conexao);
+        dataSource = new DataSourceLimitado(pool, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Deveria recusar quem passa do tamanho do pool e devolver a licença quando a conexão é fechada")
+    void getConnectionCenario1() throws SQLException {
+        var primeira = dataSource.getConnection();
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        primeira.close();
+
+        assertThat(dataSource.getConnection()).isNotNull();
+        verify(conexao).close();
+    }
+
+    @Test
+    @DisplayName("Deveria devolver a licença quando o pool falha ao entregar a conexão")
+    void getConnectionCenario2() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("banco fora do ar")).thenThrow(new IllegalStateException("pool encerrado")).thenReturn(conexao);
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(IllegalStateException.class);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+    }
+
+    @Test
+    @DisplayName("Não deveria devolver a licença duas vezes quando a mesma conexão é fechada de novo")
+    void getConnectionCenario3() throws SQLException {
+        var conexaoFechadaDuasVezes = dataSource.getConnection();
+        conexaoFechadaDuasVezes.close();
+        conexaoFechadaDuasVezes.close();
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("Deveria devolver a licença mesmo quando o fechamento da conexão falha")
+    void getConnectionCenario4() throws SQLException {
+        doThrow(new SQLException("falha ao devolver ao pool")).when(conexao).close();
+        var primeira = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(primeira::close).isInstanceOf(SQLException.class);
+
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+}